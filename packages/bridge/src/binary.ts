@@ -0,0 +1,213 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+import { CpdToken, Metrics, SymbolHighlight, SyntaxHighlight } from '@sonar/jsts';
+
+type Location = SyntaxHighlight['location'];
+
+/**
+ * The media type of analysis responses encoded in the binary format
+ *
+ * The plugin asks for this format using the `Accept` header of analysis requests.
+ * Responses to any other request, or to a client that does not ask for it, stay JSON.
+ */
+export const BINARY_CONTENT_TYPE = 'application/x-sonarjs-analysis';
+
+const FORMAT_VERSION = 1;
+
+/**
+ * Encodes an analysis output into the binary format
+ *
+ * Integers are written with a variable length encoding, 7 bits per byte, like the
+ * plugin does for its analysis cache. The layout is the following:
+ *
+ * - the format version
+ * - a string table with token images and highlighting text types
+ * - the JSON of the remaining fields of the output: issues, parsing error, etc.
+ * - the metrics, with their line lists delta-encoded
+ * - the syntax highlights, the symbol highlights and the cpd tokens, whose locations
+ *   are delta-encoded relatively to the start of the previous location
+ * - the `END` marker
+ *
+ * @param output an analysis output
+ * @returns the encoded output
+ */
+export function encodeAnalysisOutput(output: {
+  highlights?: SyntaxHighlight[];
+  highlightedSymbols?: SymbolHighlight[];
+  metrics?: Metrics;
+  cpdTokens?: CpdToken[];
+}): Uint8Array {
+  const { highlights = [], highlightedSymbols = [], metrics, cpdTokens = [], ...rest } = output;
+  const strings = new StringTable();
+  const body = new BinaryWriter();
+
+  body.writeString(JSON.stringify(rest));
+  writeMetrics(body, metrics);
+
+  let cursor = new LocationWriter(body);
+  body.writeInt(highlights.length);
+  for (const { location, textType } of highlights) {
+    body.writeInt(strings.indexOf(textType));
+    cursor.write(location);
+  }
+
+  cursor = new LocationWriter(body);
+  body.writeInt(highlightedSymbols.length);
+  for (const { declaration, references } of highlightedSymbols) {
+    cursor.write(declaration);
+    body.writeInt(references.length);
+    for (const reference of references) {
+      cursor.write(reference);
+    }
+  }
+
+  cursor = new LocationWriter(body);
+  body.writeInt(cpdTokens.length);
+  for (const { location, image } of cpdTokens) {
+    body.writeInt(strings.indexOf(image));
+    cursor.write(location);
+  }
+  body.writeString('END');
+
+  const header = new BinaryWriter();
+  header.writeInt(FORMAT_VERSION);
+  header.writeInt(strings.values.length);
+  for (const value of strings.values) {
+    header.writeString(value);
+  }
+  return concat(header.bytes(), body.bytes());
+}
+
+function writeMetrics(writer: BinaryWriter, metrics: Metrics | undefined) {
+  if (!metrics) {
+    writer.writeInt(0);
+    return;
+  }
+  writer.writeInt(1);
+  writeLines(writer, metrics.ncloc);
+  writeLines(writer, metrics.commentLines);
+  writeLines(writer, metrics.nosonarLines);
+  writeLines(writer, metrics.executableLines);
+  writer.writeInt(metrics.functions ?? 0);
+  writer.writeInt(metrics.statements ?? 0);
+  writer.writeInt(metrics.classes ?? 0);
+  writer.writeInt(metrics.complexity ?? 0);
+  writer.writeInt(metrics.cognitiveComplexity ?? 0);
+}
+
+function writeLines(writer: BinaryWriter, lines: number[] = []) {
+  writer.writeInt(lines.length);
+  let previous = 0;
+  for (const line of lines) {
+    writer.writeSignedInt(line - previous);
+    previous = line;
+  }
+}
+
+/**
+ * Writes locations relatively to the previous one: consecutive tokens are usually on
+ * the same line and close to each other, which keeps most deltas on a single byte.
+ */
+class LocationWriter {
+  private line = 0;
+  private column = 0;
+
+  constructor(private readonly writer: BinaryWriter) {}
+
+  write({ startLine, startCol, endLine, endCol }: Location) {
+    const lineDelta = startLine - this.line;
+    this.writer.writeSignedInt(lineDelta);
+    this.writer.writeSignedInt(lineDelta === 0 ? startCol - this.column : startCol);
+    this.writer.writeSignedInt(endLine - startLine);
+    this.writer.writeSignedInt(endLine === startLine ? endCol - startCol : endCol);
+    this.line = startLine;
+    this.column = startCol;
+  }
+}
+
+class StringTable {
+  readonly values: string[] = [];
+  private readonly indexes = new Map<string, number>();
+
+  indexOf(value: string) {
+    let index = this.indexes.get(value);
+    if (index === undefined) {
+      index = this.values.length;
+      this.values.push(value);
+      this.indexes.set(value, index);
+    }
+    return index;
+  }
+}
+
+class BinaryWriter {
+  private buffer = new Uint8Array(1024);
+  private length = 0;
+  private readonly encoder = new TextEncoder();
+
+  /**
+   * Writes a non-negative integer using 7 bits per byte, the highest bit telling
+   * whether another byte follows.
+   */
+  writeInt(value: number) {
+    this.ensureCapacity(5);
+    let remaining = value >>> 0;
+    do {
+      const bits = remaining & 0x7f;
+      remaining >>>= 7;
+      this.buffer[this.length++] = remaining === 0 ? bits : bits | 0x80;
+    } while (remaining !== 0);
+  }
+
+  /**
+   * Writes a possibly negative integer, zigzag encoded so that small negative
+   * values stay small: 0, -1, 1, -2, 2... become 0, 1, 2, 3, 4...
+   */
+  writeSignedInt(value: number) {
+    this.writeInt((value << 1) ^ (value >> 31));
+  }
+
+  writeString(value: string) {
+    const bytes = this.encoder.encode(value);
+    this.writeInt(bytes.length);
+    this.ensureCapacity(bytes.length);
+    this.buffer.set(bytes, this.length);
+    this.length += bytes.length;
+  }
+
+  bytes() {
+    return this.buffer.subarray(0, this.length);
+  }
+
+  private ensureCapacity(size: number) {
+    if (this.length + size > this.buffer.length) {
+      const buffer = new Uint8Array(Math.max(this.buffer.length * 2, this.length + size));
+      buffer.set(this.bytes());
+      this.buffer = buffer;
+    }
+  }
+}
+
+function concat(first: Uint8Array, second: Uint8Array) {
+  const result = new Uint8Array(first.length + second.length);
+  result.set(first);
+  result.set(second, first.length);
+  return result;
+}
@@ -37,24 +37,31 @@ export function errorMiddleware(
   response: express.Response,
   _next: express.NextFunction,
 ) {
+  response.json(analysisErrorOutput(err));
+}
+
+/**
+ * Builds the output sent back to the plugin when an error occurs while serving a request.
+ *
+ * Batched analyses also rely on it to report the error of a single file without failing
+ * the analysis of the other files of the batch.
+ */
+export function analysisErrorOutput(err: any) {
   const { code, message, stack } = err;
   switch (code) {
     case ErrorCode.Parsing:
-      response.json(parseParsingError(err));
-      break;
+      return parseParsingError(err);
     case ErrorCode.FailingTypeScript:
     case ErrorCode.LinterInitialization:
-      response.json({
+      return {
         parsingError: {
           message,
           code,
         },
-      });
-      break;
+      };
     default:
       error(stack);
-      response.json({ error: message });
-      break;
+      return { error: message };
   }
 }
 
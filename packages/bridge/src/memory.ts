@@ -101,6 +101,44 @@ export function registerGarbageCollectionObserver() {
   obs.observe({ entryTypes: ['gc'] });
 }
 
+let majorGcCount = 0;
+let usedHeapSizeAfterMajorGc = 0;
+
+/**
+ * Records the heap usage of the current thread after each major garbage collection, which is
+ * what the thread actually retains, unlike the current usage including garbage not collected yet
+ */
+export function observeHeapUsageAfterGarbageCollection() {
+  const obs = new PerformanceObserver(items => {
+    const majorGcs = items
+      .getEntries()
+      .filter(
+        item =>
+          (item.detail as NodeGCPerformanceDetail)?.kind === constants.NODE_PERFORMANCE_GC_MAJOR,
+      );
+    if (majorGcs.length > 0) {
+      majorGcCount += majorGcs.length;
+      usedHeapSizeAfterMajorGc = v8.getHeapStatistics().used_heap_size;
+    }
+  });
+  obs.observe({ entryTypes: ['gc'] });
+}
+
+/**
+ * Returns the heap usage of the current thread in MB, which the plugin compares against the
+ * watermark configured with sonar.javascript.bridge.heapWatermark. The usage is the one after the
+ * last major garbage collection, if any, along with the number of major garbage collections so
+ * far, for the plugin to know whether the usage changed since it last checked.
+ */
+export function getHeapUsage() {
+  const { used_heap_size, heap_size_limit } = v8.getHeapStatistics();
+  return {
+    usedHeapSize: Math.floor((majorGcCount > 0 ? usedHeapSizeAfterMajorGc : used_heap_size) / MB),
+    heapSizeLimit: Math.floor(heap_size_limit / MB),
+    majorGcCount,
+  };
+}
+
 export function logHeapStatistics() {
   if (getContext().debugMemory) {
     debug(JSON.stringify(v8.getHeapStatistics()));
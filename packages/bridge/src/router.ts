@@ -19,24 +19,31 @@
  */
 import express from 'express';
 import { Worker } from 'worker_threads';
-import { delegate } from './worker';
+import { broadcast, delegate, delegateByProgram, heapUsage } from './worker';
 
-export default function (worker: Worker): express.Router {
+export default function (workers: Worker[]): express.Router {
   const router = express.Router();
+  const [worker] = workers;
 
-  /** Endpoints running on the worker thread */
+  /** Endpoints running on the worker thread owning the program of the request, if any */
+  router.post('/analyze-batch', delegateByProgram(workers, 'on-analyze-batch'));
+  router.post('/analyze-js', delegateByProgram(workers, 'on-analyze-js'));
+  router.post('/analyze-ts', delegateByProgram(workers, 'on-analyze-ts'));
+  router.post('/analyze-with-program', delegateByProgram(workers, 'on-analyze-with-program'));
+  router.post('/create-program', delegateByProgram(workers, 'on-create-program'));
+  router.post('/delete-program', delegateByProgram(workers, 'on-delete-program'));
+
+  /** Endpoints running on every worker thread */
+  router.post('/init-linter', broadcast(workers, 'on-init-linter'));
+  router.post('/new-tsconfig', broadcast(workers, 'on-new-tsconfig'));
+  router.post('/memory', heapUsage(workers));
+
+  /** Endpoints running on the first worker thread */
   router.post('/analyze-project', delegate(worker, 'on-analyze-project'));
   router.post('/analyze-css', delegate(worker, 'on-analyze-css'));
-  router.post('/analyze-js', delegate(worker, 'on-analyze-js'));
   router.post('/analyze-html', delegate(worker, 'on-analyze-html'));
-  router.post('/analyze-ts', delegate(worker, 'on-analyze-ts'));
-  router.post('/analyze-with-program', delegate(worker, 'on-analyze-with-program'));
   router.post('/analyze-yaml', delegate(worker, 'on-analyze-yaml'));
-  router.post('/create-program', delegate(worker, 'on-create-program'));
   router.post('/create-tsconfig-file', delegate(worker, 'on-create-tsconfig-file'));
-  router.post('/delete-program', delegate(worker, 'on-delete-program'));
-  router.post('/init-linter', delegate(worker, 'on-init-linter'));
-  router.post('/new-tsconfig', delegate(worker, 'on-new-tsconfig'));
   router.post('/tsconfig-files', delegate(worker, 'on-tsconfig-files'));
 
   /** Endpoints running on the main thread */
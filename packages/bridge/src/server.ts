@@ -52,15 +52,19 @@ const MAX_REQUEST_SIZE = '50mb';
 const SHUTDOWN_TIMEOUT = 15_000;
 
 /**
- * A pool of a single worker thread
+ * A pool of worker threads, of a single one by default
  *
  * The main thread of the bridge delegates CPU-intensive operations to
  * a worker thread. These include all HTTP requests sent by the plugin
  * that require maintaining a state across requests, namely initialized
  * linters, created programs, and whatever information TypeScript ESLint
  * and TypeScript keep at runtime.
+ *
+ * With more worker threads, each one owns the programs it creates, and
+ * the plugin can create the next program on a worker thread while the
+ * files of the current program are analyzed on another one.
  */
-let worker: Worker;
+let workers: Worker[];
 
 /**
  * Starts the bridge
@@ -75,15 +79,17 @@ let worker: Worker;
  * but rather exclusively communicate either with the JavaScript plugin
  * which embeds it or directly with SonarLint.
  *
- * @param port the port to listen to
+ * @param port the port to listen to, or the path of the Unix domain socket to listen to
  * @param host only for usage from outside of Node.js - Java plugin, SonarLint, ...
  * @param timeout timeout in ms to shut down the server if unresponsive
+ * @param workerCount the number of worker threads, i.e., of programs that can be built concurrently
  * @returns an http server
  */
 export function start(
-  port = 0,
+  port: number | string = 0,
   host = '127.0.0.1',
   timeout = SHUTDOWN_TIMEOUT,
+  workerCount = 1,
 ): Promise<http.Server> {
   logMemoryConfiguration();
   if (getContext().debugMemory) {
@@ -92,35 +98,39 @@ export function start(
   return new Promise(resolve => {
     debug('Starting the bridge server');
 
-    worker = new Worker(path.resolve(__dirname, 'worker.js'), {
-      workerData: { context: getContext() },
-      env: SHARE_ENV,
-    });
+    workers = [];
+    for (let workerIndex = 0; workerIndex < Math.max(1, workerCount); workerIndex++) {
+      const worker = new Worker(path.resolve(__dirname, 'worker.js'), {
+        workerData: { context: getContext(), workerIndex },
+        env: SHARE_ENV,
+      });
 
-    worker.on('online', () => {
-      debug('The worker thread is running');
-    });
+      worker.on('online', () => {
+        debug(`The worker thread ${workerIndex} is running`);
+      });
 
-    worker.on('exit', code => {
-      debug(`The worker thread exited with code ${code}`);
-    });
+      worker.on('exit', code => {
+        debug(`The worker thread ${workerIndex} exited with code ${code}`);
+      });
 
-    worker.on('error', err => {
-      debug(`The worker thread failed: ${err}`);
+      worker.on('error', err => {
+        debug(`The worker thread ${workerIndex} failed: ${err}`);
 
-      logMemoryError(err);
+        logMemoryError(err);
 
-      /**
-       * At this point, the worker thread can no longer respond to any request from the plugin.
-       * However, existing requests are stalled until they time out. Since the bridge server is
-       * about to be shut down in an unexpected manner anyway, we can close all connections and
-       * avoid waiting unnecessarily for them to eventually close.
-       */
-      server.closeAllConnections();
+        /**
+         * At this point, the worker thread can no longer respond to any request from the plugin.
+         * However, existing requests are stalled until they time out. Since the bridge server is
+         * about to be shut down in an unexpected manner anyway, we can close all connections and
+         * avoid waiting unnecessarily for them to eventually close.
+         */
+        server.closeAllConnections();
 
-      debug('Shutting down the bridge server due to failure');
-      shutdown();
-    });
+        debug('Shutting down the bridge server due to failure');
+        shutdown();
+      });
+      workers.push(worker);
+    }
 
     const app = express();
     const server = http.createServer(app);
@@ -141,7 +151,7 @@ export function start(
      */
     app.use(express.json({ limit: MAX_REQUEST_SIZE }));
     app.use(orphanTimeout.middleware);
-    app.use(router(worker));
+    app.use(router(workers));
     app.use(errorMiddleware);
 
     app.post('/close', (_: express.Request, response: express.Response) => {
@@ -165,17 +175,34 @@ export function start(
        * Since we use 0 as the default port, Node.js assigns a random port to the server,
        * which we get using server.address().
        */
-      debug(`The bridge server is listening on port ${(server.address() as AddressInfo)?.port}`);
+      const address = server.address();
+      if (typeof address === 'string') {
+        debug(`The bridge server is listening on socket ${address}`);
+      } else {
+        debug(`The bridge server is listening on port ${(address as AddressInfo)?.port}`);
+      }
       resolve(server);
     });
 
-    server.listen(port, host);
+    /**
+     * A Unix domain socket is used on Linux build agents running many analyses in parallel,
+     * where it avoids both the TCP overhead and races on free ports.
+     */
+    if (typeof port === 'string') {
+      server.listen(port);
+    } else {
+      server.listen(port, host);
+    }
 
     /**
-     * Shutdown the server and the worker thread
+     * Shutdown the server and the worker threads
      */
     function shutdown() {
-      worker.terminate().catch(reason => debug(`Failed to terminate the worker thread: ${reason}`));
+      for (const worker of workers) {
+        worker
+          .terminate()
+          .catch(reason => debug(`Failed to terminate the worker thread: ${reason}`));
+      }
       server.close();
     }
   });
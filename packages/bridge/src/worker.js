@@ -37,43 +37,207 @@ const { analyzeCSS } = require('@sonar/css');
 const { analyzeHTML } = require('@sonar/html');
 const { analyzeYAML } = require('@sonar/yaml');
 const { APIError, ErrorCode } = require('@sonar/shared/errors');
-const { logHeapStatistics } = require('@sonar/bridge/memory');
+const {
+  getHeapUsage,
+  logHeapStatistics,
+  observeHeapUsageAfterGarbageCollection,
+} = require('@sonar/bridge/memory');
+const { BINARY_CONTENT_TYPE, encodeAnalysisOutput } = require('@sonar/bridge/binary');
+const { analysisErrorOutput } = require('@sonar/bridge/errors');
 
 /**
  * Delegate the handling of an HTTP request to a worker thread
  */
 exports.delegate = function (worker, type) {
   return async (request, response, next) => {
-    worker.once('message', message => {
+    const id = nextRequestId++;
+    const binary = !!request.get('Accept')?.includes(BINARY_CONTENT_TYPE);
+    pendingRequests(worker).set(id, message => {
       switch (message.type) {
         case 'success':
-          response.send(message.result);
+          if (message.result instanceof Uint8Array) {
+            response.type(BINARY_CONTENT_TYPE).send(toBuffer(message.result));
+          } else {
+            response.send(message.result);
+          }
+          break;
+        case 'partial': {
+          const binaryResult = message.result instanceof Uint8Array;
+          if (!response.headersSent) {
+            response.type(binaryResult ? BINARY_CONTENT_TYPE : 'json');
+          }
+          response.write(binaryResult ? toBuffer(message.result) : `${message.result}\n`);
+          break;
+        }
+        case 'end':
+          response.end();
           break;
         case 'failure':
-          next(message.error);
+          if (response.headersSent) {
+            response.destroy();
+          } else {
+            next(message.error);
+          }
           break;
       }
     });
-    worker.postMessage({ type, data: request.body });
+    worker.postMessage({ id, type, data: request.body, binary });
+  };
+};
+
+/**
+ * Delegate the handling of an HTTP request to every worker thread, e.g., to initialize
+ * the linters of each one. The response is the one of the first worker thread, sent once
+ * the other ones succeeded.
+ */
+exports.broadcast = function (workers, type) {
+  const [first, ...others] = workers;
+  const delegateToFirst = exports.delegate(first, type);
+  return async (request, response, next) => {
+    try {
+      await Promise.all(others.map(worker => postToWorker(worker, type, request.body)));
+    } catch (err) {
+      next(err);
+      return;
+    }
+    await delegateToFirst(request, response, next);
+  };
+};
+
+/**
+ * Delegate the handling of an HTTP request to the worker thread which owns the program
+ * it refers to, or to the first one if it doesn't refer to any. New programs are created
+ * by the worker threads in turn, so that a program can be created while the files of the
+ * previous one are analyzed by another worker thread.
+ */
+exports.delegateByProgram = function (workers, type) {
+  const delegates = workers.map(worker => exports.delegate(worker, type));
+  let nextProgramWorker = 0;
+  return (request, response, next) => {
+    let workerIndex;
+    if (type === 'on-create-program') {
+      workerIndex = nextProgramWorker;
+      nextProgramWorker = (nextProgramWorker + 1) % workers.length;
+    } else {
+      workerIndex = programWorkerIndex(request.body);
+    }
+    return delegates[workerIndex](request, response, next);
   };
 };
 
+/**
+ * Responds with the heap usage of the worker thread using the largest part of its heap,
+ * along with the number of major garbage collections of all the worker threads.
+ */
+exports.heapUsage = function (workers) {
+  return async (_request, response, next) => {
+    try {
+      const usages = (
+        await Promise.all(workers.map(worker => postToWorker(worker, 'on-memory')))
+      ).map(result => JSON.parse(result));
+      const highest = usages.reduce((a, b) =>
+        b.usedHeapSize / b.heapSizeLimit > a.usedHeapSize / a.heapSizeLimit ? b : a,
+      );
+      const majorGcCount = usages.reduce((count, usage) => count + usage.majorGcCount, 0);
+      response.send(JSON.stringify({ ...highest, majorGcCount }));
+    } catch (err) {
+      next(err);
+    }
+  };
+};
+
+/**
+ * Posts a request to a worker thread outside of any HTTP request
+ */
+function postToWorker(worker, type, data) {
+  return new Promise((resolve, reject) => {
+    const id = nextRequestId++;
+    pendingRequests(worker).set(id, message => {
+      if (message.type === 'failure') {
+        reject(message.error);
+      } else {
+        resolve(message.result);
+      }
+    });
+    worker.postMessage({ id, type, data, binary: false });
+  });
+}
+
+/**
+ * Program identifiers of the worker threads other than the first one are prefixed with
+ * the index of their worker thread, e.g., '1:42'.
+ */
+const PROGRAM_ID_SEPARATOR = ':';
+
+function programWorkerIndex(data) {
+  const programId = data?.programId ?? data?.requests?.[0]?.input?.programId;
+  if (typeof programId === 'string' && programId.includes(PROGRAM_ID_SEPARATOR)) {
+    return Number.parseInt(programId.split(PROGRAM_ID_SEPARATOR)[0]);
+  }
+  return 0;
+}
+
+function toBuffer({ buffer, byteOffset, byteLength }) {
+  return Buffer.from(buffer, byteOffset, byteLength);
+}
+
+/**
+ * Requests delegated to a worker thread, indexed by identifier
+ *
+ * The plugin can send several requests without waiting for the previous responses.
+ * Since the worker thread can post results in a different order, every message
+ * carries the identifier of the request it answers.
+ */
+const pendingRequestsByWorker = new WeakMap();
+let nextRequestId = 0;
+
+function pendingRequests(worker) {
+  let pending = pendingRequestsByWorker.get(worker);
+  if (!pending) {
+    pending = new Map();
+    pendingRequestsByWorker.set(worker, pending);
+    worker.on('message', message => {
+      const handler = pending.get(message.id);
+      if (handler) {
+        if (message.type !== 'partial') {
+          pending.delete(message.id);
+        }
+        handler(message);
+      }
+    });
+  }
+  return pending;
+}
+
+/**
+ * Configurations of the initialized linters, indexed by linter identifier
+ *
+ * A bridge server kept running as a daemon is asked to initialize its linters by
+ * every analysis attaching to it, most of the time with the same configuration.
+ * Such linters are kept as they are, warm caches included.
+ */
+const linterConfigurations = new Map();
+
 /**
  * Code executed by the worker thread
  */
 if (parentPort) {
   setContext(workerData.context);
+  observeHeapUsageAfterGarbageCollection();
 
+  const workerIndex = workerData.workerIndex ?? 0;
   const parentThread = parentPort;
   parentThread.on('message', async message => {
+    const { id, type, data, binary } = message;
     try {
-      const { type, data } = message;
+      toLocalProgramIds(data);
+
       switch (type) {
         case 'on-analyze-css': {
           await readFileLazily(data);
 
           const output = await analyzeCSS(data);
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          postAnalysisOutput(id, output, binary);
           break;
         }
 
@@ -81,7 +245,7 @@ if (parentPort) {
           await readFileLazily(data);
 
           const output = await analyzeHTML(data);
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          postAnalysisOutput(id, output, binary);
           break;
         }
 
@@ -89,13 +253,29 @@ if (parentPort) {
           await readFileLazily(data);
 
           const output = analyzeJSTS(data, 'js');
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          postAnalysisOutput(id, output, binary);
+          break;
+        }
+
+        case 'on-analyze-batch': {
+          for (const { type: analysisType, input } of data.requests) {
+            let output;
+            try {
+              output = await analyzeBatchedInput(analysisType, input);
+            } catch (err) {
+              output = analysisErrorOutput(err);
+            }
+            postAnalysisOutput(id, output, binary, 'partial');
+          }
+          parentThread.postMessage({ id, type: 'end' });
           break;
         }
 
         case 'on-analyze-project': {
+          // the project analysis initializes the default linter on its own
+          linterConfigurations.delete('default');
           const output = await analyzeProject(data);
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          parentThread.postMessage({ id, type: 'success', result: JSON.stringify(output) });
           break;
         }
 
@@ -104,7 +284,7 @@ if (parentPort) {
           await readFileLazily(data);
 
           const output = analyzeJSTS(data, 'ts');
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          postAnalysisOutput(id, output, binary);
           break;
         }
 
@@ -112,18 +292,25 @@ if (parentPort) {
           await readFileLazily(data);
 
           const output = await analyzeYAML(data);
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(output) });
+          postAnalysisOutput(id, output, binary);
           break;
         }
 
         case 'on-create-program': {
-          const { tsConfig } = data;
+          const { tsConfig, tsBuildInfo } = data;
           logHeapStatistics();
-          const { programId, files, projectReferences, missingTsConfig } =
-            createAndSaveProgram(tsConfig);
+          const { programId, files, projectReferences, missingTsConfig, affectedFiles } =
+            createAndSaveProgram(tsConfig, tsBuildInfo);
           parentThread.postMessage({
+            id,
             type: 'success',
-            result: JSON.stringify({ programId, files, projectReferences, missingTsConfig }),
+            result: JSON.stringify({
+              programId: toGlobalProgramId(programId),
+              files,
+              projectReferences,
+              missingTsConfig,
+              affectedFiles,
+            }),
           });
           break;
         }
@@ -131,7 +318,7 @@ if (parentPort) {
         case 'on-create-tsconfig-file': {
           const tsConfigContent = data;
           const tsConfigFile = await writeTSConfigFile(tsConfigContent);
-          parentThread.postMessage({ type: 'success', result: JSON.stringify(tsConfigFile) });
+          parentThread.postMessage({ id, type: 'success', result: JSON.stringify(tsConfigFile) });
           break;
         }
 
@@ -139,23 +326,32 @@ if (parentPort) {
           const { programId } = data;
           deleteProgram(programId);
           logHeapStatistics();
-          parentThread.postMessage({ type: 'success', result: 'OK!' });
+          parentThread.postMessage({ id, type: 'success', result: 'OK!' });
           break;
         }
 
         case 'on-init-linter': {
           const { rules, environments, globals, linterId, baseDir, exclusions } = data;
-          initializeLinter(rules, environments, globals, linterId);
+          const configuration = JSON.stringify({ rules, environments, globals });
+          if (linterConfigurations.get(linterId) !== configuration) {
+            initializeLinter(rules, environments, globals, linterId);
+            linterConfigurations.set(linterId, configuration);
+          }
           if (baseDir) {
             loadPackageJsons(baseDir, exclusions);
           }
-          parentThread.postMessage({ type: 'success', result: 'OK!' });
+          parentThread.postMessage({ id, type: 'success', result: 'OK!' });
+          break;
+        }
+
+        case 'on-memory': {
+          parentThread.postMessage({ id, type: 'success', result: JSON.stringify(getHeapUsage()) });
           break;
         }
 
         case 'on-new-tsconfig': {
           clearTypeScriptESLintParserCaches();
-          parentThread.postMessage({ type: 'success', result: 'OK!' });
+          parentThread.postMessage({ id, type: 'success', result: 'OK!' });
           break;
         }
 
@@ -163,6 +359,7 @@ if (parentPort) {
           const { tsconfig } = data;
           const options = createProgramOptions(tsconfig);
           parentThread.postMessage({
+            id,
             type: 'success',
             result: JSON.stringify({
               files: options.rootNames,
@@ -175,10 +372,72 @@ if (parentPort) {
         }
       }
     } catch (err) {
-      parentThread.postMessage({ type: 'failure', error: serializeError(err) });
+      parentThread.postMessage({ id, type: 'failure', error: serializeError(err) });
     }
   });
 
+  /**
+   * Programs are known by the plugin with the index of their worker thread, which is
+   * removed from the requests before they are handled.
+   */
+  function toGlobalProgramId(programId) {
+    return workerIndex === 0 ? programId : `${workerIndex}${PROGRAM_ID_SEPARATOR}${programId}`;
+  }
+
+  function toLocalProgramId(programId) {
+    return typeof programId === 'string' && programId.includes(PROGRAM_ID_SEPARATOR)
+      ? programId.split(PROGRAM_ID_SEPARATOR)[1]
+      : programId;
+  }
+
+  function toLocalProgramIds(data) {
+    if (data?.programId) {
+      data.programId = toLocalProgramId(data.programId);
+    }
+    if (Array.isArray(data?.requests)) {
+      for (const { input } of data.requests) {
+        if (input?.programId) {
+          input.programId = toLocalProgramId(input.programId);
+        }
+      }
+    }
+  }
+
+  /**
+   * Analysis outputs are sent as JSON, unless the plugin asked for the binary format.
+   * In that case, the encoded buffer is transferred to the main thread without a copy.
+   *
+   * The outputs of a batch are posted as 'partial' messages, one per file, which the
+   * main thread streams back to the plugin as soon as they are received.
+   */
+  function postAnalysisOutput(id, output, binary, type = 'success') {
+    if (binary) {
+      const result = encodeAnalysisOutput(output);
+      parentThread.postMessage({ id, type, result }, [result.buffer]);
+    } else {
+      parentThread.postMessage({ id, type, result: JSON.stringify(output) });
+    }
+  }
+
+  /**
+   * Analyzes a single file of a batch, the same way as its dedicated endpoint would.
+   */
+  async function analyzeBatchedInput(type, input) {
+    await readFileLazily(input);
+    switch (type) {
+      case 'JS':
+        return analyzeJSTS(input, 'js');
+      case 'TS':
+        return analyzeJSTS(input, 'ts');
+      case 'HTML':
+        return analyzeHTML(input);
+      case 'YAML':
+        return analyzeYAML(input);
+      default:
+        throw APIError.unexpectedError(`Unsupported batched analysis '${type}'`);
+    }
+  }
+
   /**
    * In SonarQube context, an analysis input includes both path and content of a file
    * to analyze. However, in SonarLint, we might only get the file path. As a result,
@@ -0,0 +1,145 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+import { encodeAnalysisOutput } from '../src/binary';
+
+describe('encodeAnalysisOutput', () => {
+  it('should encode analysis output', () => {
+    const location = (startLine: number, startCol: number, endLine: number, endCol: number) => ({
+      startLine,
+      startCol,
+      endLine,
+      endCol,
+    });
+    const output = {
+      issues: [],
+      highlights: [
+        { location: location(2, 4, 2, 8), textType: 'KEYWORD' as const },
+        { location: location(1, 0, 3, 2), textType: 'COMMENT' as const },
+      ],
+      highlightedSymbols: [{ declaration: location(1, 4, 1, 5), references: [] }],
+      metrics: { ncloc: [1, 2, 130], nosonarLines: [] },
+      cpdTokens: [
+        { location: location(1, 0, 1, 3), image: 'let' },
+        { location: location(2, 0, 2, 3), image: 'let' },
+      ],
+    };
+
+    const reader = new BinaryReader(encodeAnalysisOutput(output));
+
+    expect(reader.readInt()).toEqual(1);
+    expect(reader.readStrings()).toEqual(['KEYWORD', 'COMMENT', 'let']);
+    expect(JSON.parse(reader.readString())).toEqual({ issues: [] });
+    expect(reader.readInt()).toEqual(1);
+    expect(reader.readLines()).toEqual([1, 2, 130]);
+    expect(reader.readLines()).toEqual([]);
+    expect(reader.readLines()).toEqual([]);
+    expect(reader.readLines()).toEqual([]);
+    expect([1, 2, 3, 4, 5].map(() => reader.readInt())).toEqual([0, 0, 0, 0, 0]);
+
+    expect(reader.readInt()).toEqual(2);
+    expect([reader.readInt(), ...reader.readDeltas()]).toEqual([0, 2, 4, 0, 4]);
+    expect([reader.readInt(), ...reader.readDeltas()]).toEqual([1, -1, 0, 2, 2]);
+
+    expect(reader.readInt()).toEqual(1);
+    expect(reader.readDeltas()).toEqual([1, 4, 0, 1]);
+    expect(reader.readInt()).toEqual(0);
+
+    expect(reader.readInt()).toEqual(2);
+    expect([reader.readInt(), ...reader.readDeltas()]).toEqual([2, 1, 0, 0, 3]);
+    expect([reader.readInt(), ...reader.readDeltas()]).toEqual([2, 1, 0, 0, 3]);
+
+    expect(reader.readString()).toEqual('END');
+    expect(reader.done()).toBe(true);
+  });
+
+  it('should encode analysis output without metrics', () => {
+    const parsingError = { message: 'Unexpected token', line: 3, code: 'PARSING' };
+    const reader = new BinaryReader(encodeAnalysisOutput({ parsingError } as any));
+
+    expect(reader.readInt()).toEqual(1);
+    expect(reader.readStrings()).toEqual([]);
+    expect(JSON.parse(reader.readString())).toEqual({ parsingError });
+    expect([1, 2, 3, 4].map(() => reader.readInt())).toEqual([0, 0, 0, 0]);
+    expect(reader.readString()).toEqual('END');
+    expect(reader.done()).toBe(true);
+  });
+
+  it('should encode large integers', () => {
+    const lines = [0, 127, 128, 16_384, 2_000_000_000];
+    const reader = new BinaryReader(
+      encodeAnalysisOutput({ metrics: { ncloc: lines, nosonarLines: [] } }),
+    );
+
+    reader.readInt();
+    reader.readStrings();
+    reader.readString();
+    reader.readInt();
+    expect(reader.readLines()).toEqual(lines);
+  });
+});
+
+class BinaryReader {
+  private offset = 0;
+
+  constructor(private readonly bytes: Uint8Array) {}
+
+  readInt() {
+    let result = 0;
+    let shift = 0;
+    let byte;
+    do {
+      byte = this.bytes[this.offset++];
+      result |= (byte & 0x7f) << shift;
+      shift += 7;
+    } while (byte & 0x80);
+    return result >>> 0;
+  }
+
+  readSignedInt() {
+    const value = this.readInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  readString() {
+    const length = this.readInt();
+    const value = new TextDecoder().decode(this.bytes.subarray(this.offset, this.offset + length));
+    this.offset += length;
+    return value;
+  }
+
+  readStrings() {
+    const count = this.readInt();
+    return Array.from({ length: count }, () => this.readString());
+  }
+
+  readLines() {
+    const count = this.readInt();
+    let line = 0;
+    return Array.from({ length: count }, () => (line += this.readSignedInt()));
+  }
+
+  readDeltas() {
+    return [1, 2, 3, 4].map(() => this.readSignedInt());
+  }
+
+  done() {
+    return this.offset === this.bytes.length;
+  }
+}
@@ -49,6 +49,29 @@ describe('router', () => {
     await close();
   });
 
+  it('should route /analyze-batch requests', async () => {
+    await requestInitLinter(server, [
+      { key: 'prefer-regex-literals', configurations: [], fileTypeTarget: ['MAIN'] },
+    ]);
+    const fileType = 'MAIN';
+    const data = {
+      requests: [
+        { type: 'JS', input: { filePath: path.join(fixtures, 'file.js'), fileType } },
+        { type: 'JS', input: { filePath: path.join(fixtures, 'parsing-error.js'), fileType } },
+      ],
+    };
+    const response = (await request(server, '/analyze-batch', 'POST', data)) as string;
+    const [first, second] = response.trim().split('\n').map(line => JSON.parse(line));
+    expect(first.issues).toEqual([
+      expect.objectContaining({
+        ruleId: 'prefer-regex-literals',
+        line: 1,
+        column: 0,
+      }),
+    ]);
+    expect(second.parsingError).toEqual(expect.objectContaining({ code: 'PARSING' }));
+  });
+
   it('should route /analyze-project requests', async () => {
     const filePath = toUnixPath(path.join(fixtures, 'file.ts'));
     const payload: ProjectAnalysisInput = {
@@ -223,6 +246,36 @@ describe('router', () => {
     });
   });
 
+  it('should route program requests to the worker thread owning the program', async () => {
+    await close();
+    server = await start(port, '127.0.0.1', 60 * 60 * 1000, 2);
+    close = promisify(server.close.bind(server));
+
+    await requestInitLinter(server, [
+      { key: 'no-duplicate-in-composite', configurations: [], fileTypeTarget: ['MAIN'] },
+    ]);
+    const tsConfig = path.join(fixtures, 'tsconfig.json');
+    const { programId: firstProgramId } = JSON.parse(
+      (await request(server, '/create-program', 'POST', { tsConfig })) as string,
+    );
+    const { programId: secondProgramId } = JSON.parse(
+      (await request(server, '/create-program', 'POST', { tsConfig })) as string,
+    );
+    expect(firstProgramId).not.toContain(':');
+    expect(secondProgramId).toMatch(/^1:/);
+
+    const filePath = path.join(fixtures, 'file.ts');
+    const data = { filePath, fileType: 'MAIN', programId: secondProgramId };
+    const response = (await request(server, '/analyze-with-program', 'POST', data)) as string;
+    const {
+      issues: [issue],
+    } = JSON.parse(response);
+    expect(issue).toEqual(expect.objectContaining({ ruleId: 'no-duplicate-in-composite' }));
+    expect(
+      await request(server, '/delete-program', 'POST', { programId: secondProgramId }),
+    ).toEqual('OK!');
+  });
+
   it('should route /create-program requests', async () => {
     const tsConfig = path.join(fixtures, 'tsconfig.json');
     const data = { tsConfig };
@@ -256,6 +309,14 @@ describe('router', () => {
     expect(response).toEqual('OK!');
   });
 
+  it('should route /memory requests', async () => {
+    const response = (await request(server, '/memory', 'POST', {})) as string;
+    const { usedHeapSize, heapSizeLimit, majorGcCount } = JSON.parse(response);
+    expect(usedHeapSize).toBeGreaterThan(0);
+    expect(heapSizeLimit).toBeGreaterThanOrEqual(usedHeapSize);
+    expect(majorGcCount).toBeGreaterThanOrEqual(0);
+  });
+
   it('should route /new-tsconfig requests', async () => {
     /**
      * There is no easy way to test that a module was unloaded, because jest is modifying require calls for tests
@@ -24,6 +24,7 @@ import { setContext } from '@sonar/shared';
 import { AddressInfo } from 'net';
 import { request } from './tools';
 import http from 'http';
+import os from 'os';
 
 describe('server', () => {
   const port = 0;
@@ -60,6 +61,24 @@ describe('server', () => {
     await close();
   });
 
+  it('should listen to a Unix domain socket', async () => {
+    const socketPath = path.join(os.tmpdir(), `bridge-${process.pid}.sock`);
+    const server = await start(socketPath);
+    const close = promisify(server.close.bind(server));
+
+    expect(server.address()).toEqual(socketPath);
+    const response = await new Promise(resolve =>
+      http.get({ socketPath, path: '/status' }, res => {
+        let data = '';
+        res.on('data', chunk => (data += chunk));
+        res.on('end', () => resolve(data));
+      }),
+    );
+    expect(response).toEqual('OK!');
+
+    await close();
+  });
+
   it('should fail when linter is not initialized', async () => {
     expect.assertions(3);
 
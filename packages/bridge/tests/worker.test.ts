@@ -46,6 +46,19 @@ describe('worker', () => {
     worker.postMessage({ type: 'on-new-tsconfig' });
   });
 
+  it('should post back the request identifier', done => {
+    worker.once('message', message => {
+      expect(message).toEqual({
+        id: 42,
+        type: 'success',
+        result: 'OK!',
+      });
+      done();
+    });
+
+    worker.postMessage({ id: 42, type: 'on-new-tsconfig' });
+  });
+
   it('should post back stringified results', done => {
     const input = {
       filePath: path.join(__dirname, 'fixtures', 'worker', 'file.css'),
@@ -23,6 +23,7 @@ import {
   computeMetrics,
   findNoSonarLines,
   getCpdTokens,
+  getDependencies,
   getLinter,
   getSyntaxHighlighting,
   LinterWrapper,
@@ -84,7 +85,7 @@ function analyzeFile(
       highlightedSymbols,
       cognitiveComplexity,
     );
-    return { issues, ucfgPaths, ...extendedMetrics };
+    return { issues, ucfgPaths, ...extendedMetrics, ...computeDependencies(sourceCode) };
   } catch (e) {
     /** Turns exceptions from TypeScript compiler into "parsing" errors */
     if (e.stack.indexOf('typescript.js:') > -1) {
@@ -95,6 +96,19 @@ function analyzeFile(
   }
 }
 
+/**
+ * Computes the files the analyzed code depends on
+ *
+ * SonarLint doesn't reuse analysis results across analyses, which is what dependencies are
+ * recorded for, so that the files depending on changed files are analyzed again.
+ *
+ * @param sourceCode the analyzed ESLint SourceCode instance
+ * @returns the dependencies of the code, if type information is available
+ */
+function computeDependencies(sourceCode: SourceCode) {
+  return getContext().sonarlint ? {} : getDependencies(sourceCode);
+}
+
 /**
  * Computes extended metrics about the analyzed code
  *
@@ -0,0 +1,90 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+import * as estree from 'estree';
+import { TSESTree } from '@typescript-eslint/utils';
+import { SourceCode } from 'eslint';
+import ts from 'typescript';
+import { toUnixPath } from '@sonar/shared';
+import { visit } from './visitor';
+import { isRequiredParserServices } from '../../rules/helpers/parser-services';
+
+/**
+ * Extracts the files a source code depends on
+ *
+ * The dependencies are the files that the module specifiers of imports, re-exports and
+ * calls to `require` resolve to in the TypeScript's Program the source code belongs to.
+ * They are therefore only available when the source code is parsed with type information.
+ * Files from `node_modules` are left aside since they are not part of the analysis.
+ *
+ * @param sourceCode the source code to extract from
+ * @returns the dependencies of the source code if type information is available
+ */
+export function getDependencies(sourceCode: SourceCode): { dependencies?: string[] } {
+  const services = sourceCode.parserServices;
+  if (!isRequiredParserServices(services)) {
+    return {};
+  }
+  const checker = services.program.getTypeChecker();
+  const dependencies = new Set<string>();
+  visit(sourceCode, (node: estree.Node) => {
+    const specifier = getModuleSpecifier(node as TSESTree.Node);
+    if (!specifier) {
+      return;
+    }
+    const symbol = checker.getSymbolAtLocation(services.esTreeNodeToTSNodeMap.get(specifier));
+    const declaration = symbol?.declarations?.[0];
+    if (declaration && ts.isSourceFile(declaration)) {
+      const fileName = toUnixPath(declaration.fileName);
+      if (!fileName.split('/').includes('node_modules')) {
+        dependencies.add(fileName);
+      }
+    }
+  });
+  return { dependencies: [...dependencies] };
+}
+
+/**
+ * Returns the module specifier of a node importing a module, if any
+ * @param node the node to get the module specifier of
+ * @returns the string literal of the module specifier
+ */
+function getModuleSpecifier(node: TSESTree.Node): TSESTree.StringLiteral | undefined {
+  let specifier: TSESTree.Node | null | undefined;
+  switch (node.type) {
+    case 'ImportDeclaration':
+    case 'ExportAllDeclaration':
+    case 'ExportNamedDeclaration':
+    case 'ImportExpression':
+      specifier = node.source;
+      break;
+    case 'TSExternalModuleReference':
+      specifier = node.expression;
+      break;
+    case 'CallExpression':
+      if (node.callee.type === 'Identifier' && node.callee.name === 'require') {
+        specifier = node.arguments[0];
+      }
+      break;
+  }
+  if (specifier?.type === 'Literal' && typeof specifier.value === 'string') {
+    return specifier as TSESTree.StringLiteral;
+  }
+  return undefined;
+}
@@ -18,6 +18,7 @@
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 export * from './cpd';
+export * from './dependencies';
 export * from './metrics';
 export * from './symbol-highlighting';
 export * from './syntax-highlighting';
@@ -49,6 +49,11 @@ export type ProgramResult = {
   missingTsConfig: boolean;
   program: ts.Program;
   programId?: string;
+  /**
+   * The files affected by the changes since the incremental state the program was seeded with,
+   * undefined when there was no such state
+   */
+  affectedFiles?: string[];
 };
 
 /**
@@ -144,17 +149,25 @@ export function createProgramOptions(
  *
  * @param tsConfig the TSConfig input to create a program for
  * @param tsconfigContents TSConfig contents that we want to provide to TSConfig
+ * @param tsBuildInfo the file to read the incremental state of a previous program from, and to
+ *        write the state of the created program to
  * @returns the identifier of the created TypeScript's Program along with the
  *          program itself, the resolved files, project references and a boolean
  *          'missingTsConfig' which is true when an extended tsconfig.json path
  *          was not found, which defaulted to default Typescript configuration
  */
-export function createProgram(tsConfig: string, tsconfigContents?: string): ProgramResult {
+export function createProgram(
+  tsConfig: string,
+  tsconfigContents?: string,
+  tsBuildInfo?: string,
+): ProgramResult {
   if (!tsconfigContents) {
     tsconfigContents = readFileSync(tsConfig);
   }
   const programOptions = createProgramOptions(tsConfig, tsconfigContents);
-  const program = ts.createProgram(programOptions);
+  const { program, affectedFiles } = tsBuildInfo
+    ? createIncrementalProgram(programOptions, tsBuildInfo)
+    : { program: ts.createProgram(programOptions), affectedFiles: undefined };
   const inputProjectReferences = program.getProjectReferences() ?? [];
   const projectReferences: string[] = [];
 
@@ -176,6 +189,7 @@ export function createProgram(tsConfig: string, tsconfigContents?: string): Prog
     projectReferences,
     missingTsConfig: programOptions.missingTsConfig,
     program,
+    affectedFiles,
   };
 
   function exceptions(filename: string) {
@@ -195,6 +209,65 @@ export function createProgram(tsConfig: string, tsconfigContents?: string): Prog
   }
 }
 
+/**
+ * Creates a TypeScript's Program instance seeded with the incremental state of a previous one
+ *
+ * The state, i.e. the versions and signatures of the files along with their references, is what
+ * TypeScript writes to a `.tsbuildinfo` file. It is read from the given file if it exists, which
+ * is then overwritten with the state of the created program for the next one.
+ *
+ * @param programOptions the options to create the program with
+ * @param tsBuildInfo the file to read the previous state from and to write the new one to
+ * @returns the created TypeScript's Program along with the files affected by the changes since
+ *          the previous state, if any
+ */
+function createIncrementalProgram(programOptions: ts.CreateProgramOptions, tsBuildInfo: string) {
+  const options = {
+    ...programOptions.options,
+    // tsconfig.json files may enable emitting, which must not write anything but the build info
+    noEmit: true,
+    incremental: true,
+    tsBuildInfoFile: tsBuildInfo,
+  };
+  const host = ts.createIncrementalCompilerHost(options);
+  const previousState = ts.readBuilderProgram(options, host);
+  const builder = ts.createSemanticDiagnosticsBuilderProgram(
+    programOptions.rootNames,
+    options,
+    host,
+    previousState,
+    undefined,
+    programOptions.projectReferences,
+  );
+  // all files are affected without a previous state, or when emitting to a single file
+  const affectedFiles =
+    previousState && !options.outFile && !options.out ? collectAffectedFiles(builder) : undefined;
+  builder.emit();
+  return { program: builder.getProgram(), affectedFiles };
+}
+
+/**
+ * Collects the files affected by the changes since the previous state of the builder
+ *
+ * These are the changed files and, transitively, the files importing a file whose exported
+ * signature changed. Only the signatures of the changed files are computed: the semantic
+ * diagnostics of the affected files are skipped.
+ *
+ * @param builder the builder seeded with the previous state
+ * @returns the names of the affected files
+ */
+function collectAffectedFiles(builder: ts.SemanticDiagnosticsBuilderProgram) {
+  const affectedFiles: string[] = [];
+  let affected;
+  do {
+    affected = builder.getSemanticDiagnosticsOfNextAffectedFile(undefined, sourceFile => {
+      affectedFiles.push(sourceFile.fileName);
+      return true;
+    });
+  } while (affected);
+  return affectedFiles;
+}
+
 /**
  * A cache of created TypeScript's Program instances
  *
@@ -221,8 +294,11 @@ function nextId() {
  *
  * To be removed once Java part does not handle program creation
  */
-export function createAndSaveProgram(tsConfig: string): ProgramResult & { programId: string } {
-  const program = createProgram(tsConfig);
+export function createAndSaveProgram(
+  tsConfig: string,
+  tsBuildInfo?: string,
+): ProgramResult & { programId: string } {
+  const program = createProgram(tsConfig, undefined, tsBuildInfo);
 
   const programId = nextId();
   programs.set(programId, program.program);
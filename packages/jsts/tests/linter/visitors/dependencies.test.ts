@@ -0,0 +1,49 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+import path from 'path';
+import { toUnixPath } from '@sonar/shared';
+import { getDependencies } from '../../../src/linter/visitors';
+import { parseJavaScriptSourceFile, parseTypeScriptSourceFile } from '../../tools/helpers';
+
+describe('getDependencies', () => {
+  const fixtures = path.join(__dirname, 'fixtures', 'dependencies');
+
+  it('should find the files that imports resolve to', async () => {
+    const filePath = path.join(fixtures, 'main.ts');
+    const tsConfigs = [path.join(fixtures, 'tsconfig.json')];
+    const sourceCode = await parseTypeScriptSourceFile(filePath, tsConfigs);
+
+    const { dependencies } = getDependencies(sourceCode);
+
+    expect(dependencies).toEqual(
+      expect.arrayContaining(
+        ['dep.ts', 'other.ts', 'lazy.ts'].map(file => toUnixPath(path.join(fixtures, file))),
+      ),
+    );
+    expect(dependencies).not.toContain(toUnixPath(path.join(fixtures, 'unknown.ts')));
+  });
+
+  it('should not find dependencies without type information', async () => {
+    const filePath = path.join(fixtures, 'required.js');
+    const sourceCode = await parseJavaScriptSourceFile(filePath);
+
+    expect(getDependencies(sourceCode)).toEqual({});
+  });
+});
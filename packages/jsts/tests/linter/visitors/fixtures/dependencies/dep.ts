@@ -0,0 +1 @@
+export function dep(...args: unknown[]) {}
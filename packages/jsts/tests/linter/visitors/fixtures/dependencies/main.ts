@@ -0,0 +1,8 @@
+import { dep } from './dep';
+export * from './other';
+import unknown = require('./unknown');
+
+const lazy = import('./lazy');
+const required = require('./required');
+
+dep(lazy, required, unknown);
@@ -31,6 +31,7 @@ import {
 import { toUnixPath } from '@sonar/shared';
 import ts, { ModuleKind, ScriptTarget } from 'typescript';
 import fs from 'fs';
+import os from 'os';
 
 jest.setTimeout(60000);
 
@@ -52,6 +53,44 @@ describe('program', () => {
     expect(projectReferences).toEqual([path.join(reference, 'tsconfig.json')]);
   });
 
+  it('should create a program seeded with the state of a previous one', () => {
+    const fixtures = path.join(__dirname, 'fixtures');
+    const tsConfig = path.join(fixtures, 'tsconfig.json');
+    const tsBuildInfo = path.join(fs.mkdtempSync(path.join(os.tmpdir(), 'program-')), 'build.json');
+
+    const { files } = createProgram(tsConfig, undefined, tsBuildInfo);
+    expect(fs.readFileSync(tsBuildInfo, 'utf-8')).toContain('file.ts');
+
+    const { files: seededFiles } = createProgram(tsConfig, undefined, tsBuildInfo);
+    expect(seededFiles).toEqual(files);
+  });
+
+  it('should report the files affected since the state of a previous program', () => {
+    const dir = fs.mkdtempSync(path.join(os.tmpdir(), 'program-'));
+    const tsConfig = path.join(dir, 'tsconfig.json');
+    const tsBuildInfo = path.join(dir, 'build.json');
+    fs.writeFileSync(tsConfig, JSON.stringify({ files: ['dep.ts', 'main.ts', 'other.ts'] }));
+    fs.writeFileSync(path.join(dir, 'dep.ts'), 'export function dep() { return 1; }');
+    fs.writeFileSync(path.join(dir, 'main.ts'), 'import { dep } from "./dep"; dep();');
+    fs.writeFileSync(path.join(dir, 'other.ts'), 'export const other = 1;');
+
+    expect(createProgram(tsConfig, undefined, tsBuildInfo).affectedFiles).toBeUndefined();
+
+    fs.writeFileSync(path.join(dir, 'dep.ts'), 'export function dep() { return 2; }');
+    expect(createProgram(tsConfig, undefined, tsBuildInfo).affectedFiles).toEqual([
+      toUnixPath(path.join(dir, 'dep.ts')),
+    ]);
+
+    fs.writeFileSync(path.join(dir, 'dep.ts'), 'export function dep() { return "2"; }');
+    expect(createProgram(tsConfig, undefined, tsBuildInfo).affectedFiles).toEqual(
+      expect.arrayContaining([
+        toUnixPath(path.join(dir, 'dep.ts')),
+        toUnixPath(path.join(dir, 'main.ts')),
+      ]),
+    );
+    expect(createProgram(tsConfig, undefined, tsBuildInfo).affectedFiles).toEqual([]);
+  });
+
   it('should skip missing reference of a program', () => {
     const fixtures = path.join(__dirname, 'fixtures');
     const tsConfig = path.join(fixtures, `tsconfig_missing_reference.json`);
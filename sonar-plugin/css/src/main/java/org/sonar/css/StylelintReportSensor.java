@@ -32,7 +32,6 @@ import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
-import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.sensor.Sensor;
@@ -44,6 +43,8 @@ import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.css.StylelintReport.Issue;
 import org.sonar.css.StylelintReport.IssuesPerFile;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonarsource.analyzer.commons.ExternalReportProvider;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 
@@ -65,10 +66,15 @@ public class StylelintReportSensor implements Sensor {
   };
 
   private final CssRules cssRules;
+  private final InputFileIndexProvider inputFileIndexProvider;
   private ExternalRuleLoader stylelintRuleLoader = getStylelintRuleLoader();
 
-  public StylelintReportSensor(CheckFactory checkFactory) {
+  public StylelintReportSensor(
+    CheckFactory checkFactory,
+    InputFileIndexProvider inputFileIndexProvider
+  ) {
     this.cssRules = new CssRules(checkFactory);
+    this.inputFileIndexProvider = inputFileIndexProvider;
   }
 
   @Override
@@ -81,10 +87,11 @@ public class StylelintReportSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, STYLELINT_REPORT_PATHS);
-    reportFiles.forEach(report -> importReport(report, context));
+    var inputFileIndex = inputFileIndexProvider.get(context);
+    reportFiles.forEach(report -> importReport(report, context, inputFileIndex));
   }
 
-  private void importReport(File report, SensorContext context) {
+  private void importReport(File report, SensorContext context, InputFileIndex inputFileIndex) {
     LOG.info("Importing {}", report.getAbsoluteFile());
 
     try (
@@ -101,7 +108,7 @@ public class StylelintReportSensor implements Sensor {
       IssuesPerFile[] issues = new Gson()
         .fromJson(new InputStreamReader(bomInputStream, charsetName), IssuesPerFile[].class);
       for (IssuesPerFile issuesPerFile : issues) {
-        InputFile inputFile = getInputFile(context, issuesPerFile.source);
+        InputFile inputFile = getInputFile(inputFileIndex, issuesPerFile.source);
         if (inputFile != null) {
           for (Issue issue : issuesPerFile.warnings) {
             saveStylelintIssue(context, issue, inputFile);
@@ -116,13 +123,8 @@ public class StylelintReportSensor implements Sensor {
   }
 
   @Nullable
-  private static InputFile getInputFile(SensorContext context, String fileName) {
-    FilePredicates predicates = context.fileSystem().predicates();
-    InputFile inputFile = context
-      .fileSystem()
-      .inputFile(
-        predicates.or(predicates.hasRelativePath(fileName), predicates.hasAbsolutePath(fileName))
-      );
+  private static InputFile getInputFile(InputFileIndex inputFileIndex, String fileName) {
+    InputFile inputFile = inputFileIndex.inputFile(fileName);
     if (inputFile == null) {
       LOG.warn(
         "No input file found for {}. No stylelint issues will be imported on this file.",
@@ -0,0 +1,153 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Index of the input files of the project by path, shared by the sensors resolving many paths,
+ * e.g., the files of TypeScript programs or the files of coverage and external issue reports.
+ * <p>
+ * Paths are resolved against the base directory when relative, like {@code hasPath} predicates,
+ * and matched against the normalized path of the input files and their real path when they are
+ * reached through symbolic links. On case-insensitive file systems, their case-folded path is
+ * matched as a last resort when unambiguous.
+ * <p>
+ * The index is immutable: it is built once per analysis, once all files are indexed, and shared by
+ * the sensors through {@link InputFileIndexProvider}.
+ */
+public class InputFileIndex {
+
+  private final Path baseDir;
+  private final Map<String, InputFile> filesByPath = new HashMap<>();
+  private final Map<String, InputFile> filesByFoldedPath = new HashMap<>();
+
+  private InputFileIndex(Path baseDir, List<InputFile> inputFiles, boolean caseInsensitive) {
+    this.baseDir = baseDir;
+    Set<String> ambiguousFoldedPaths = new HashSet<>();
+    for (var inputFile : inputFiles) {
+      var path = Path.of(inputFile.absolutePath()).normalize();
+      filesByPath.put(key(path), inputFile);
+      if (caseInsensitive) {
+        var foldedPath = fold(key(path));
+        if (filesByFoldedPath.putIfAbsent(foldedPath, inputFile) != null) {
+          ambiguousFoldedPaths.add(foldedPath);
+        }
+      }
+    }
+    for (var inputFile : inputFiles) {
+      var realPath = realPath(Path.of(inputFile.absolutePath()).normalize());
+      if (realPath != null) {
+        filesByPath.putIfAbsent(key(realPath), inputFile);
+      }
+    }
+    ambiguousFoldedPaths.forEach(filesByFoldedPath::remove);
+  }
+
+  /**
+   * Builds the index of the input files of the file system
+   */
+  static InputFileIndex of(FileSystem fileSystem) {
+    return of(fileSystem, isCaseInsensitive(fileSystem.baseDir().toPath()));
+  }
+
+  static InputFileIndex of(FileSystem fileSystem, boolean caseInsensitive) {
+    List<InputFile> inputFiles = new ArrayList<>();
+    fileSystem.inputFiles(fileSystem.predicates().all()).forEach(inputFiles::add);
+    return new InputFileIndex(fileSystem.baseDir().toPath(), inputFiles, caseInsensitive);
+  }
+
+  /**
+   * Tells whether the file system of the directory is case-insensitive, i.e., whether the closest
+   * directory with letters in its name is found with the case of its name swapped
+   */
+  static boolean isCaseInsensitive(Path dir) {
+    var current = dir;
+    while (current != null && current.getFileName() != null) {
+      var name = current.getFileName().toString();
+      var swappedName = swapCase(name);
+      if (!swappedName.equals(name)) {
+        try {
+          return Files.isSameFile(current, current.resolveSibling(swappedName));
+        } catch (IOException | InvalidPathException e) {
+          return false;
+        }
+      }
+      current = current.getParent();
+    }
+    return false;
+  }
+
+  private static String swapCase(String name) {
+    var swapped = new StringBuilder(name.length());
+    name
+      .codePoints()
+      .map(c -> Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c))
+      .forEach(swapped::appendCodePoint);
+    return swapped.toString();
+  }
+
+  /**
+   * Returns the input file of the path, either absolute or relative to the base directory
+   */
+  @CheckForNull
+  public InputFile inputFile(String path) {
+    Path resolved;
+    try {
+      resolved = baseDir.resolve(path.replace('\\', '/')).normalize();
+    } catch (InvalidPathException e) {
+      return null;
+    }
+    var key = key(resolved);
+    var inputFile = filesByPath.get(key);
+    return inputFile != null ? inputFile : filesByFoldedPath.get(fold(key));
+  }
+
+  @CheckForNull
+  private static Path realPath(Path path) {
+    try {
+      var realPath = path.toRealPath();
+      return realPath.equals(path) ? null : realPath;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static String key(Path path) {
+    return path.toString().replace('\\', '/');
+  }
+
+  private static String fold(String path) {
+    return path.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.filesystem;
+
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.scanner.ScannerSide;
+import org.sonarsource.api.sonarlint.SonarLintSide;
+
+/**
+ * Provides the {@link InputFileIndex} of the analysis to the sensors. The index is built the first
+ * time it is requested, as all files are indexed by then, and reused by the following sensors.
+ */
+@ScannerSide
+@SonarLintSide
+public class InputFileIndexProvider {
+
+  private FileSystem fileSystem;
+  private InputFileIndex inputFileIndex;
+
+  public synchronized InputFileIndex get(SensorContext context) {
+    if (inputFileIndex == null || fileSystem != context.fileSystem()) {
+      fileSystem = context.fileSystem();
+      inputFileIndex = InputFileIndex.of(fileSystem);
+    }
+    return inputFileIndex;
+  }
+}
@@ -49,6 +49,7 @@ import org.sonar.api.rules.RuleType;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.api.utils.log.LoggerLevel;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 
 class StylelintReportSensorTest {
 
@@ -69,7 +70,8 @@ class StylelintReportSensorTest {
   );
 
   private StylelintReportSensor stylelintReportSensor = new StylelintReportSensor(
-    EMPTY_CHECK_FACTORY
+    EMPTY_CHECK_FACTORY,
+    new InputFileIndexProvider()
   );
   private DefaultInputFile inputFile = createInputFile(context, CONTENT, "file.css");
 
@@ -0,0 +1,123 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+class InputFileIndexTest {
+
+  @TempDir
+  Path baseDir;
+
+  private SensorContextTester context;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    baseDir = baseDir.toRealPath();
+    context = SensorContextTester.create(baseDir);
+  }
+
+  @Test
+  void should_find_input_files_by_absolute_and_relative_path() {
+    var inputFile = inputFile("dir/file.css");
+
+    var index = InputFileIndex.of(context.fileSystem());
+
+    assertThat(index.inputFile(baseDir.resolve("dir/file.css").toString())).isSameAs(inputFile);
+    assertThat(index.inputFile("dir/file.css")).isSameAs(inputFile);
+    assertThat(index.inputFile("dir\\file.css")).isSameAs(inputFile);
+    assertThat(index.inputFile("./other/../dir/file.css")).isSameAs(inputFile);
+    assertThat(index.inputFile("dir/missing.css")).isNull();
+  }
+
+  @Test
+  void should_find_input_files_by_case_folded_path_when_unambiguous() {
+    var inputFile = inputFile("dir/File.css");
+    inputFile("dir/Other.css");
+    inputFile("dir/OTHER.css");
+
+    var index = InputFileIndex.of(context.fileSystem(), true);
+
+    assertThat(index.inputFile("dir/file.css")).isSameAs(inputFile);
+    assertThat(index.inputFile("dir/other.css")).isNull();
+  }
+
+  @Test
+  void should_match_case_on_case_sensitive_file_systems() {
+    var inputFile = inputFile("dir/File.css");
+
+    var index = InputFileIndex.of(context.fileSystem(), false);
+
+    assertThat(index.inputFile("dir/File.css")).isSameAs(inputFile);
+    assertThat(index.inputFile("dir/file.css")).isNull();
+  }
+
+  @Test
+  void should_detect_case_insensitive_file_systems() throws Exception {
+    var dir = Files.createDirectory(baseDir.resolve("Dir"));
+    var caseInsensitive = Files.exists(baseDir.resolve("dIR"));
+
+    assertThat(InputFileIndex.isCaseInsensitive(dir)).isEqualTo(caseInsensitive);
+    assertThat(InputFileIndex.isCaseInsensitive(Files.createDirectories(dir.resolve("1/2"))))
+      .isEqualTo(caseInsensitive);
+    assertThat(InputFileIndex.isCaseInsensitive(baseDir.resolve("missing"))).isFalse();
+  }
+
+  @Test
+  void should_find_input_files_by_real_path() throws Exception {
+    var realDir = Files.createDirectory(baseDir.resolve("real"));
+    Files.writeString(realDir.resolve("file.css"), "");
+    Files.createSymbolicLink(baseDir.resolve("link"), realDir);
+    var inputFile = inputFile("link/file.css");
+
+    var index = InputFileIndex.of(context.fileSystem());
+
+    assertThat(index.inputFile("real/file.css")).isSameAs(inputFile);
+  }
+
+  @Test
+  void should_share_index_of_analysis() {
+    var inputFile = inputFile("file.css");
+    var provider = new InputFileIndexProvider();
+
+    var index = provider.get(context);
+
+    assertThat(index.inputFile("file.css")).isSameAs(inputFile);
+    assertThat(provider.get(context)).isSameAs(index);
+    assertThat(provider.get(SensorContextTester.create(baseDir))).isNotSameAs(index);
+  }
+
+  private InputFile inputFile(String relativePath) {
+    var inputFile = TestInputFileBuilder
+      .create("moduleKey", baseDir.toFile(), baseDir.resolve(relativePath).toFile())
+      .build();
+    context.fileSystem().add(inputFile);
+    return inputFile;
+  }
+}
@@ -33,4 +33,9 @@ public class AlphabeticalSortCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-alphabetical-sort";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class ArgumentTypesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "argument-type";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
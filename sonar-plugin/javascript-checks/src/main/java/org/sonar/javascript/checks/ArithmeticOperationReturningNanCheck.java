@@ -31,4 +31,9 @@ public class ArithmeticOperationReturningNanCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "operation-returning-nan";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class AssociativeArraysCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-associative-arrays";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -35,4 +35,9 @@ public class BitwiseOperatorsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "bitwise-operators";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
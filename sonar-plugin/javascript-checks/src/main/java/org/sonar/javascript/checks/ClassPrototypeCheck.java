@@ -33,4 +33,9 @@ public class ClassPrototypeCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "class-prototype";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class CollectionSizeComparisonCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-collection-size-mischeck";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class DifferentTypesComparisonCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "different-types-comparison";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
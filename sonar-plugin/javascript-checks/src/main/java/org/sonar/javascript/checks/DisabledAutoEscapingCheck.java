@@ -33,4 +33,9 @@ public class DisabledAutoEscapingCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "disabled-auto-escaping";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
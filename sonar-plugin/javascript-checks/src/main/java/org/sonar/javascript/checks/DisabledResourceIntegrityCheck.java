@@ -33,4 +33,9 @@ public class DisabledResourceIntegrityCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "disabled-resource-integrity";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class EmptyCharacterClassesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-no-empty-character-class";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
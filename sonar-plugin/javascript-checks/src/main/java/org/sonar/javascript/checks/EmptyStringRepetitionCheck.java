@@ -33,4 +33,9 @@ public class EmptyStringRepetitionCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "empty-string-repetition";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
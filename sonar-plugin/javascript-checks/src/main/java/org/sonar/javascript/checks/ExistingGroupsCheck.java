@@ -33,4 +33,9 @@ public class ExistingGroupsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "existing-groups";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
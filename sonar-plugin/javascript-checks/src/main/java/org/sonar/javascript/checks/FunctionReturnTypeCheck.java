@@ -31,4 +31,9 @@ public class FunctionReturnTypeCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "function-return-type";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
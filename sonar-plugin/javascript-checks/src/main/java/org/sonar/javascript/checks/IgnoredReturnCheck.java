@@ -33,4 +33,9 @@ public class IgnoredReturnCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-ignored-return";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
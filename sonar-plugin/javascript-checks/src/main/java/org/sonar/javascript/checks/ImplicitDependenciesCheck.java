@@ -53,4 +53,9 @@ public class ImplicitDependenciesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-implicit-dependencies";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
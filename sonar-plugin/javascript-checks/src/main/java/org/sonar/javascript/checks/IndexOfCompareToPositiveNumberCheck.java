@@ -33,4 +33,9 @@ public class IndexOfCompareToPositiveNumberCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "index-of-compare-to-positive-number";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
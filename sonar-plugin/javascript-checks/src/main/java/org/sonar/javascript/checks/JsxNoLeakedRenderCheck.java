@@ -33,4 +33,9 @@ public class JsxNoLeakedRenderCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-jsx-no-leaked-render";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class MisorderedParameterListCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "arguments-order";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -46,6 +46,11 @@ public class NewOperatorMisuseCheck implements EslintBasedCheck {
     return "new-operator-misuse";
   }
 
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
+
   @Override
   public List<Object> configurations() {
     return Collections.singletonList(new Config(considerJSDoc));
@@ -33,4 +33,9 @@ public class NoBaseToStringCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-base-to-string";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class NoControlRegexCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-no-control-regex";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
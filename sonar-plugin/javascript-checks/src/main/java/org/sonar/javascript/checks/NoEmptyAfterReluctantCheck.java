@@ -33,4 +33,9 @@ public class NoEmptyAfterReluctantCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-empty-after-reluctant";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class NoEmptyGroupCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-empty-group";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class NoInMisuseCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-in-misuse";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class NoMisleadingArrayReverseCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-misleading-array-reverse";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
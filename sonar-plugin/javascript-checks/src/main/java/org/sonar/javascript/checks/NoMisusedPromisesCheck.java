@@ -53,4 +53,9 @@ public class NoMisusedPromisesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-misused-promises";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class NoMixedEnumsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-mixed-enums";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class NoRedundantOptionalCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-redundant-optional";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class NoRedundantTypeConstituentsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-redundant-type-constituents";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
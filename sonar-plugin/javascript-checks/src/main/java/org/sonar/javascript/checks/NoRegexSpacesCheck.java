@@ -33,4 +33,9 @@ public class NoRegexSpacesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-no-regex-spaces";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
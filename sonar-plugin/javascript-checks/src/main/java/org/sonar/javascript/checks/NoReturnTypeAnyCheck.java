@@ -31,4 +31,9 @@ public class NoReturnTypeAnyCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-return-type-any";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class NoVueBypassSanitizationCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-vue-bypass-sanitization";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
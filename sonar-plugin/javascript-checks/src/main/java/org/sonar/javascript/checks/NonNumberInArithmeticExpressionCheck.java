@@ -31,4 +31,9 @@ public class NonNumberInArithmeticExpressionCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "non-number-in-arithmetic-expression";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
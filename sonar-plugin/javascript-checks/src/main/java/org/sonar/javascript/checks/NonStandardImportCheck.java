@@ -33,4 +33,9 @@ public class NonStandardImportCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-require-or-define";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
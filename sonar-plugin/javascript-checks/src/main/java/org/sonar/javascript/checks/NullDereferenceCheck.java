@@ -31,4 +31,9 @@ public class NullDereferenceCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "null-dereference";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -39,6 +39,11 @@ public class PreferNullishCoalescingCheck implements EslintBasedCheck {
     return "prefer-nullish-coalescing";
   }
 
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
+
   private static class Config {
 
     boolean ignoreConditionalTests = true;
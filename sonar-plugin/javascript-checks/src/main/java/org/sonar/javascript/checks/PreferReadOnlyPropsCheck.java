@@ -31,4 +31,9 @@ public class PreferReadOnlyPropsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-prefer-read-only-props";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
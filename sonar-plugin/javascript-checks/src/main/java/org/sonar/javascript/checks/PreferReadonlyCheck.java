@@ -31,4 +31,9 @@ public class PreferReadonlyCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "prefer-readonly";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
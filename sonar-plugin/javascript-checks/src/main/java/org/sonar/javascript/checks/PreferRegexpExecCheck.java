@@ -33,4 +33,9 @@ public class PreferRegexpExecCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-prefer-regexp-exec";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class PreferReturnThisTypeCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "prefer-return-this-type";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
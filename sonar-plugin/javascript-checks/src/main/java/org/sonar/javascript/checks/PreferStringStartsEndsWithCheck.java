@@ -33,4 +33,9 @@ public class PreferStringStartsEndsWithCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "prefer-string-starts-ends-with";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class SingleCharInCharacterClassesCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "single-char-in-character-classes";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class SingleCharacterAlternativeCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "single-character-alternation";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
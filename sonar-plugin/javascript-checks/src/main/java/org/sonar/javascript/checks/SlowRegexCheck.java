@@ -33,4 +33,9 @@ public class SlowRegexCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "slow-regex";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class SonarNoInvalidRegexCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-no-invalid-regexp";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class SonarNoMisleadingCharacterClassCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-no-misleading-character-class";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
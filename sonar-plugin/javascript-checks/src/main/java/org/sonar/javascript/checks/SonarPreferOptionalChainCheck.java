@@ -33,4 +33,9 @@ public class SonarPreferOptionalChainCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "sonar-prefer-optional-chain";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
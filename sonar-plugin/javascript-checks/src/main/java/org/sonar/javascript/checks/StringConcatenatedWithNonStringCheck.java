@@ -33,4 +33,9 @@ public class StringConcatenatedWithNonStringCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-incorrect-string-concat";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -35,4 +35,9 @@ public class SwitchWithoutDefaultCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "switch-without-default";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class TryPromiseCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-try-promise";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
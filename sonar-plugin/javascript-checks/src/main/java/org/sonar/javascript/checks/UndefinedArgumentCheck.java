@@ -31,4 +31,9 @@ public class UndefinedArgumentCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-undefined-argument";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class UnusedNamedGroupsCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "unused-named-groups";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -31,4 +31,9 @@ public class UselessIntersectionCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "no-useless-intersection";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class VoidUseCheck implements EslintBasedCheck {
   public String eslintKey() {
     return "void-use";
   }
+
+  @Override
+  public boolean requiresTypeChecking() {
+    return true;
+  }
 }
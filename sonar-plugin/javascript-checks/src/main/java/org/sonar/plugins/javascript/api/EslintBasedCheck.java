@@ -34,4 +34,12 @@ public interface EslintBasedCheck extends JavaScriptCheck {
   default List<InputFile.Type> targets() {
     return Collections.singletonList(Type.MAIN);
   }
+
+  /**
+   * Whether the rule relies on type information, which is only available to the rule when the
+   * file is analyzed as part of a TypeScript program.
+   */
+  default boolean requiresTypeChecking() {
+    return false;
+  }
 }
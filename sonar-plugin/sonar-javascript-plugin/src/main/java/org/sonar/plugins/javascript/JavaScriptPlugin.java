@@ -36,6 +36,7 @@ import org.sonar.plugins.javascript.bridge.AnalysisWarningsWrapper;
 import org.sonar.plugins.javascript.bridge.AnalysisWithProgram;
 import org.sonar.plugins.javascript.bridge.AnalysisWithWatchProgram;
 import org.sonar.plugins.javascript.bridge.BridgeServerImpl;
+import org.sonar.plugins.javascript.bridge.BridgeServerPool;
 import org.sonar.plugins.javascript.bridge.BundleImpl;
 import org.sonar.plugins.javascript.bridge.CssRuleSensor;
 import org.sonar.plugins.javascript.bridge.EmbeddedNode;
@@ -48,6 +49,7 @@ import org.sonar.plugins.javascript.bridge.RulesBundles;
 import org.sonar.plugins.javascript.bridge.YamlSensor;
 import org.sonar.plugins.javascript.external.EslintReportSensor;
 import org.sonar.plugins.javascript.external.TslintReportSensor;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.filter.JavaScriptExclusionsFileFilter;
 import org.sonar.plugins.javascript.lcov.CoverageSensor;
 import org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl;
@@ -147,6 +149,7 @@ public class JavaScriptPlugin implements Plugin {
       NodeCommandBuilderImpl.class,
       ProcessWrapperImpl.class,
       BridgeServerImpl.class,
+      BridgeServerPool.class,
       NodeDeprecationWarning.class,
       BundleImpl.class,
       JsTsSensor.class,
@@ -158,6 +161,7 @@ public class JavaScriptPlugin implements Plugin {
       AnalysisWithProgram.class,
       AnalysisWithWatchProgram.class,
       AnalysisProcessor.class,
+      InputFileIndexProvider.class,
       YamlSensor.class,
       HtmlSensor.class,
       EmbeddedNode.class,
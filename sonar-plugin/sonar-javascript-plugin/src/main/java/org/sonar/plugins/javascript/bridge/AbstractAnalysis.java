@@ -20,8 +20,16 @@
 package org.sonar.plugins.javascript.bridge;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.utils.log.Logger;
@@ -29,6 +37,18 @@ import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.JavaScriptFilePredicate;
 import org.sonar.plugins.javascript.JavaScriptLanguage;
 import org.sonar.plugins.javascript.TypeScriptLanguage;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
+import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ParsingError;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ParsingErrorCode;
+import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
+import org.sonar.plugins.javascript.bridge.cache.CacheStrategies;
+import org.sonar.plugins.javascript.bridge.cache.CacheStrategy;
+import org.sonar.plugins.javascript.bridge.cache.DependencyGraph;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 
 abstract class AbstractAnalysis {
@@ -45,15 +65,33 @@ abstract class AbstractAnalysis {
   ProgressReport progressReport;
   AnalysisMode analysisMode;
   protected final AnalysisWarningsWrapper analysisWarnings;
+  private final InputFileIndexProvider inputFileIndexProvider;
+  int maxInFlightRequests;
+  int batchSize;
+  private final Deque<PendingAnalysis> pendingAnalyses = new ArrayDeque<>();
+  private AnalysisBatch batch;
+  PersistenceStage persistenceStage = new PersistenceStage(0);
+  // file whose analysis failed because of the bridge server, and files whose requests were dropped
+  // with it, in the order they were sent
+  @Nullable
+  InputFile failedFile;
+  final List<InputFile> droppedFiles = new ArrayList<>();
+  // dependencies of the files from the previous analysis, when tracked
+  @Nullable
+  DependencyGraph dependencyGraph;
+  // files affected by the changes since the incremental state of their program, by normalized path
+  final Set<String> affectedPaths = ConcurrentHashMap.newKeySet();
 
   AbstractAnalysis(
     BridgeServer bridgeServer,
     AnalysisProcessor analysisProcessor,
-    AnalysisWarningsWrapper analysisWarnings
+    AnalysisWarningsWrapper analysisWarnings,
+    InputFileIndexProvider inputFileIndexProvider
   ) {
     this.bridgeServer = bridgeServer;
     this.analysisProcessor = analysisProcessor;
     this.analysisWarnings = analysisWarnings;
+    this.inputFileIndexProvider = inputFileIndexProvider;
   }
 
   protected static String inputFileLanguage(InputFile file) {
@@ -68,11 +106,242 @@ abstract class AbstractAnalysis {
     contextUtils = new ContextUtils(context);
     this.checks = checks;
     this.analysisMode = analysisMode;
+    this.maxInFlightRequests = contextUtils.maxInFlightRequests();
+    this.batchSize = contextUtils.batchSize();
+    pendingAnalyses.clear();
+    batch = new AnalysisBatch(bridgeServer, batchSize);
+    dependencyGraph = null;
+    affectedPaths.clear();
+    clearFailure();
+  }
+
+  /**
+   * The index of the input files by path, shared with the other sensors of the analysis
+   */
+  InputFileIndex inputFileIndex() {
+    return inputFileIndexProvider.get(context);
+  }
+
+  /**
+   * Loads the dependencies saved by the previous analysis when enabled, for the unchanged files
+   * depending on changed ones not to be restored from the cache.
+   */
+  void loadDependencies(List<InputFile> inputFiles) {
+    dependencyGraph =
+      contextUtils.trackDependencies() ? DependencyGraph.load(context, inputFiles) : null;
+  }
+
+  private boolean isAffectedByDependencies(InputFile file) {
+    return (
+      (dependencyGraph != null && dependencyGraph.isAffected(file)) ||
+      (!affectedPaths.isEmpty() &&
+        affectedPaths.contains(TsConfigFile.normalizePath(file.absolutePath())))
+    );
+  }
+
+  CacheStrategy cacheStrategyFor(InputFile file) throws IOException {
+    return CacheStrategies.getStrategyFor(context, file, isAffectedByDependencies(file));
+  }
+
+  /**
+   * The linter of unchanged files only reports the issues of rules which don't depend on other
+   * files, which doesn't hold for the files affected by their dependencies.
+   */
+  String linterIdFor(InputFile file) {
+    return isAffectedByDependencies(file)
+      ? AnalysisMode.DEFAULT_LINTER_ID
+      : analysisMode.getLinterIdFor(file);
+  }
+
+  /**
+   * Restores the analysis of the file from the cache, which is only read then, the saving of its
+   * CPD tokens being handed over to the persistence stage. Returns the strategy of the file, which
+   * requires the file to be analyzed when the cache entry can't be read.
+   */
+  CacheStrategy restoreFromCache(InputFile file, CacheStrategy cacheStrategy) {
+    var cpdTokens = analysisProcessor.isCpdRestored(context, file) ? CpdTokens.builder() : null;
+    if (!cacheStrategy.restoreFromCache(cpdTokens != null ? cpdTokens::add : null)) {
+      return CacheStrategies.fallbackToAnalysis(cacheStrategy, file);
+    }
+    if (cpdTokens != null) {
+      var restoredTokens = cpdTokens.build();
+      persistenceStage.submit(() ->
+        analysisProcessor.prepareCacheAnalysis(context, file, restoredTokens)
+      );
+    }
+    if (dependencyGraph != null) {
+      dependencyGraph.keep(file);
+    }
+    return cacheStrategy;
+  }
+
+  /**
+   * Whether the files are to be analyzed without creating any TypeScript program, which is the
+   * case when enabled and none of the active rules requires type information.
+   */
+  boolean isLintOnly() {
+    return (
+      contextUtils.skipUnneededPrograms() &&
+      !EslintRule.anyRequiresTypeChecking(checks.eslintRules())
+    );
   }
 
   protected boolean isJavaScript(InputFile file) {
     return inputFileLanguage(file).equals(JavaScriptLanguage.KEY);
   }
 
+  /**
+   * Sends the analysis request of the file to the bridge server. When more than one request is
+   * allowed to be in-flight, the response is saved later, so that the bridge server keeps
+   * analyzing while the responses of the previous files are being saved. When batching is
+   * enabled, the request is only sent once the batch is full or flushed.
+   */
+  void analyzeWithBridge(InputFile file, JsAnalysisRequest request, CacheStrategy cacheStrategy)
+    throws IOException {
+    if (batchSize > 1) {
+      batch.add(file, cacheStrategy, batchedRequest(file, request));
+      if (batch.isFull()) {
+        pendingAnalyses.addAll(batch.send());
+        saveCompletedResponses();
+      }
+      return;
+    }
+    if (maxInFlightRequests <= 1) {
+      AnalysisResponse response;
+      try {
+        response =
+          isJavaScript(file)
+            ? bridgeServer.analyzeJavaScript(request)
+            : bridgeServer.analyzeTypeScript(request);
+      } catch (RuntimeException e) {
+        failedFile = file;
+        throw e;
+      }
+      saveResponse(file, response, cacheStrategy);
+      return;
+    }
+    var response = isJavaScript(file)
+      ? bridgeServer.analyzeJavaScriptAsync(request)
+      : bridgeServer.analyzeTypeScriptAsync(request);
+    pendingAnalyses.add(new PendingAnalysis(file, cacheStrategy, response));
+    saveCompletedResponses();
+  }
+
+  /**
+   * Saves the responses of all the in-flight requests. Must be called before any request that
+   * changes the state of the bridge server, e.g., deleting the program used by these requests.
+   */
+  void flushPendingAnalyses() throws IOException {
+    if (!batch.isEmpty()) {
+      pendingAnalyses.addAll(batch.send());
+    }
+    while (!pendingAnalyses.isEmpty()) {
+      savePendingAnalysis(pendingAnalyses.poll());
+    }
+  }
+
+  private void saveCompletedResponses() throws IOException {
+    while (
+      !pendingAnalyses.isEmpty() &&
+      (pendingAnalyses.size() >= maxPendingAnalyses() || pendingAnalyses.peek().response.isDone())
+    ) {
+      savePendingAnalysis(pendingAnalyses.poll());
+    }
+  }
+
+  /**
+   * The number of files whose responses can be awaited at the same time: every in-flight request
+   * may carry a whole batch.
+   */
+  int maxPendingAnalyses() {
+    return maxInFlightRequests * batchSize;
+  }
+
+  BatchedRequest batchedRequest(InputFile file, JsAnalysisRequest request) {
+    return new BatchedRequest(
+      isJavaScript(file) ? BatchedAnalysis.JS : BatchedAnalysis.TS,
+      request
+    );
+  }
+
+  void savePendingAnalysis(PendingAnalysis pendingAnalysis) throws IOException {
+    AnalysisResponse response;
+    try {
+      response = pendingAnalysis.join();
+    } catch (RuntimeException e) {
+      failedFile = pendingAnalysis.file;
+      pendingAnalyses.forEach(dropped -> droppedFiles.add(dropped.file));
+      pendingAnalyses.clear();
+      throw e;
+    }
+    saveResponse(pendingAnalysis.file, response, pendingAnalysis.cacheStrategy);
+  }
+
+  /**
+   * Reports the analysis of a file which made the bridge server crash as an analysis error. It is
+   * not cached, so that the file is analyzed again by the next analysis.
+   */
+  void saveCrashedAnalysis(InputFile file) {
+    var parsingError = new ParsingError();
+    parsingError.message =
+      "The bridge server crashed or stopped responding while analyzing the file";
+    parsingError.code = ParsingErrorCode.GENERAL_ERROR;
+    var response = new AnalysisResponse();
+    response.parsingError = parsingError;
+    persistenceStage.submit(() ->
+      analysisProcessor.prepareResponse(context, checks, file, response)
+    );
+  }
+
+  void clearFailure() {
+    failedFile = null;
+    droppedFiles.clear();
+  }
+
+  private void saveResponse(InputFile file, AnalysisResponse response, CacheStrategy cacheStrategy)
+    throws IOException {
+    persistenceStage.submit(() ->
+      analysisProcessor.prepareResponse(context, checks, file, response)
+    );
+    cacheStrategy.writeAnalysisToCache(
+      CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
+      file
+    );
+    if (dependencyGraph != null) {
+      dependencyGraph.record(file, response.dependencies);
+    }
+  }
+
+  static class PendingAnalysis {
+
+    final InputFile file;
+    final CacheStrategy cacheStrategy;
+    final CompletableFuture<AnalysisResponse> response;
+
+    PendingAnalysis(
+      InputFile file,
+      CacheStrategy cacheStrategy,
+      CompletableFuture<AnalysisResponse> response
+    ) {
+      this.file = file;
+      this.cacheStrategy = cacheStrategy;
+      this.response = response;
+    }
+
+    AnalysisResponse join() {
+      try {
+        return response.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(
+          "Failed to get response while analyzing " + file,
+          e.getCause()
+        );
+      }
+    }
+  }
+
   abstract void analyzeFiles(List<InputFile> inputFiles, List<String> tsConfigs) throws IOException;
 }
@@ -60,6 +60,7 @@ public abstract class AbstractBridgeSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     CacheStrategies.reset();
+    TsConfigFile.clearRealPaths();
     this.context = context;
     this.exclusions = Arrays.asList(Exclusions.getExcludedPaths(context.config()));
     this.contextUtils = new ContextUtils(context);
@@ -0,0 +1,76 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.javascript.bridge.AbstractAnalysis.PendingAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
+import org.sonar.plugins.javascript.bridge.cache.CacheStrategy;
+
+/**
+ * Analysis requests collected to be sent to the bridge server in a single request, see
+ * {@link BridgeServer#analyzeBatch(List)}.
+ */
+class AnalysisBatch {
+
+  private final BridgeServer bridgeServer;
+  private final int size;
+  private final List<InputFile> files = new ArrayList<>();
+  private final List<CacheStrategy> cacheStrategies = new ArrayList<>();
+  private final List<BatchedRequest> requests = new ArrayList<>();
+
+  AnalysisBatch(BridgeServer bridgeServer, int size) {
+    this.bridgeServer = bridgeServer;
+    this.size = size;
+  }
+
+  void add(InputFile file, CacheStrategy cacheStrategy, BatchedRequest request) {
+    files.add(file);
+    cacheStrategies.add(cacheStrategy);
+    requests.add(request);
+  }
+
+  boolean isFull() {
+    return requests.size() >= size;
+  }
+
+  boolean isEmpty() {
+    return requests.isEmpty();
+  }
+
+  /**
+   * Sends the collected requests and returns the analyses to save, in the order of the files.
+   */
+  List<PendingAnalysis> send() {
+    var responses = bridgeServer.analyzeBatch(List.copyOf(requests));
+    List<PendingAnalysis> pendingAnalyses = new ArrayList<>(responses.size());
+    for (int i = 0; i < responses.size(); i++) {
+      pendingAnalyses.add(
+        new PendingAnalysis(files.get(i), cacheStrategies.get(i), responses.get(i))
+      );
+    }
+    files.clear();
+    cacheStrategies.clear();
+    requests.clear();
+    return pendingAnalyses;
+  }
+}
@@ -31,15 +31,18 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.api.batch.sensor.issue.NewIssue;
 import org.sonar.api.batch.sensor.issue.NewIssueLocation;
-import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.measures.CoreMetrics;
@@ -52,7 +55,6 @@ import org.sonar.api.utils.Version;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
-import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.plugin.api.SonarLintRuntime;
 import org.sonarsource.sonarlint.plugin.api.issue.NewSonarLintIssue;
@@ -66,10 +68,6 @@ public class AnalysisProcessor {
 
   private final NoSonarFilter noSonarFilter;
   private final FileLinesContextFactory fileLinesContextFactory;
-  private SensorContext context;
-  private ContextUtils contextUtils;
-  private InputFile file;
-  private JsTsChecks checks;
   HashSet<String> uniqueParsingErrors;
 
   public AnalysisProcessor(
@@ -87,275 +85,414 @@ public class AnalysisProcessor {
     InputFile file,
     AnalysisResponse response
   ) {
-    this.context = context;
-    contextUtils = new ContextUtils(context);
-    this.checks = checks;
-    this.file = file;
-    if (response.parsingError != null) {
-      uniqueParsingErrors.add(file.absolutePath());
-      processParsingError(response.parsingError);
-      return;
-    }
+    prepareResponse(context, checks, file, response).run();
+  }
 
-    if (
-      YamlSensor.LANGUAGE.equals(file.language()) || HtmlSensor.LANGUAGE.equals(file.language())
-    ) {
-      // SonarQube expects that there is a single analyzer that saves analysis data like metrics, highlighting,
-      // and symbols. There is an exception for issues, though. Since sonar-iac saves such data for YAML files
-      // from Cloudformation configurations, we can only save issues for these files. Same applies for HTML and
-      // sonar-html plugin.
-      saveIssues(response.issues);
-    } else {
-      // it's important to have an order here:
-      // saving metrics should be done before saving issues so that NO SONAR lines with issues are indeed ignored
-      saveMetrics(response.metrics);
-      saveIssues(response.issues);
-      saveHighlights(response.highlights);
-      saveHighlightedSymbols(response.highlightedSymbols);
-      saveCpd(response.cpdTokens);
-    }
+  /**
+   * Converts the analysis data of the file, down to the text ranges of its locations, without
+   * calling the sensor context, so that it can run on any thread. Returns the save of the data,
+   * which must run on the sensor thread.
+   */
+  Runnable prepareResponse(
+    SensorContext context,
+    JsTsChecks checks,
+    InputFile file,
+    AnalysisResponse response
+  ) {
+    return new FileProcessor(context, checks, file).prepareResponse(response);
   }
 
   public int parsingErrorFilesCount() {
     return uniqueParsingErrors.size();
   }
 
-  void processCacheAnalysis(SensorContext context, InputFile file, CacheAnalysis cacheAnalysis) {
-    this.context = context;
-    contextUtils = new ContextUtils(context);
-    this.file = file;
+  /**
+   * Whether the CPD tokens of the file are to be read when restoring its analysis from the cache,
+   * as they are not saved otherwise
+   */
+  boolean isCpdRestored(SensorContext context, InputFile file) {
+    return new FileProcessor(context, null, file).isCpdRestored();
+  }
+
+  /**
+   * Returns the save of the CPD tokens of the file restored from the cache, which must run on the
+   * sensor thread
+   */
+  Runnable prepareCacheAnalysis(SensorContext context, InputFile file, CpdTokens cpdTokens) {
+    return new FileProcessor(context, null, file).prepareCacheAnalysis(cpdTokens);
+  }
 
-    if (
-      YamlSensor.LANGUAGE.equals(file.language()) || HtmlSensor.LANGUAGE.equals(file.language())
-    ) {
-      // SonarQube expects that there is a single analyzer that saves analysis data like metrics, highlighting,
-      // and symbols. There is an exception for issues, though. Since sonar-iac saves such data for YAML files
-      // from Cloudformation configurations, we can only save issues for these files. Same applies for HTML and
-      // sonar-html plugin.
-      LOG.debug(
-        "Skipping processing of the analysis extracted from cache because the javascript plugin doesn't save analysis data of YAML files"
-      );
-    } else {
-      saveCpd(cacheAnalysis.getCpdTokens());
+  /**
+   * Prepares and saves the analysis data of a single file, so that files can be prepared
+   * concurrently
+   */
+  private class FileProcessor {
+
+    private final SensorContext context;
+    private final ContextUtils contextUtils;
+    private final InputFile file;
+    @Nullable
+    private final JsTsChecks checks;
+    // resolved on the first issue, as telling the language of Vue files reads their contents
+    @Nullable
+    private Map<String, RuleKey> ruleKeys;
+
+    FileProcessor(SensorContext context, @Nullable JsTsChecks checks, InputFile file) {
+      this.context = context;
+      this.contextUtils = new ContextUtils(context);
+      this.checks = checks;
+      this.file = file;
     }
-  }
 
-  private void processParsingError(BridgeServer.ParsingError parsingError) {
-    Integer line = parsingError.line;
-    String message = parsingError.message;
-
-    if (line != null) {
-      LOG.error("Failed to parse file [{}] at line {}: {}", file, line, message);
-    } else if (parsingError.code == BridgeServer.ParsingErrorCode.FAILING_TYPESCRIPT) {
-      LOG.error("Failed to analyze file [{}] from TypeScript: {}", file, message);
-    } else {
-      LOG.error("Failed to analyze file [{}]: {}", file, message);
-      if (contextUtils.failFast()) {
-        throw new IllegalStateException("Failed to analyze file " + file);
+    Runnable prepareResponse(AnalysisResponse response) {
+      if (response.parsingError != null) {
+        return () -> {
+          uniqueParsingErrors.add(file.absolutePath());
+          processParsingError(response.parsingError);
+        };
       }
+
+      var issues = prepareIssues(response.issues);
+      if (
+        YamlSensor.LANGUAGE.equals(file.language()) || HtmlSensor.LANGUAGE.equals(file.language())
+      ) {
+        // SonarQube expects that there is a single analyzer that saves analysis data like metrics, highlighting,
+        // and symbols. There is an exception for issues, though. Since sonar-iac saves such data for YAML files
+        // from Cloudformation configurations, we can only save issues for these files. Same applies for HTML and
+        // sonar-html plugin.
+        return () -> saveIssues(issues);
+      }
+      var nosonarLines = Arrays
+        .stream(response.metrics.nosonarLines)
+        .boxed()
+        .collect(Collectors.toSet());
+      var highlights = response.highlights;
+      var textTypes = textTypes(highlights);
+      var highlightRanges = highlights.textRanges(file);
+      var symbols = response.highlightedSymbols;
+      var symbolRanges = symbols.textRanges(file);
+      var cpdTokens = response.cpdTokens;
+      var cpdRanges = isCpdSaved() ? cpdTokens.textRanges(file) : null;
+      return () -> {
+        // it's important to have an order here:
+        // saving metrics should be done before saving issues so that NO SONAR lines with issues are indeed ignored
+        saveMetrics(response.metrics, nosonarLines);
+        saveIssues(issues);
+        saveHighlights(highlights, textTypes, highlightRanges);
+        saveHighlightedSymbols(symbols, symbolRanges);
+        saveCpd(cpdTokens, cpdRanges);
+      };
     }
 
-    var parsingErrorRuleKey = checks.parsingErrorRuleKey();
-    if (parsingErrorRuleKey != null) {
-      NewIssue newIssue = context.newIssue();
+    boolean isCpdRestored() {
+      if (
+        YamlSensor.LANGUAGE.equals(file.language()) || HtmlSensor.LANGUAGE.equals(file.language())
+      ) {
+        // SonarQube expects that there is a single analyzer that saves analysis data like metrics, highlighting,
+        // and symbols. There is an exception for issues, though. Since sonar-iac saves such data for YAML files
+        // from Cloudformation configurations, we can only save issues for these files. Same applies for HTML and
+        // sonar-html plugin.
+        LOG.debug(
+          "Skipping processing of the analysis extracted from cache because the javascript plugin doesn't save analysis data of YAML files"
+        );
+        return false;
+      }
+      return isCpdSaved();
+    }
 
-      NewIssueLocation primaryLocation = newIssue.newLocation().message(message).on(file);
+    Runnable prepareCacheAnalysis(CpdTokens cpdTokens) {
+      var cpdRanges = isCpdSaved() ? cpdTokens.textRanges(file) : null;
+      return () -> saveCpd(cpdTokens, cpdRanges);
+    }
+
+    private void processParsingError(BridgeServer.ParsingError parsingError) {
+      Integer line = parsingError.line;
+      String message = parsingError.message;
 
       if (line != null) {
-        primaryLocation.at(file.selectLine(line));
+        LOG.error("Failed to parse file [{}] at line {}: {}", file, line, message);
+      } else if (parsingError.code == BridgeServer.ParsingErrorCode.FAILING_TYPESCRIPT) {
+        LOG.error("Failed to analyze file [{}] from TypeScript: {}", file, message);
+      } else {
+        LOG.error("Failed to analyze file [{}]: {}", file, message);
+        if (contextUtils.failFast()) {
+          throw new IllegalStateException("Failed to analyze file " + file);
+        }
+      }
+
+      var parsingErrorRuleKey = checks.parsingErrorRuleKey();
+      if (parsingErrorRuleKey != null) {
+        NewIssue newIssue = context.newIssue();
+
+        NewIssueLocation primaryLocation = newIssue.newLocation().message(message).on(file);
+
+        if (line != null) {
+          primaryLocation.at(file.selectLine(line));
+        }
+
+        newIssue.forRule(parsingErrorRuleKey).at(primaryLocation).save();
       }
 
-      newIssue.forRule(parsingErrorRuleKey).at(primaryLocation).save();
+      context
+        .newAnalysisError()
+        .onFile(file)
+        .at(file.newPointer(line != null ? line : 1, 0))
+        .message(message)
+        .save();
     }
 
-    context
-      .newAnalysisError()
-      .onFile(file)
-      .at(file.newPointer(line != null ? line : 1, 0))
-      .message(message)
-      .save();
-  }
+    private List<PreparedIssue> prepareIssues(List<Issue> issues) {
+      return issues.stream().map(this::prepareIssue).collect(Collectors.toList());
+    }
 
-  private void saveIssues(List<Issue> issues) {
-    for (Issue issue : issues) {
-      LOG.debug(
-        "Saving issue for rule {} on file {} at line {}",
-        issue.ruleId,
-        file.absolutePath(),
-        issue.line
+    private PreparedIssue prepareIssue(Issue issue) {
+      var secondaryRanges = issue.secondaryLocations
+        .stream()
+        .map(this::secondaryRange)
+        .collect(Collectors.toList());
+      var secondaryMessages = issue.secondaryLocations
+        .stream()
+        .map(location -> location.message != null ? unicodeEscape(location.message) : null)
+        .collect(Collectors.toList());
+      return new PreparedIssue(
+        issue,
+        findRuleKey(issue),
+        primaryRange(issue),
+        issue.message != null ? unicodeEscape(issue.message) : null,
+        secondaryRanges,
+        secondaryMessages
       );
-      saveIssue(issue);
     }
-  }
 
-  private void saveHighlights(BridgeServer.Highlight[] highlights) {
-    NewHighlighting highlighting = context.newHighlighting().onFile(file);
-    for (BridgeServer.Highlight highlight : highlights) {
-      highlighting.highlight(
-        highlight.location.toTextRange(file),
-        TypeOfText.valueOf(highlight.textType)
-      );
+    @Nullable
+    private TextRange primaryRange(Issue issue) {
+      if (issue.endLine != null) {
+        return file.newRange(issue.line, issue.column, issue.endLine, issue.endColumn);
+      }
+      return issue.line != 0 ? file.selectLine(issue.line) : null;
     }
-    highlighting.save();
-  }
 
-  private void saveHighlightedSymbols(BridgeServer.HighlightedSymbol[] highlightedSymbols) {
-    NewSymbolTable symbolTable = context.newSymbolTable().onFile(file);
-    for (BridgeServer.HighlightedSymbol highlightedSymbol : highlightedSymbols) {
-      BridgeServer.Location declaration = highlightedSymbol.declaration;
-      NewSymbol newSymbol = symbolTable.newSymbol(
-        declaration.startLine,
-        declaration.startCol,
-        declaration.endLine,
-        declaration.endCol
-      );
-      for (BridgeServer.Location reference : highlightedSymbol.references) {
-        newSymbol.newReference(
-          reference.startLine,
-          reference.startCol,
-          reference.endLine,
-          reference.endCol
+    @Nullable
+    private TextRange secondaryRange(IssueLocation location) {
+      if (
+        location.line != null &&
+        location.endLine != null &&
+        location.column != null &&
+        location.endColumn != null
+      ) {
+        return file.newRange(location.line, location.column, location.endLine, location.endColumn);
+      }
+      return null;
+    }
+
+    private void saveIssues(List<PreparedIssue> issues) {
+      for (PreparedIssue prepared : issues) {
+        LOG.debug(
+          "Saving issue for rule {} on file {} at line {}",
+          prepared.issue.ruleId,
+          file.absolutePath(),
+          prepared.issue.line
         );
+        saveIssue(prepared);
       }
     }
-    symbolTable.save();
-  }
 
-  private void saveMetrics(BridgeServer.Metrics metrics) {
-    if (file.type() == InputFile.Type.TEST || contextUtils.isSonarLint()) {
-      noSonarFilter.noSonarInFile(
-        file,
-        Arrays.stream(metrics.nosonarLines).boxed().collect(Collectors.toSet())
-      );
-      return;
+    private TypeOfText[] textTypes(Highlights highlights) {
+      // the types of text repeat, they are resolved once per distinct text
+      var textTypes = new TypeOfText[highlights.textTable().size()];
+      for (int i = 0; i < highlights.size(); i++) {
+        var textIndex = highlights.textIndex(i);
+        if (textTypes[textIndex] == null) {
+          textTypes[textIndex] = TypeOfText.valueOf(highlights.textType(i));
+        }
+      }
+      return textTypes;
     }
 
-    saveMetric(file, CoreMetrics.FUNCTIONS, metrics.functions);
-    saveMetric(file, CoreMetrics.STATEMENTS, metrics.statements);
-    saveMetric(file, CoreMetrics.CLASSES, metrics.classes);
-    saveMetric(file, CoreMetrics.NCLOC, metrics.ncloc.length);
-    saveMetric(file, CoreMetrics.COMMENT_LINES, metrics.commentLines.length);
-    saveMetric(file, CoreMetrics.COMPLEXITY, metrics.complexity);
-    saveMetric(file, CoreMetrics.COGNITIVE_COMPLEXITY, metrics.cognitiveComplexity);
-
-    noSonarFilter.noSonarInFile(
-      file,
-      Arrays.stream(metrics.nosonarLines).boxed().collect(Collectors.toSet())
-    );
-
-    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(file);
-    for (int line : metrics.ncloc) {
-      fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
+    private void saveHighlights(
+      Highlights highlights,
+      TypeOfText[] textTypes,
+      TextRange[] textRanges
+    ) {
+      NewHighlighting highlighting = context.newHighlighting().onFile(file);
+      for (int i = 0; i < highlights.size(); i++) {
+        highlighting.highlight(textRanges[i], textTypes[highlights.textIndex(i)]);
+      }
+      highlighting.save();
     }
 
-    for (int line : metrics.executableLines) {
-      fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, 1);
+    private void saveHighlightedSymbols(
+      HighlightedSymbols highlightedSymbols,
+      TextRange[] textRanges
+    ) {
+      NewSymbolTable symbolTable = context.newSymbolTable().onFile(file);
+      highlightedSymbols.addTo(symbolTable, textRanges);
+      symbolTable.save();
     }
 
-    fileLinesContext.save();
-  }
+    private void saveMetrics(BridgeServer.Metrics metrics, Set<Integer> nosonarLines) {
+      if (file.type() == InputFile.Type.TEST || contextUtils.isSonarLint()) {
+        noSonarFilter.noSonarInFile(file, nosonarLines);
+        return;
+      }
 
-  private <T extends Serializable> void saveMetric(InputFile file, Metric<T> metric, T value) {
-    context.<T>newMeasure().withValue(value).forMetric(metric).on(file).save();
-  }
+      saveMetric(file, CoreMetrics.FUNCTIONS, metrics.functions);
+      saveMetric(file, CoreMetrics.STATEMENTS, metrics.statements);
+      saveMetric(file, CoreMetrics.CLASSES, metrics.classes);
+      saveMetric(file, CoreMetrics.NCLOC, metrics.ncloc.length);
+      saveMetric(file, CoreMetrics.COMMENT_LINES, metrics.commentLines.length);
+      saveMetric(file, CoreMetrics.COMPLEXITY, metrics.complexity);
+      saveMetric(file, CoreMetrics.COGNITIVE_COMPLEXITY, metrics.cognitiveComplexity);
 
-  private void saveCpd(BridgeServer.CpdToken[] cpdTokens) {
-    if (file.type().equals(InputFile.Type.TEST) || contextUtils.isSonarLint()) {
-      // even providing empty 'NewCpdTokens' will trigger duplication computation so skipping
-      return;
+      noSonarFilter.noSonarInFile(file, nosonarLines);
+
+      FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(file);
+      for (int line : metrics.ncloc) {
+        fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
+      }
+
+      for (int line : metrics.executableLines) {
+        fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, 1);
+      }
+
+      fileLinesContext.save();
     }
-    NewCpdTokens newCpdTokens = context.newCpdTokens().onFile(file);
-    for (BridgeServer.CpdToken cpdToken : cpdTokens) {
-      newCpdTokens.addToken(cpdToken.location.toTextRange(file), cpdToken.image);
+
+    private <T extends Serializable> void saveMetric(InputFile file, Metric<T> metric, T value) {
+      context.<T>newMeasure().withValue(value).forMetric(metric).on(file).save();
     }
-    newCpdTokens.save();
-  }
 
-  void saveIssue(BridgeServer.Issue issue) {
-    var newIssue = context.newIssue();
-    var location = newIssue.newLocation().on(file);
-    if (issue.message != null) {
-      var escapedMsg = unicodeEscape(issue.message);
-      location.message(escapedMsg);
+    private boolean isCpdSaved() {
+      // even providing empty 'NewCpdTokens' will trigger duplication computation so skipping
+      return !file.type().equals(InputFile.Type.TEST) && !contextUtils.isSonarLint();
     }
 
-    if (issue.endLine != null) {
-      location.at(file.newRange(issue.line, issue.column, issue.endLine, issue.endColumn));
-    } else {
-      if (issue.line != 0) {
-        location.at(file.selectLine(issue.line));
+    /**
+     * Saves the CPD tokens given their text ranges, which are null when CPD tokens are not saved
+     */
+    private void saveCpd(CpdTokens cpdTokens, @Nullable TextRange[] textRanges) {
+      if (textRanges == null) {
+        return;
+      }
+      NewCpdTokens newCpdTokens = context.newCpdTokens().onFile(file);
+      for (int i = 0; i < cpdTokens.size(); i++) {
+        newCpdTokens.addToken(textRanges[i], cpdTokens.image(i));
       }
+      newCpdTokens.save();
     }
 
-    issue.secondaryLocations.forEach(secondary -> {
-      NewIssueLocation newIssueLocation = newSecondaryLocation(file, newIssue, secondary);
-      if (newIssueLocation != null) {
-        newIssue.addLocation(newIssueLocation);
+    void saveIssue(PreparedIssue prepared) {
+      var issue = prepared.issue;
+      var newIssue = context.newIssue();
+      var location = newIssue.newLocation().on(file);
+      if (prepared.message != null) {
+        location.message(prepared.message);
       }
-    });
 
-    if (issue.cost != null) {
-      newIssue.gap(issue.cost);
-    }
+      if (prepared.textRange != null) {
+        location.at(prepared.textRange);
+      }
 
-    if (issue.quickFixes != null && !issue.quickFixes.isEmpty()) {
-      if (isSqQuickFixCompatible()) {
-        newIssue.setQuickFixAvailable(true);
+      for (int i = 0; i < issue.secondaryLocations.size(); i++) {
+        NewIssueLocation newIssueLocation = newSecondaryLocation(
+          file,
+          newIssue,
+          prepared.secondaryRanges.get(i),
+          prepared.secondaryMessages.get(i)
+        );
+        if (newIssueLocation != null) {
+          newIssue.addLocation(newIssueLocation);
+        }
       }
-      if (isQuickFixCompatible()) {
-        addQuickFixes(issue, (NewSonarLintIssue) newIssue, file);
+
+      if (issue.cost != null) {
+        newIssue.gap(issue.cost);
+      }
+
+      if (issue.quickFixes != null && !issue.quickFixes.isEmpty()) {
+        if (isSqQuickFixCompatible()) {
+          newIssue.setQuickFixAvailable(true);
+        }
+        if (isQuickFixCompatible()) {
+          addQuickFixes(issue, (NewSonarLintIssue) newIssue, file);
+        }
+      }
+
+      if (prepared.ruleKey != null) {
+        newIssue.at(location).forRule(prepared.ruleKey).save();
       }
     }
 
-    var ruleKey = findRuleKey(issue);
-    if (ruleKey != null) {
-      newIssue.at(location).forRule(ruleKey).save();
+    private RuleKey findRuleKey(Issue issue) {
+      if (ruleKeys == null) {
+        ruleKeys = checks.ruleKeysByEslintKey(isTypeScriptFile(file) ? TYPESCRIPT : JAVASCRIPT);
+      }
+      return ruleKeys.get(issue.ruleId);
     }
-  }
 
-  private RuleKey findRuleKey(Issue issue) {
-    return checks.ruleKeyByEslintKey(
-      issue.ruleId,
-      isTypeScriptFile(file) ? TYPESCRIPT : JAVASCRIPT
-    );
-  }
+    private boolean isSqQuickFixCompatible() {
+      return (
+        contextUtils.isSonarQube() &&
+        context.runtime().getApiVersion().isGreaterThanOrEqual(Version.create(9, 2))
+      );
+    }
 
-  private boolean isSqQuickFixCompatible() {
-    return (
-      contextUtils.isSonarQube() &&
-      context.runtime().getApiVersion().isGreaterThanOrEqual(Version.create(9, 2))
-    );
+    private boolean isQuickFixCompatible() {
+      return (
+        contextUtils.isSonarLint() &&
+        ((SonarLintRuntime) context.runtime()).getSonarLintPluginApiVersion()
+          .isGreaterThanOrEqual(SONARLINT_6_3)
+      );
+    }
   }
 
-  private boolean isQuickFixCompatible() {
-    return (
-      contextUtils.isSonarLint() &&
-      ((SonarLintRuntime) context.runtime()).getSonarLintPluginApiVersion()
-        .isGreaterThanOrEqual(SONARLINT_6_3)
-    );
+  /**
+   * Issue converted for saving, with its rule key and text ranges resolved and its messages escaped
+   */
+  private static class PreparedIssue {
+
+    private final Issue issue;
+    @Nullable
+    private final RuleKey ruleKey;
+    // null for issues on the whole file
+    @Nullable
+    private final TextRange textRange;
+    @Nullable
+    private final String message;
+    // text ranges and escaped messages of the secondary locations, in the same order
+    private final List<TextRange> secondaryRanges;
+    private final List<String> secondaryMessages;
+
+    PreparedIssue(
+      Issue issue,
+      @Nullable RuleKey ruleKey,
+      @Nullable TextRange textRange,
+      @Nullable String message,
+      List<TextRange> secondaryRanges,
+      List<String> secondaryMessages
+    ) {
+      this.issue = issue;
+      this.ruleKey = ruleKey;
+      this.textRange = textRange;
+      this.message = message;
+      this.secondaryRanges = secondaryRanges;
+      this.secondaryMessages = secondaryMessages;
+    }
   }
 
   private static NewIssueLocation newSecondaryLocation(
     InputFile inputFile,
     NewIssue issue,
-    IssueLocation location
+    @Nullable TextRange textRange,
+    @Nullable String message
   ) {
-    NewIssueLocation newIssueLocation = issue.newLocation().on(inputFile);
-
-    if (
-      location.line != null &&
-      location.endLine != null &&
-      location.column != null &&
-      location.endColumn != null
-    ) {
-      newIssueLocation.at(
-        inputFile.newRange(location.line, location.column, location.endLine, location.endColumn)
-      );
-      if (location.message != null) {
-        newIssueLocation.message(unicodeEscape(location.message));
-      }
-      return newIssueLocation;
+    if (textRange == null) {
+      return null;
+    }
+    NewIssueLocation newIssueLocation = issue.newLocation().on(inputFile).at(textRange);
+    if (message != null) {
+      newIssueLocation.message(message);
     }
-    return null;
+    return newIssueLocation;
   }
 }
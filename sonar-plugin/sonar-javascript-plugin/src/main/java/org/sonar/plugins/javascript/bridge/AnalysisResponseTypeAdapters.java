@@ -0,0 +1,294 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Gson type adapters for the bulky parts of an analysis response: highlights, highlighted symbols
+ * and CPD tokens. They decode the tokens directly from the JSON stream into their packed
+ * representation, without going through reflection nor allocating an object per location, which
+ * matters for generated files where these arrays hold millions of locations.
+ * <p>
+ * The adapters are bound to their types with {@link com.google.gson.annotations.JsonAdapter}, so
+ * that any {@link com.google.gson.Gson} instance uses them.
+ */
+final class AnalysisResponseTypeAdapters {
+
+  private static final int START_LINE = 0;
+  private static final int START_COL = 1;
+  private static final int END_LINE = 2;
+  private static final int END_COL = 3;
+
+  private AnalysisResponseTypeAdapters() {}
+
+  /**
+   * Reads a location into the given coordinates, returns false if the location is null
+   */
+  private static boolean readLocation(JsonReader in, int[] coordinates) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return false;
+    }
+    Arrays.fill(coordinates, 0);
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "startLine":
+          coordinates[START_LINE] = in.nextInt();
+          break;
+        case "startCol":
+          coordinates[START_COL] = in.nextInt();
+          break;
+        case "endLine":
+          coordinates[END_LINE] = in.nextInt();
+          break;
+        case "endCol":
+          coordinates[END_COL] = in.nextInt();
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+    return true;
+  }
+
+  private static void writeLocation(JsonWriter out, int[] coordinates) throws IOException {
+    writeLocation(
+      out,
+      coordinates[START_LINE],
+      coordinates[START_COL],
+      coordinates[END_LINE],
+      coordinates[END_COL]
+    );
+  }
+
+  private static void writeLocation(
+    JsonWriter out,
+    int startLine,
+    int startCol,
+    int endLine,
+    int endCol
+  ) throws IOException {
+    out.beginObject();
+    out.name("startLine").value(startLine);
+    out.name("startCol").value(startCol);
+    out.name("endLine").value(endLine);
+    out.name("endCol").value(endCol);
+    out.endObject();
+  }
+
+  /**
+   * Adapter of tokens written as an array of objects with a location and a text property
+   */
+  private abstract static class TokensAdapter<T extends Tokens> extends TypeAdapter<T> {
+
+    private final String textProperty;
+
+    TokensAdapter(String textProperty) {
+      this.textProperty = textProperty;
+    }
+
+    abstract T build(Tokens.Builder builder);
+
+    @Override
+    public void write(JsonWriter out, T tokens) throws IOException {
+      if (tokens == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginArray();
+      for (int i = 0; i < tokens.size(); i++) {
+        out.beginObject();
+        out.name("location");
+        writeLocation(
+          out,
+          tokens.startLine(i),
+          tokens.startCol(i),
+          tokens.endLine(i),
+          tokens.endCol(i)
+        );
+        out.name(textProperty).value(tokens.text(i));
+        out.endObject();
+      }
+      out.endArray();
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+      var builder = new Tokens.Builder();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return build(builder);
+      }
+      var coordinates = new int[4];
+      in.beginArray();
+      while (in.hasNext()) {
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          continue;
+        }
+        var hasLocation = false;
+        String text = null;
+        in.beginObject();
+        while (in.hasNext()) {
+          var name = in.nextName();
+          if ("location".equals(name)) {
+            hasLocation = readLocation(in, coordinates);
+          } else if (textProperty.equals(name) && in.peek() != JsonToken.NULL) {
+            text = in.nextString();
+          } else {
+            in.skipValue();
+          }
+        }
+        in.endObject();
+        // tokens without location can't be saved
+        if (hasLocation) {
+          builder.add(
+            coordinates[START_LINE],
+            coordinates[START_COL],
+            coordinates[END_LINE],
+            coordinates[END_COL],
+            text
+          );
+        }
+      }
+      in.endArray();
+      return build(builder);
+    }
+  }
+
+  static class CpdTokensAdapter extends TokensAdapter<CpdTokens> {
+
+    CpdTokensAdapter() {
+      super("image");
+    }
+
+    @Override
+    CpdTokens build(Tokens.Builder builder) {
+      return CpdTokens.of(builder);
+    }
+  }
+
+  static class HighlightsAdapter extends TokensAdapter<Highlights> {
+
+    HighlightsAdapter() {
+      super("textType");
+    }
+
+    @Override
+    Highlights build(Tokens.Builder builder) {
+      return Highlights.of(builder);
+    }
+  }
+
+  static class HighlightedSymbolsAdapter extends TypeAdapter<HighlightedSymbols> {
+
+    @Override
+    public void write(JsonWriter out, HighlightedSymbols symbols) throws IOException {
+      if (symbols == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginArray();
+      for (int symbol = 0; symbol < symbols.size(); symbol++) {
+        out.beginObject();
+        out.name("declaration");
+        writeLocation(out, symbols.declaration(symbol));
+        out.name("references").beginArray();
+        for (int reference = 0; reference < symbols.referenceCount(symbol); reference++) {
+          writeLocation(out, symbols.reference(symbol, reference));
+        }
+        out.endArray();
+        out.endObject();
+      }
+      out.endArray();
+    }
+
+    @Override
+    public HighlightedSymbols read(JsonReader in) throws IOException {
+      var builder = HighlightedSymbols.builder();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return builder.build();
+      }
+      var declaration = new int[4];
+      var coordinates = new int[4];
+      // references of the current symbol, which may come before its declaration
+      var references = new int[16];
+      in.beginArray();
+      while (in.hasNext()) {
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          continue;
+        }
+        var hasDeclaration = false;
+        var referenceCount = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+          var name = in.nextName();
+          if ("declaration".equals(name)) {
+            hasDeclaration = readLocation(in, declaration);
+          } else if ("references".equals(name) && in.peek() != JsonToken.NULL) {
+            in.beginArray();
+            while (in.hasNext()) {
+              if (readLocation(in, coordinates)) {
+                if ((referenceCount + 1) * 4 > references.length) {
+                  references = Arrays.copyOf(references, references.length * 2);
+                }
+                System.arraycopy(coordinates, 0, references, referenceCount * 4, 4);
+                referenceCount++;
+              }
+            }
+            in.endArray();
+          } else {
+            in.skipValue();
+          }
+        }
+        in.endObject();
+        // symbols without declaration can't be saved
+        if (hasDeclaration) {
+          builder.addSymbol(
+            declaration[START_LINE],
+            declaration[START_COL],
+            declaration[END_LINE],
+            declaration[END_COL]
+          );
+          for (int i = 0; i < referenceCount * 4; i += 4) {
+            builder.addReference(
+              references[i + START_LINE],
+              references[i + START_COL],
+              references[i + END_LINE],
+              references[i + END_COL]
+            );
+          }
+        }
+      }
+      in.endArray();
+      return builder.build();
+    }
+  }
+}
@@ -20,12 +20,18 @@
 package org.sonar.plugins.javascript.bridge;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.scanner.ScannerSide;
@@ -36,8 +42,10 @@ import org.sonar.plugins.javascript.CancellationException;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.bridge.BridgeServer.TsProgram;
 import org.sonar.plugins.javascript.bridge.BridgeServer.TsProgramRequest;
-import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
-import org.sonar.plugins.javascript.bridge.cache.CacheStrategies;
+import org.sonar.plugins.javascript.bridge.TsConfigProvider.GeneratedTsConfigFileProvider;
+import org.sonar.plugins.javascript.bridge.cache.CacheStrategy;
+import org.sonar.plugins.javascript.bridge.cache.ProgramStateCache;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 
@@ -48,70 +56,53 @@ public class AnalysisWithProgram extends AbstractAnalysis {
   private static final Logger LOG = Loggers.get(AnalysisWithProgram.class);
   private static final Profiler PROFILER = Profiler.create(LOG);
 
+  // each check of the heap usage is a request to the bridge server
+  private static final int HEAP_CHECK_INTERVAL = 10;
+
+  private final BridgeServerPool bridgeServerPool;
+  private int heapWatermark;
+  private int filesSinceHeapCheck;
+  // 0 while the heap usage is below the watermark, then the last step taken to release memory
+  private int releaseStep;
+  // the major garbage collection count of the bridge server when memory was last released
+  private int releaseGcCount;
+  // number of times the bridge server was restarted, losing its programs, which only changes while
+  // holding the restart lock, so that programs created ahead never overlap a restart
+  private int restarts;
+  private final Object restartLock = new Object();
+  private boolean followProjectReferences;
+  @Nullable
+  private ProgramStateCache programStateCache;
+
   public AnalysisWithProgram(
     BridgeServer bridgeServer,
+    BridgeServerPool bridgeServerPool,
     AnalysisProcessor analysisProcessor,
-    AnalysisWarningsWrapper analysisWarnings
+    AnalysisWarningsWrapper analysisWarnings,
+    InputFileIndexProvider inputFileIndexProvider
   ) {
-    super(bridgeServer, analysisProcessor, analysisWarnings);
+    super(bridgeServer, analysisProcessor, analysisWarnings, inputFileIndexProvider);
+    this.bridgeServerPool = bridgeServerPool;
   }
 
   @Override
   void analyzeFiles(List<InputFile> inputFiles, List<String> tsConfigs) throws IOException {
     progressReport = new ProgressReport(PROGRESS_REPORT_TITLE, PROGRESS_REPORT_PERIOD);
     progressReport.start(inputFiles.size(), inputFiles.iterator().next().absolutePath());
+    heapWatermark = contextUtils.heapWatermark();
+    filesSinceHeapCheck = 0;
+    releaseStep = 0;
+    persistenceStage = new PersistenceStage(contextUtils.persistenceThreads());
     boolean success = false;
     try {
-      Deque<String> workList = new ArrayDeque<>(tsConfigs);
-      Set<String> analyzedProjects = new HashSet<>();
-      Set<InputFile> analyzedFiles = new HashSet<>();
-      while (!workList.isEmpty()) {
-        var tsConfig = Path.of(workList.pop()).toString();
-        // Use of path.of as it normalizes Unix and Windows paths. Otherwise, project references returned by typescript may not match system slash
-        if (!analyzedProjects.add(tsConfig)) {
-          LOG.debug("tsconfig.json already analyzed: '{}'. Skipping it.", tsConfig);
-          continue;
-        }
-        PROFILER.startInfo("Creating TypeScript program");
-        LOG.info("TypeScript configuration file " + tsConfig);
-        var program = bridgeServer.createProgram(new TsProgramRequest(tsConfig));
-        if (program.error != null) {
-          LOG.error("Failed to create program: " + program.error);
-          this.analysisWarnings.addUnique(
-              String.format(
-                "Failed to create TypeScript program with TSConfig file %s. Highest TypeScript supported version is %s.",
-                tsConfig,
-                JavaScriptPlugin.TYPESCRIPT_VERSION
-              )
-            );
-          PROFILER.stopInfo();
-          continue;
-        }
-        if (program.missingTsConfig) {
-          String msg =
-            "At least one tsconfig.json was not found in the project. Please run 'npm install' for a more complete analysis. Check analysis logs for more details.";
-          LOG.warn(msg);
-          this.analysisWarnings.addUnique(msg);
-        }
-        PROFILER.stopInfo();
-        analyzeProgram(program, analyzedFiles);
-        workList.addAll(program.projectReferences);
-        bridgeServer.deleteProgram(program);
-      }
-      Set<InputFile> skippedFiles = new HashSet<>(inputFiles);
-      skippedFiles.removeAll(analyzedFiles);
-      if (!skippedFiles.isEmpty()) {
-        // Temporarily we will analyze skipped programs without program,
-        // when this logic moves to Node we will have full analysis also for skipped files
-        LOG.info(
-          "Found {} file(s) not part of any tsconfig.json: they will be analyzed without type information",
-          skippedFiles.size()
-        );
-        for (var f : skippedFiles) {
-          LOG.debug("File not part of any tsconfig.json: {}", f);
-          analyze(f, null);
-        }
+      loadDependencies(inputFiles);
+      if (isLintOnly()) {
+        // no rule would use the programs, files are only parsed
+        analyzeWithRecovery(inputFiles, null, null);
+      } else {
+        analyzeWithPrograms(inputFiles, tsConfigs);
       }
+      persistenceStage.await();
       success = true;
       if (analysisProcessor.parsingErrorFilesCount() > 0) {
         this.analysisWarnings.addUnique(
@@ -122,6 +113,7 @@ public class AnalysisWithProgram extends AbstractAnalysis {
           );
       }
     } finally {
+      persistenceStage.close();
       if (success) {
         progressReport.stop();
       } else {
@@ -130,19 +122,339 @@ public class AnalysisWithProgram extends AbstractAnalysis {
     }
   }
 
-  private void analyzeProgram(TsProgram program, Set<InputFile> analyzedFiles) throws IOException {
-    LOG.info("Starting analysis with current program");
-    var fs = context.fileSystem();
-    var counter = 0;
+  private void analyzeWithPrograms(List<InputFile> inputFiles, List<String> tsConfigs)
+    throws IOException {
+    // planned programs already include the project references worth following
+    followProjectReferences = !contextUtils.planPrograms();
+    programStateCache = contextUtils.cacheProgramState() ? new ProgramStateCache(context) : null;
+    Deque<String> workList = new ArrayDeque<>(
+      followProjectReferences
+        ? tsConfigs
+        : new ProgramPlanner(bridgeServer).plan(tsConfigs, inputFiles)
+    );
+    Set<InputFile> analyzedFiles = new HashSet<>();
+    if (BridgeServerPool.poolSize(context) > 1) {
+      analyzeProgramsInParallel(workList, analyzedFiles);
+    } else {
+      analyzePrograms(workList, analyzedFiles);
+    }
+    if (programStateCache != null) {
+      programStateCache.save();
+    }
+    Set<InputFile> skippedFiles = new HashSet<>(inputFiles);
+    skippedFiles.removeAll(analyzedFiles);
+    var generatedProgramSize = contextUtils.generatedProgramSize();
+    if (!skippedFiles.isEmpty() && generatedProgramSize > 0) {
+      LOG.info(
+        "Found {} file(s) not part of any tsconfig.json: they will be analyzed with generated programs",
+        skippedFiles.size()
+      );
+      analyzeWithGeneratedPrograms(skippedFiles, analyzedFiles, generatedProgramSize);
+      skippedFiles.removeAll(analyzedFiles);
+    }
+    if (!skippedFiles.isEmpty()) {
+      // Temporarily we will analyze skipped programs without program,
+      // when this logic moves to Node we will have full analysis also for skipped files
+      LOG.info(
+        "Found {} file(s) not part of any tsconfig.json: they will be analyzed without type information",
+        skippedFiles.size()
+      );
+      for (var f : skippedFiles) {
+        LOG.debug("File not part of any tsconfig.json: {}", f);
+      }
+      analyzeWithRecovery(new ArrayList<>(skippedFiles), null, null);
+    }
+  }
+
+  /**
+   * Analyzes the programs of the work list one after the other. When programs are created ahead,
+   * the bridge server creates the next programs of the work list on other worker threads while the
+   * files of the current one are analyzed.
+   */
+  private void analyzePrograms(Deque<String> workList, Set<InputFile> analyzedFiles)
+    throws IOException {
+    var lookAhead = contextUtils.programLookAhead();
+    var executor = lookAhead > 0 ? Executors.newSingleThreadExecutor() : null;
+    Deque<ProgramCreation> creations = new ArrayDeque<>();
+    try {
+      Set<String> analyzedProjects = new HashSet<>();
+      while (true) {
+        while (creations.size() <= lookAhead && !workList.isEmpty()) {
+          var tsConfig = Path.of(workList.pop()).toString();
+          // Use of path.of as it normalizes Unix and Windows paths. Otherwise, project references returned by typescript may not match system slash
+          if (!analyzedProjects.add(tsConfig)) {
+            LOG.debug("tsconfig.json already analyzed: '{}'. Skipping it.", tsConfig);
+            continue;
+          }
+          creations.add(new ProgramCreation(tsConfig, executor));
+        }
+        if (creations.isEmpty()) {
+          break;
+        }
+        var tsConfig = creations.peek().tsConfig;
+        PROFILER.startInfo("Creating TypeScript program");
+        LOG.info("TypeScript configuration file " + tsConfig);
+        TsProgram program;
+        try {
+          program = creations.poll().join();
+        } catch (IllegalStateException e) {
+          if (!recover()) {
+            throw e;
+          }
+          LOG.error(
+            "Failed to create TypeScript program of {}, its files are analyzed without type info",
+            tsConfig
+          );
+          continue;
+        } finally {
+          PROFILER.stopInfo();
+        }
+        if (!isValidProgram(program, tsConfig)) {
+          continue;
+        }
+        program = analyzeProgram(tsConfig, program, analyzedFiles);
+        if (followProjectReferences) {
+          workList.addAll(program.projectReferences);
+        }
+        bridgeServer.deleteProgram(program);
+      }
+    } finally {
+      // the programs created ahead are left when the analysis fails, they are deleted from the
+      // bridge server, which outlives the analysis when it is a daemon
+      creations.forEach(ProgramCreation::cancel);
+      for (var creation : creations) {
+        creation.delete();
+      }
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Restarts the bridge server after a failure, see {@link BridgeServer#recover()}
+   */
+  private boolean recover() throws IOException {
+    synchronized (restartLock) {
+      if (!bridgeServer.recover()) {
+        return false;
+      }
+      restarts++;
+      return true;
+    }
+  }
+
+  /**
+   * Restarts the bridge server to release its memory, see {@link BridgeServer#recycle()}
+   */
+  private boolean recycle() throws IOException {
+    synchronized (restartLock) {
+      if (!bridgeServer.recycle()) {
+        return false;
+      }
+      restarts++;
+      return true;
+    }
+  }
+
+  /**
+   * Analyzes the programs of the work list with the bridge servers of the pool. Each program is
+   * created and analyzed by a single server, where it stays until all its files are analyzed.
+   * Programs are created concurrently, while the responses are saved on the sensor thread.
+   */
+  private void analyzeProgramsInParallel(Deque<String> workList, Set<InputFile> analyzedFiles)
+    throws IOException {
+    var servers = bridgeServerPool.servers(context, checks, analysisMode);
+    LOG.info("Analyzing TypeScript programs with {} bridge servers", servers.size());
+    ExecutorService executor = Executors.newFixedThreadPool(servers.size());
+    try {
+      Set<String> analyzedProjects = new HashSet<>();
+      Deque<BridgeServer> idleServers = new ArrayDeque<>(servers);
+      List<ProgramAnalysis> running = new ArrayList<>();
+      while (!workList.isEmpty() || !running.isEmpty()) {
+        while (!idleServers.isEmpty() && !workList.isEmpty()) {
+          var tsConfig = Path.of(workList.pop()).toString();
+          if (!analyzedProjects.add(tsConfig)) {
+            LOG.debug("tsconfig.json already analyzed: '{}'. Skipping it.", tsConfig);
+            continue;
+          }
+          LOG.info("TypeScript configuration file " + tsConfig);
+          running.add(new ProgramAnalysis(idleServers.pop(), tsConfig, executor));
+        }
+        if (running.isEmpty()) {
+          break;
+        }
+        CompletableFuture
+          .anyOf(running.stream().map(ProgramAnalysis::nextEvent).toArray(CompletableFuture[]::new))
+          .handle((result, failure) -> null)
+          .join();
+        for (var iterator = running.iterator(); iterator.hasNext();) {
+          var programAnalysis = iterator.next();
+          programAnalysis.advance(workList, analyzedFiles);
+          if (programAnalysis.isDone()) {
+            iterator.remove();
+            idleServers.add(programAnalysis.server);
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Analyzes the files with programs of generated tsconfig.json files, each one listing the files
+   * of a few neighbouring directories, so that the bridge server parses their shared dependencies
+   * once, and with type information. Files that the programs don't include are left to the caller.
+   */
+  private void analyzeWithGeneratedPrograms(
+    Set<InputFile> files,
+    Set<InputFile> analyzedFiles,
+    int generatedProgramSize
+  ) throws IOException {
+    var partitions = GeneratedTsConfigFileProvider.partitionByDirectory(
+      files,
+      generatedProgramSize
+    );
+    for (var partition : partitions) {
+      partition.removeAll(analyzedFiles);
+      if (partition.isEmpty()) {
+        // already analyzed as dependencies of the files of a previous partition
+        continue;
+      }
+      var tsConfig = GeneratedTsConfigFileProvider.generateTsConfig(
+        partition,
+        content -> bridgeServer.createTsConfigFile(content).filename
+      );
+      if (tsConfig == null) {
+        continue;
+      }
+      LOG.info(
+        "Generated TypeScript configuration file {} for {} file(s)",
+        tsConfig,
+        partition.size()
+      );
+      TsProgram program;
+      try {
+        program = createProgram(bridgeServer, tsConfig);
+      } catch (IllegalStateException e) {
+        if (!recover()) {
+          throw e;
+        }
+        LOG.error(
+          "Failed to create TypeScript program of {}, its files are analyzed without type info",
+          tsConfig
+        );
+        continue;
+      }
+      if (isValidProgram(program, tsConfig)) {
+        program = analyzeProgram(tsConfig, program, analyzedFiles);
+        bridgeServer.deleteProgram(program);
+      }
+    }
+  }
+
+  /**
+   * Creates the program of the tsconfig.json file, seeded with the state of its program in the
+   * previous analysis when cached. The files TypeScript finds affected by the changes since that
+   * state are then analyzed again rather than restored from the cache, even when unchanged.
+   */
+  private TsProgram createProgram(BridgeServer server, String tsConfig) throws IOException {
+    var stateFile = programStateCache != null ? programStateCache.stateFile(tsConfig) : null;
+    var program = server.createProgram(
+      new TsProgramRequest(tsConfig, stateFile != null ? stateFile.toString() : null)
+    );
+    if (program.affectedFiles != null) {
+      program.affectedFiles.stream().map(TsConfigFile::normalizePath).forEach(affectedPaths::add);
+    }
+    return program;
+  }
+
+  private boolean isValidProgram(TsProgram program, String tsConfig) {
+    if (program.error != null) {
+      LOG.error("Failed to create program: " + program.error);
+      this.analysisWarnings.addUnique(
+          String.format(
+            "Failed to create TypeScript program with TSConfig file %s. Highest TypeScript supported version is %s.",
+            tsConfig,
+            JavaScriptPlugin.TYPESCRIPT_VERSION
+          )
+        );
+      return false;
+    }
+    if (program.missingTsConfig) {
+      String msg =
+        "At least one tsconfig.json was not found in the project. Please run 'npm install' for a more complete analysis. Check analysis logs for more details.";
+      LOG.warn(msg);
+      this.analysisWarnings.addUnique(msg);
+    }
+    return true;
+  }
+
+  /**
+   * Checks the heap usage of the bridge server every few files when a watermark is set. Above the
+   * watermark, no more requests are sent until the in-flight ones are saved, and the TypeScript
+   * program is created again to drop what its type checker cached. If the heap usage is still above
+   * the watermark after the next major garbage collection, the bridge server is restarted.
+   *
+   * @return the program to analyze the next files with
+   */
+  @Nullable
+  private TsProgram releaseMemoryIfNeeded(@Nullable TsProgram program, @Nullable String tsConfig)
+    throws IOException {
+    if (heapWatermark == 0 || ++filesSinceHeapCheck < HEAP_CHECK_INTERVAL) {
+      return program;
+    }
+    filesSinceHeapCheck = 0;
+    var usage = bridgeServer.memoryUsage();
+    if (!usage.isAbove(heapWatermark)) {
+      releaseStep = 0;
+      return program;
+    }
+    if (releaseStep > 0 && usage.majorGcCount == releaseGcCount) {
+      // the heap usage is the one from before memory was released
+      return program;
+    }
+    LOG.debug("Heap usage of the bridge server is above {}%: {}", heapWatermark, usage);
+    flushPendingAnalyses();
+    var currentProgram = program;
+    if (releaseStep == 0) {
+      if (currentProgram != null) {
+        bridgeServer.deleteProgram(currentProgram);
+      }
+      bridgeServer.newTsConfig();
+      releaseGcCount = usage.majorGcCount;
+      releaseStep = 1;
+    } else if (releaseStep == 1 && recycle()) {
+      releaseGcCount = 0;
+      releaseStep = 2;
+    } else {
+      LOG.warn(
+        "The heap usage of the bridge server remains above {}% of its limit ({}), " +
+        "consider increasing it with sonar.javascript.node.maxspace",
+        heapWatermark,
+        usage
+      );
+      heapWatermark = 0;
+      return currentProgram;
+    }
+    if (tsConfig != null) {
+      currentProgram = createProgram(bridgeServer, tsConfig);
+    }
+    return currentProgram;
+  }
+
+  private List<InputFile> programInputFiles(TsProgram program, Set<InputFile> analyzedFiles) {
+    var inputFileIndex = inputFileIndex();
+    List<InputFile> inputFiles = new ArrayList<>();
     for (var file : program.files) {
-      var inputFile = fs.inputFile(fs.predicates().hasAbsolutePath(file));
+      var inputFile = inputFileIndex.inputFile(file);
       if (inputFile == null) {
         LOG.debug("File not part of the project: '{}'", file);
         continue;
       }
       if (analyzedFiles.add(inputFile)) {
-        analyze(inputFile, program);
-        counter++;
+        inputFiles.add(inputFile);
       } else {
         LOG.debug(
           "File already analyzed: '{}'. Check your project configuration to avoid files being part of multiple projects.",
@@ -150,49 +462,107 @@ public class AnalysisWithProgram extends AbstractAnalysis {
         );
       }
     }
+    return inputFiles;
+  }
 
-    LOG.info("Analyzed {} file(s) with current program", counter);
+  /**
+   * Analyzes the files of the program and returns the program to delete, which is a new one if the
+   * bridge server was restarted in the meantime.
+   */
+  private TsProgram analyzeProgram(
+    String tsConfig,
+    TsProgram program,
+    Set<InputFile> analyzedFiles
+  ) throws IOException {
+    LOG.info("Starting analysis with current program");
+    var inputFiles = programInputFiles(program, analyzedFiles);
+    var analyzedProgram = analyzeWithRecovery(inputFiles, program, tsConfig);
+    LOG.info("Analyzed {} file(s) with current program", inputFiles.size());
+    return analyzedProgram;
   }
 
-  private void analyze(InputFile file, @Nullable TsProgram tsProgram) throws IOException {
-    if (context.isCancelled()) {
-      throw new CancellationException(
-        "Analysis interrupted because the SensorContext is in cancelled state"
-      );
+  /**
+   * Analyzes the files and saves their responses. If the bridge server crashes or stops responding,
+   * it is restarted when recovery is enabled: the file being analyzed at the time is reported as an
+   * analysis error, the program is created again, and the analysis resumes with the next file.
+   *
+   * @return the program the files were last analyzed with
+   */
+  @Nullable
+  private TsProgram analyzeWithRecovery(
+    List<InputFile> inputFiles,
+    @Nullable TsProgram program,
+    @Nullable String tsConfig
+  ) throws IOException {
+    Deque<InputFile> filesToAnalyze = new ArrayDeque<>(inputFiles);
+    var currentProgram = program;
+    while (true) {
+      try {
+        while (!filesToAnalyze.isEmpty()) {
+          currentProgram = releaseMemoryIfNeeded(currentProgram, tsConfig);
+          analyze(filesToAnalyze.poll(), currentProgram);
+        }
+        flushPendingAnalyses();
+        return currentProgram;
+      } catch (IllegalStateException e) {
+        var crashedFile = failedFile;
+        if (crashedFile == null || !recover()) {
+          throw e;
+        }
+        LOG.error("The bridge server was restarted after failing to analyze " + crashedFile, e);
+        saveCrashedAnalysis(crashedFile);
+        for (int i = droppedFiles.size() - 1; i >= 0; i--) {
+          filesToAnalyze.addFirst(droppedFiles.get(i));
+        }
+        clearFailure();
+        if (tsConfig != null) {
+          currentProgram = createProgram(bridgeServer, tsConfig);
+        }
+      }
     }
-    var cacheStrategy = CacheStrategies.getStrategyFor(context, file);
-    if (cacheStrategy.isAnalysisRequired()) {
+  }
+
+  private void analyze(InputFile file, @Nullable TsProgram tsProgram) throws IOException {
+    var cacheStrategy = prepareAnalysis(file);
+    if (cacheStrategy != null) {
       try {
-        LOG.debug("Analyzing file: {}", file.uri());
-        progressReport.nextFile(file.absolutePath());
-        var fileContent = contextUtils.shouldSendFileContent(file) ? file.contents() : null;
-        var request = getJsAnalysisRequest(file, tsProgram, fileContent);
-
-        var response = isJavaScript(file)
-          ? bridgeServer.analyzeJavaScript(request)
-          : bridgeServer.analyzeTypeScript(request);
-
-        analysisProcessor.processResponse(context, checks, file, response);
-        cacheStrategy.writeAnalysisToCache(
-          CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
-          file
-        );
+        analyzeWithBridge(file, getJsAnalysisRequest(file, tsProgram), cacheStrategy);
       } catch (IOException e) {
         LOG.error("Failed to get response while analyzing " + file, e);
         throw e;
       }
-    } else {
+    }
+  }
+
+  /**
+   * Returns the cache strategy of the file if it must be analyzed by the bridge server, or null
+   * if its analysis was restored from the cache.
+   */
+  @Nullable
+  private CacheStrategy prepareAnalysis(InputFile file) throws IOException {
+    if (context.isCancelled()) {
+      throw new CancellationException(
+        "Analysis interrupted because the SensorContext is in cancelled state"
+      );
+    }
+    var cacheStrategy = cacheStrategyFor(file);
+    if (!cacheStrategy.isAnalysisRequired()) {
       LOG.debug("Processing cache analysis of file: {}", file.uri());
-      var cacheAnalysis = cacheStrategy.readAnalysisFromCache();
-      analysisProcessor.processCacheAnalysis(context, file, cacheAnalysis);
+      cacheStrategy = restoreFromCache(file, cacheStrategy);
     }
+    if (cacheStrategy.isAnalysisRequired()) {
+      LOG.debug("Analyzing file: {}", file.uri());
+      progressReport.nextFile(file.absolutePath());
+      return cacheStrategy;
+    }
+    return null;
   }
 
   private BridgeServer.JsAnalysisRequest getJsAnalysisRequest(
     InputFile file,
-    @Nullable TsProgram tsProgram,
-    @Nullable String fileContent
-  ) {
+    @Nullable TsProgram tsProgram
+  ) throws IOException {
+    var fileContent = contextUtils.shouldSendFileContent(file) ? file.contents() : null;
     return new BridgeServer.JsAnalysisRequest(
       file.absolutePath(),
       file.type().toString(),
@@ -201,7 +571,239 @@ public class AnalysisWithProgram extends AbstractAnalysis {
       contextUtils.ignoreHeaderComments(),
       null,
       tsProgram != null ? tsProgram.programId : null,
-      analysisMode.getLinterIdFor(file)
+      linterIdFor(file)
     );
   }
+
+  /**
+   * The creation of a program by the bridge server, which starts right away when programs are
+   * created ahead, and otherwise once the program is needed. A creation ahead holds the restart
+   * lock, so that the program is known to be lost or not when the bridge server is restarted.
+   */
+  private class ProgramCreation {
+
+    private final String tsConfig;
+    @Nullable
+    private final CompletableFuture<TsProgram> program;
+    // restarts of the bridge server when the program was created ahead
+    private int restartsAtCreation;
+    private volatile boolean cancelled;
+
+    ProgramCreation(String tsConfig, @Nullable ExecutorService executor) {
+      this.tsConfig = tsConfig;
+      this.program =
+        executor == null
+          ? null
+          : CompletableFuture.supplyAsync(
+            () -> {
+              synchronized (restartLock) {
+                if (cancelled) {
+                  return null;
+                }
+                restartsAtCreation = restarts;
+                try {
+                  return createProgram(bridgeServer, tsConfig);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              }
+            },
+            executor
+          );
+    }
+
+    TsProgram join() throws IOException {
+      if (program != null) {
+        try {
+          var createdProgram = program.join();
+          if (isCreatedBySameServer()) {
+            return createdProgram;
+          }
+        } catch (CompletionException e) {
+          if (isCreatedBySameServer()) {
+            throw unwrap(e);
+          }
+        }
+        LOG.debug("Program of {} lost by restarting the bridge server, recreating it", tsConfig);
+      }
+      return createProgram(bridgeServer, tsConfig);
+    }
+
+    /**
+     * Skips the creation ahead of the program if it didn't start yet
+     */
+    void cancel() {
+      cancelled = true;
+    }
+
+    /**
+     * Waits for the creation ahead of the program, and deletes the program unless the bridge server
+     * lost it by restarting. Failures are only logged, as the analysis is failing already.
+     */
+    void delete() {
+      if (program == null) {
+        return;
+      }
+      try {
+        var createdProgram = program.join();
+        if (
+          createdProgram != null && createdProgram.programId != null && isCreatedBySameServer()
+        ) {
+          bridgeServer.deleteProgram(createdProgram);
+        }
+      } catch (IOException | RuntimeException e) {
+        LOG.debug("Failed to delete the program of {} created ahead", tsConfig, e);
+      }
+    }
+
+    private boolean isCreatedBySameServer() {
+      // the restarts only change on the sensor thread, and the creation completed
+      return restartsAtCreation == restarts;
+    }
+
+    /**
+     * Returns the I/O failure of the creation to rethrow, or throws its unchecked failure
+     */
+    private IOException unwrap(CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        return ((UncheckedIOException) e.getCause()).getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Analysis of a single program by one bridge server of the pool. It is advanced on the sensor
+   * thread each time its next awaited event completes: program creation, file analysis responses
+   * and finally program deletion.
+   */
+  private class ProgramAnalysis {
+
+    private final BridgeServer server;
+    private final String tsConfig;
+    private final ExecutorService executor;
+    private final CompletableFuture<TsProgram> program;
+    private final Deque<InputFile> filesToAnalyze = new ArrayDeque<>();
+    private final Deque<PendingAnalysis> pendingAnalyses = new ArrayDeque<>();
+    private final AnalysisBatch batch;
+    private CompletableFuture<Boolean> deletion;
+    private boolean analyzing;
+    private boolean done;
+    private int counter;
+
+    ProgramAnalysis(BridgeServer server, String tsConfig, ExecutorService executor) {
+      this.server = server;
+      this.tsConfig = tsConfig;
+      this.executor = executor;
+      this.batch = new AnalysisBatch(server, batchSize);
+      this.program =
+        CompletableFuture.supplyAsync(
+          () -> {
+            try {
+              return createProgram(server, tsConfig);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          },
+          executor
+        );
+    }
+
+    CompletableFuture<?> nextEvent() {
+      if (deletion != null) {
+        return deletion;
+      } else if (!analyzing) {
+        return program;
+      } else if (!pendingAnalyses.isEmpty()) {
+        return pendingAnalyses.peek().response;
+      }
+      return CompletableFuture.completedFuture(null);
+    }
+
+    boolean isDone() {
+      return done;
+    }
+
+    void advance(Deque<String> workList, Set<InputFile> analyzedFiles) throws IOException {
+      if (deletion != null) {
+        if (deletion.isDone()) {
+          join(deletion);
+          done = true;
+        }
+        return;
+      }
+      if (!analyzing) {
+        if (!program.isDone()) {
+          return;
+        }
+        var createdProgram = join(program);
+        if (!isValidProgram(createdProgram, tsConfig)) {
+          done = true;
+          return;
+        }
+        LOG.info("Starting analysis with program of {}", tsConfig);
+        filesToAnalyze.addAll(programInputFiles(createdProgram, analyzedFiles));
+        analyzing = true;
+      }
+      while (!pendingAnalyses.isEmpty() && pendingAnalyses.peek().response.isDone()) {
+        savePendingAnalysis(pendingAnalyses.poll());
+      }
+      while (pendingAnalyses.size() < maxPendingAnalyses() && !filesToAnalyze.isEmpty()) {
+        analyze(filesToAnalyze.poll());
+      }
+      if (filesToAnalyze.isEmpty() && !batch.isEmpty()) {
+        pendingAnalyses.addAll(batch.send());
+      }
+      if (pendingAnalyses.isEmpty() && filesToAnalyze.isEmpty()) {
+        LOG.info("Analyzed {} file(s) with program of {}", counter, tsConfig);
+        var createdProgram = program.join();
+        if (followProjectReferences) {
+          workList.addAll(createdProgram.projectReferences);
+        }
+        deletion =
+          CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return server.deleteProgram(createdProgram);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            },
+            executor
+          );
+      }
+    }
+
+    private void analyze(InputFile file) throws IOException {
+      var cacheStrategy = prepareAnalysis(file);
+      if (cacheStrategy != null) {
+        var request = getJsAnalysisRequest(file, program.join());
+        if (batchSize > 1) {
+          batch.add(file, cacheStrategy, batchedRequest(file, request));
+          if (batch.isFull()) {
+            pendingAnalyses.addAll(batch.send());
+          }
+        } else {
+          var response = isJavaScript(file)
+            ? server.analyzeJavaScriptAsync(request)
+            : server.analyzeTypeScriptAsync(request);
+          pendingAnalyses.add(new PendingAnalysis(file, cacheStrategy, response));
+        }
+      }
+      counter++;
+    }
+
+    private <T> T join(CompletableFuture<T> future) throws IOException {
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) e.getCause()).getCause();
+        }
+        throw e;
+      }
+    }
+  }
 }
@@ -34,8 +34,7 @@ import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.CancellationException;
-import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
-import org.sonar.plugins.javascript.bridge.cache.CacheStrategies;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 
@@ -48,9 +47,10 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
   public AnalysisWithWatchProgram(
     BridgeServer bridgeServer,
     AnalysisProcessor analysisProcessor,
-    AnalysisWarningsWrapper analysisWarnings
+    AnalysisWarningsWrapper analysisWarnings,
+    InputFileIndexProvider inputFileIndexProvider
   ) {
-    super(bridgeServer, analysisProcessor, analysisWarnings);
+    super(bridgeServer, analysisProcessor, analysisWarnings, inputFileIndexProvider);
   }
 
   @Override
@@ -62,6 +62,8 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
       inputFiles
     );
     try {
+      persistenceStage = new PersistenceStage(contextUtils.persistenceThreads());
+      loadDependencies(inputFiles);
       progressReport.start(inputFiles.size(), inputFiles.iterator().next().absolutePath());
       if (tsConfigs.isEmpty()) {
         LOG.info("Analyzing {} files without tsconfig", inputFiles.size());
@@ -81,6 +83,7 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
           bridgeServer.newTsConfig();
         }
       }
+      persistenceStage.await();
       success = true;
       if (analysisProcessor.parsingErrorFilesCount() > 0) {
         this.analysisWarnings.addUnique(
@@ -91,6 +94,7 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
           );
       }
     } finally {
+      persistenceStage.close();
       if (success) {
         progressReport.stop();
       } else {
@@ -128,10 +132,15 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
       analyze(inputFile, tsConfigFile);
       progressReport.nextFile(inputFile.absolutePath());
     }
+    flushPendingAnalyses();
   }
 
   private void analyze(InputFile file, @Nullable TsConfigFile tsConfigFile) throws IOException {
-    var cacheStrategy = CacheStrategies.getStrategyFor(context, file);
+    var cacheStrategy = cacheStrategyFor(file);
+    if (!cacheStrategy.isAnalysisRequired()) {
+      LOG.debug("Processing cache analysis of file: {}", file.uri());
+      cacheStrategy = restoreFromCache(file, cacheStrategy);
+    }
     if (cacheStrategy.isAnalysisRequired()) {
       try {
         LOG.debug("Analyzing file: " + file.uri());
@@ -147,24 +156,13 @@ public class AnalysisWithWatchProgram extends AbstractAnalysis {
           contextUtils.ignoreHeaderComments(),
           tsConfigs,
           null,
-          analysisMode.getLinterIdFor(file)
-        );
-        var response = isJavaScript(file)
-          ? bridgeServer.analyzeJavaScript(request)
-          : bridgeServer.analyzeTypeScript(request);
-        analysisProcessor.processResponse(context, checks, file, response);
-        cacheStrategy.writeAnalysisToCache(
-          CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
-          file
+          linterIdFor(file)
         );
+        analyzeWithBridge(file, request, cacheStrategy);
       } catch (IOException e) {
         LOG.error("Failed to get response while analyzing " + file.uri(), e);
         throw e;
       }
-    } else {
-      LOG.debug("Processing cache analysis of file: {}", file.uri());
-      var cacheAnalysis = cacheStrategy.readAnalysisFromCache();
-      analysisProcessor.processCacheAnalysis(context, file, cacheAnalysis);
     }
   }
 }
@@ -0,0 +1,187 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+import org.sonar.plugins.javascript.bridge.BridgeServer.Metrics;
+import org.sonar.plugins.javascript.bridge.cache.VarLengthInputStream;
+
+/**
+ * Reads analysis responses encoded by the bridge in its binary format, see
+ * {@code packages/bridge/src/binary.ts} for the layout.
+ */
+class BinaryResponseDeserializer {
+
+  static final String CONTENT_TYPE = "application/x-sonarjs-analysis";
+  private static final int FORMAT_VERSION = 1;
+  private static final Gson GSON = new Gson();
+
+  private final VarLengthInputStream in;
+  private String[] strings;
+  // coordinates of the last location read: start line, start column, end line and end column
+  private final int[] location = new int[4];
+
+  private BinaryResponseDeserializer(InputStream input) {
+    in = new VarLengthInputStream(input);
+  }
+
+  static AnalysisResponse fromBinary(InputStream input) throws IOException {
+    try (input) {
+      return readResponse(input);
+    }
+  }
+
+  /**
+   * Reads a single response and leaves the stream open, as the responses of a batch are sent
+   * one after the other on the same stream.
+   */
+  static AnalysisResponse readResponse(InputStream input) throws IOException {
+    var deserializer = new BinaryResponseDeserializer(input);
+    return deserializer.convert();
+  }
+
+  private AnalysisResponse convert() throws IOException {
+    var version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported analysis response format version " + version);
+    }
+    readStringTable();
+
+    var response = GSON.fromJson(in.readUTF(), AnalysisResponse.class);
+    if (in.readInt() != 0) {
+      response.metrics = readMetrics();
+    }
+    response.highlights = readHighlights();
+    response.highlightedSymbols = readHighlightedSymbols();
+    response.cpdTokens = readCpdTokens();
+
+    if (!"END".equals(in.readUTF())) {
+      throw new IOException("Can't read analysis response, format corrupted");
+    }
+    return response;
+  }
+
+  private void readStringTable() throws IOException {
+    strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = in.readUTF();
+    }
+  }
+
+  private Metrics readMetrics() throws IOException {
+    var metrics = new Metrics();
+    metrics.ncloc = readLines();
+    metrics.commentLines = readLines();
+    metrics.nosonarLines = readLines();
+    metrics.executableLines = readLines();
+    metrics.functions = in.readInt();
+    metrics.statements = in.readInt();
+    metrics.classes = in.readInt();
+    metrics.complexity = in.readInt();
+    metrics.cognitiveComplexity = in.readInt();
+    return metrics;
+  }
+
+  private int[] readLines() throws IOException {
+    var lines = new int[in.readInt()];
+    var previous = 0;
+    for (int i = 0; i < lines.length; i++) {
+      previous += readSignedInt();
+      lines[i] = previous;
+    }
+    return lines;
+  }
+
+  private Highlights readHighlights() throws IOException {
+    resetLocations();
+    var highlights = Highlights.builder();
+    var size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      var textType = readString();
+      readLocation();
+      highlights.add(location[0], location[1], location[2], location[3], textType);
+    }
+    return highlights.build();
+  }
+
+  private HighlightedSymbols readHighlightedSymbols() throws IOException {
+    resetLocations();
+    var symbols = HighlightedSymbols.builder();
+    var size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      readLocation();
+      symbols.addSymbol(location[0], location[1], location[2], location[3]);
+      var references = in.readInt();
+      for (int j = 0; j < references; j++) {
+        readLocation();
+        symbols.addReference(location[0], location[1], location[2], location[3]);
+      }
+    }
+    return symbols.build();
+  }
+
+  private CpdTokens readCpdTokens() throws IOException {
+    resetLocations();
+    var cpdTokens = CpdTokens.builder();
+    var size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      var image = readString();
+      readLocation();
+      cpdTokens.add(location[0], location[1], location[2], location[3], image);
+    }
+    return cpdTokens.build();
+  }
+
+  private void resetLocations() {
+    location[0] = 0;
+    location[1] = 0;
+  }
+
+  /**
+   * Locations are encoded relatively to the start of the previous location of the same section.
+   */
+  private void readLocation() throws IOException {
+    var lineDelta = readSignedInt();
+    var startLine = location[0] + lineDelta;
+    var startCol = readSignedInt() + (lineDelta == 0 ? location[1] : 0);
+    var endLine = startLine + readSignedInt();
+    var endCol = readSignedInt() + (endLine == startLine ? startCol : 0);
+    location[0] = startLine;
+    location[1] = startCol;
+    location[2] = endLine;
+    location[3] = endCol;
+  }
+
+  private String readString() throws IOException {
+    var index = in.readInt();
+    if (index < 0 || index >= strings.length) {
+      throw new IOException("Can't read analysis response, format corrupted");
+    }
+    return strings[index];
+  }
+
+  private int readSignedInt() throws IOException {
+    var value = in.readInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
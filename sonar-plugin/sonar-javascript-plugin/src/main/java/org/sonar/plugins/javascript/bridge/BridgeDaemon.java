@@ -0,0 +1,143 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+/**
+ * Bridge server kept running by the analysis which started it, for the next analyses on the host.
+ * <p>
+ * The daemon is described by a lease file in the sonar user home, which records its port along
+ * with the versions of the plugin and of the bridge bundle it runs, and the configuration it was
+ * started with. Only analyses with the same versions and configuration attach to it. An analysis
+ * owns the daemon as long as it holds the lock of the lease, concurrent analyses start their own
+ * bridge server rather than sharing linters with it.
+ */
+class BridgeDaemon implements Closeable {
+
+  private static final Logger LOG = Loggers.get(BridgeDaemon.class);
+
+  private static final Gson GSON = new Gson();
+  private static final Path DAEMON_LOCATION = Path.of("js", "bridge-daemon");
+
+  private final Path leaseFile;
+  private final FileChannel channel;
+  private final FileLock lock;
+
+  private BridgeDaemon(Path leaseFile, FileChannel channel, FileLock lock) {
+    this.leaseFile = leaseFile;
+    this.channel = channel;
+    this.lock = lock;
+  }
+
+  /**
+   * Takes the ownership of the daemon until closed, returns empty if another analysis owns it.
+   */
+  static Optional<BridgeDaemon> acquire(Path sonarUserHome) throws IOException {
+    var location = sonarUserHome.resolve(DAEMON_LOCATION);
+    Files.createDirectories(location);
+    var channel = FileChannel.open(location.resolve("lease.lock"), CREATE, WRITE);
+    try {
+      var lock = channel.tryLock();
+      if (lock != null) {
+        return Optional.of(new BridgeDaemon(location.resolve("lease.json"), channel, lock));
+      }
+    } catch (OverlappingFileLockException e) {
+      // the lock is held by another bridge server of this analysis
+    }
+    channel.close();
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the port of the daemon if it runs the given versions with the given configuration.
+   * The daemon may have shut down since, which is up to the caller to check.
+   */
+  OptionalInt port(String pluginVersion, String bundleHash, String configuration) {
+    if (!Files.exists(leaseFile)) {
+      return OptionalInt.empty();
+    }
+    try {
+      var lease = GSON.fromJson(Files.readString(leaseFile), Lease.class);
+      if (
+        lease != null &&
+        Objects.equals(pluginVersion, lease.pluginVersion) &&
+        Objects.equals(bundleHash, lease.bundleHash) &&
+        Objects.equals(configuration, lease.configuration)
+      ) {
+        return OptionalInt.of(lease.port);
+      }
+      LOG.debug("The bridge server daemon runs another version or configuration");
+    } catch (IOException | JsonParseException e) {
+      LOG.debug("Failed to read the bridge server daemon lease " + leaseFile, e);
+    }
+    return OptionalInt.empty();
+  }
+
+  /**
+   * Records the bridge server started by the owner of the lease as the daemon of the host.
+   */
+  void record(int port, String pluginVersion, String bundleHash, String configuration)
+    throws IOException {
+    var lease = new Lease(port, pluginVersion, bundleHash, configuration);
+    Files.writeString(leaseFile, GSON.toJson(lease));
+  }
+
+  @Override
+  public void close() {
+    try {
+      lock.release();
+      channel.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to release the bridge server daemon lease " + leaseFile, e);
+    }
+  }
+
+  static class Lease {
+
+    final int port;
+    final String pluginVersion;
+    final String bundleHash;
+    final String configuration;
+
+    Lease(int port, String pluginVersion, String bundleHash, String configuration) {
+      this.port = port;
+      this.pluginVersion = pluginVersion;
+      this.bundleHash = bundleHash;
+      this.configuration = configuration;
+    }
+  }
+}
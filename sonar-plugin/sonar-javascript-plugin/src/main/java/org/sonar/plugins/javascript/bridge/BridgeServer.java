@@ -23,10 +23,9 @@ import static org.sonarsource.api.sonarlint.SonarLintSide.MULTIPLE_ANALYSES;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nullable;
 import org.sonar.api.Startable;
-import org.sonar.api.batch.fs.InputFile;
-import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.css.StylelintRule;
@@ -50,6 +49,21 @@ public interface BridgeServer extends Startable {
 
   AnalysisResponse analyzeTypeScript(JsAnalysisRequest request) throws IOException;
 
+  /**
+   * Sends the analysis request without waiting for the response. The call blocks only while
+   * the maximum number of in-flight requests is reached.
+   */
+  CompletableFuture<AnalysisResponse> analyzeJavaScriptAsync(JsAnalysisRequest request);
+
+  CompletableFuture<AnalysisResponse> analyzeTypeScriptAsync(JsAnalysisRequest request);
+
+  /**
+   * Sends the analysis requests of several files in a single request. The returned futures follow
+   * the order of the requests, each one completing as soon as the bridge server streams back the
+   * response of its file.
+   */
+  List<CompletableFuture<AnalysisResponse>> analyzeBatch(List<BatchedRequest> requests);
+
   AnalysisResponse analyzeCss(CssAnalysisRequest request) throws IOException;
 
   AnalysisResponse analyzeYaml(JsAnalysisRequest request) throws IOException;
@@ -62,6 +76,27 @@ public interface BridgeServer extends Startable {
 
   boolean isAlive();
 
+  /**
+   * Restarts the bridge server after its process died or stopped responding, and initializes its
+   * linters again. The programs created before are lost. Returns false, without restarting, if
+   * recovery is not enabled or if the bridge server was already restarted too many times.
+   */
+  boolean recover() throws IOException;
+
+  /**
+   * Returns the heap usage of the thread analyzing the files in the bridge server, as of its last
+   * major garbage collection.
+   */
+  MemoryUsage memoryUsage() throws IOException;
+
+  /**
+   * Restarts the bridge server to release its memory, and initializes its linters again. The
+   * programs created before are lost. Unlike {@link #recover()}, it is meant to be called between
+   * two files, when the bridge server is still responding. Returns false, without restarting, if
+   * the bridge server was not started by the plugin.
+   */
+  boolean recycle() throws IOException;
+
   boolean newTsConfig();
 
   TsConfigFile loadTsConfig(String tsConfigAbsolutePath);
@@ -104,6 +139,24 @@ public interface BridgeServer extends Startable {
     }
   }
 
+  enum BatchedAnalysis {
+    JS,
+    TS,
+    HTML,
+    YAML,
+  }
+
+  class BatchedRequest {
+
+    final BatchedAnalysis type;
+    final JsAnalysisRequest input;
+
+    BatchedRequest(BatchedAnalysis type, JsAnalysisRequest input) {
+      this.type = type;
+      this.input = input;
+    }
+  }
+
   class CssAnalysisRequest {
 
     final String filePath;
@@ -121,12 +174,13 @@ public interface BridgeServer extends Startable {
 
     ParsingError parsingError;
     List<Issue> issues = List.of();
-    Highlight[] highlights = {};
-    HighlightedSymbol[] highlightedSymbols = {};
+    Highlights highlights = Highlights.EMPTY;
+    HighlightedSymbols highlightedSymbols = HighlightedSymbols.EMPTY;
     Metrics metrics = new Metrics();
-    CpdToken[] cpdTokens = {};
+    CpdTokens cpdTokens = CpdTokens.EMPTY;
     Perf perf;
     List<String> ucfgPaths = List.of();
+    List<String> dependencies = List.of();
   }
 
   class ParsingError {
@@ -176,62 +230,6 @@ public interface BridgeServer extends Startable {
     String message;
   }
 
-  class Highlight {
-
-    Location location;
-    String textType;
-  }
-
-  class HighlightedSymbol {
-
-    Location declaration;
-    Location[] references;
-  }
-
-  class Location {
-
-    int startLine;
-    int startCol;
-    int endLine;
-    int endCol;
-
-    public int getStartLine() {
-      return startLine;
-    }
-
-    public int getStartCol() {
-      return startCol;
-    }
-
-    public int getEndLine() {
-      return endLine;
-    }
-
-    public int getEndCol() {
-      return endCol;
-    }
-
-    public void setStartLine(int startLine) {
-      this.startLine = startLine;
-    }
-
-    public void setStartCol(int startCol) {
-      this.startCol = startCol;
-    }
-
-    public void setEndLine(int endLine) {
-      this.endLine = endLine;
-    }
-
-    public void setEndCol(int endCol) {
-      this.endCol = endCol;
-    }
-
-    TextRange toTextRange(InputFile inputFile) {
-      return inputFile.newRange(this.startLine, this.startCol, this.endLine, this.endCol);
-    }
-  }
-
   class Metrics {
 
     int[] ncloc = {};
@@ -245,28 +243,6 @@ public interface BridgeServer extends Startable {
     int cognitiveComplexity;
   }
 
-  class CpdToken {
-
-    Location location;
-    String image;
-
-    public void setLocation(Location location) {
-      this.location = location;
-    }
-
-    public void setImage(String image) {
-      this.image = image;
-    }
-
-    public Location getLocation() {
-      return location;
-    }
-
-    public String getImage() {
-      return image;
-    }
-  }
-
   class Perf {
 
     int parseTime;
@@ -293,6 +269,34 @@ public interface BridgeServer extends Startable {
     }
   }
 
+  class MemoryUsage {
+
+    /** In MB */
+    final long usedHeapSize;
+    /** In MB */
+    final long heapSizeLimit;
+    /** Number of major garbage collections since the bridge server started */
+    final int majorGcCount;
+
+    MemoryUsage(long usedHeapSize, long heapSizeLimit, int majorGcCount) {
+      this.usedHeapSize = usedHeapSize;
+      this.heapSizeLimit = heapSizeLimit;
+      this.majorGcCount = majorGcCount;
+    }
+
+    /**
+     * Returns whether the used heap is above the given percentage of the heap size limit
+     */
+    boolean isAbove(int percentage) {
+      return heapSizeLimit > 0 && usedHeapSize * 100 > heapSizeLimit * percentage;
+    }
+
+    @Override
+    public String toString() {
+      return usedHeapSize + " MB used out of " + heapSizeLimit + " MB";
+    }
+  }
+
   class TsProgram {
 
     final String programId;
@@ -300,6 +304,9 @@ public interface BridgeServer extends Startable {
     final List<String> projectReferences;
     final String error;
     final boolean missingTsConfig;
+    // files affected by the changes since the state the program was seeded with, if any
+    @Nullable
+    final List<String> affectedFiles;
 
     TsProgram(
       @Nullable String programId,
@@ -313,6 +320,7 @@ public interface BridgeServer extends Startable {
       this.projectReferences = projectReferences;
       this.missingTsConfig = missingTsConfig;
       this.error = error;
+      this.affectedFiles = null;
     }
 
     TsProgram(
@@ -360,8 +368,16 @@ public interface BridgeServer extends Startable {
 
     final String tsConfig;
 
+    @Nullable
+    final String tsBuildInfo;
+
     public TsProgramRequest(String tsConfig) {
+      this(tsConfig, null);
+    }
+
+    public TsProgramRequest(String tsConfig, @Nullable String tsBuildInfo) {
       this.tsConfig = tsConfig;
+      this.tsBuildInfo = tsBuildInfo;
     }
   }
 }
@@ -23,31 +23,51 @@ import static java.util.Collections.emptyList;
 import static org.sonar.plugins.javascript.bridge.NetUtils.findOpenPort;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.sensor.SensorContext;
-import org.sonar.api.utils.TempFolder;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.api.utils.log.Profiler;
@@ -71,26 +91,49 @@ public class BridgeServerImpl implements BridgeServer {
   private static final String MAX_OLD_SPACE_SIZE_PROPERTY = "sonar.javascript.node.maxspace";
   private static final String ALLOW_TS_PARSER_JS_FILES = "sonar.javascript.allowTsParserJsFiles";
   private static final String DEBUG_MEMORY = "sonar.javascript.node.debugMemory";
+  // internal property to talk to the Node process over a Unix domain socket instead of TCP
+  static final String UNIX_SOCKET_PROPERTY = "sonar.javascript.bridge.unixSocket";
+  // leaves room below the 104 bytes limit of macOS, Linux allows 108 bytes
+  private static final int MAX_UNIX_SOCKET_PATH_LENGTH = 100;
+  // internal properties to keep the Node process running for the next analyses on the host
+  static final String DAEMON_PROPERTY = "sonar.javascript.bridge.daemon";
+  static final String DAEMON_IDLE_TIMEOUT_PROPERTY = "sonar.javascript.bridge.daemonIdleTimeout";
+  private static final int DAEMON_IDLE_TIMEOUT_DEFAULT_SECONDS = 10 * 60;
+  static final String RECOVERY_PROPERTY = "sonar.javascript.bridge.recovery";
+  private static final int MAX_RECOVERIES = 5;
   public static final String SONARJS_EXISTING_NODE_PROCESS_PORT =
     "SONARJS_EXISTING_NODE_PROCESS_PORT";
   private static final Gson GSON = new Gson();
-  private static final String BRIDGE_DEPLOY_LOCATION = "bridge-bundle";
+  // the bridge server is deployed in the sonar user home to be reused across analyses
+  private static final Path BRIDGE_DEPLOY_LOCATION = Path.of("js", "bridge-bundle");
 
-  private final HttpClient client;
+  // the client, port and status change with restarts while other threads may send requests
+  private volatile HttpClient client;
   private final NodeCommandBuilder nodeCommandBuilder;
   private final int timeoutSeconds;
   private final Bundle bundle;
   private final String hostAddress;
-  private int port;
+  private volatile int port;
+  private Path socketPath;
+  private BridgeDaemon daemon;
   private NodeCommand nodeCommand;
-  private Status status = Status.NOT_STARTED;
+  private LogOutputConsumer outputConsumer;
+  private SensorContext serverContext;
+  private List<Path> deployedBundles = List.of();
+  private final Map<String, String> initLinterRequests = new LinkedHashMap<>();
+  private int recoveries;
+  private volatile Status status = Status.NOT_STARTED;
   private final RulesBundles rulesBundles;
   private final NodeDeprecationWarning deprecationWarning;
-  private final Path temporaryDeployLocation;
+  private final Path deployLocation;
+  private final Path sonarUserHome;
   private final EmbeddedNode embeddedNode;
   private static final int HEARTBEAT_INTERVAL_SECONDS = 5;
   private final ScheduledExecutorService heartbeatService;
   private ScheduledFuture<?> heartbeatFuture;
+  private Semaphore inFlightRequests = new Semaphore(
+    ContextUtils.MAX_IN_FLIGHT_REQUESTS_DEFAULT_VALUE
+  );
 
   // Used by pico container for dependency injection
   public BridgeServerImpl(
@@ -98,7 +141,7 @@ public class BridgeServerImpl implements BridgeServer {
     Bundle bundle,
     RulesBundles rulesBundles,
     NodeDeprecationWarning deprecationWarning,
-    TempFolder tempFolder,
+    Environment environment,
     EmbeddedNode embeddedNode
   ) {
     this(
@@ -107,7 +150,7 @@ public class BridgeServerImpl implements BridgeServer {
       bundle,
       rulesBundles,
       deprecationWarning,
-      tempFolder,
+      environment,
       embeddedNode
     );
   }
@@ -118,22 +161,26 @@ public class BridgeServerImpl implements BridgeServer {
     Bundle bundle,
     RulesBundles rulesBundles,
     NodeDeprecationWarning deprecationWarning,
-    TempFolder tempFolder,
+    Environment environment,
     EmbeddedNode embeddedNode
   ) {
     this.nodeCommandBuilder = nodeCommandBuilder;
     this.timeoutSeconds = timeoutSeconds;
     this.bundle = bundle;
-    this.client =
-      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(timeoutSeconds)).build();
+    this.client = tcpClient(timeoutSeconds);
     this.rulesBundles = rulesBundles;
     this.deprecationWarning = deprecationWarning;
     this.hostAddress = InetAddress.getLoopbackAddress().getHostAddress();
-    this.temporaryDeployLocation = tempFolder.newDir(BRIDGE_DEPLOY_LOCATION).toPath();
+    this.sonarUserHome = environment.getSonarUserHome();
+    this.deployLocation = sonarUserHome.resolve(BRIDGE_DEPLOY_LOCATION);
     this.heartbeatService = Executors.newSingleThreadScheduledExecutor();
     this.embeddedNode = embeddedNode;
   }
 
+  private static HttpClient tcpClient(int timeoutSeconds) {
+    return HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(timeoutSeconds)).build();
+  }
+
   void heartbeat() {
     LOG.trace("Pinging the bridge server");
     isAlive();
@@ -158,18 +205,51 @@ public class BridgeServerImpl implements BridgeServer {
   }
 
   /**
-   * Extracts the bridge files and node.js runtime (if included)
+   * Extracts the bridge files, the rule bundles and node.js runtime (if included). The bridge files
+   * and the rule bundles, which are deployed next to them, are extracted in the background while
+   * the runtime is extracted and its version checked. Extracted archives are reused across analyses.
    *
+   * @return the paths of the deployed rule bundles
    * @throws IOException
    */
-  void deploy() throws IOException {
-    bundle.deploy(temporaryDeployLocation);
-    embeddedNode.deploy();
+  List<Path> deploy() throws IOException {
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      var bundlesDeployment = CompletableFuture
+        .runAsync(this::deployBundle, executor)
+        .thenApply(v -> rulesBundles.deploy(Path.of(bundle.resolve("package"))));
+      embeddedNode.deploy();
+      return bundlesDeployment.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void deployBundle() {
+    try {
+      bundle.deploy(deployLocation);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   void startServer(SensorContext context, List<Path> deployedBundles) throws IOException {
     PROFILER.startDebug("Starting server");
-    port = findOpenPort();
+    closeUnixSocketClient();
+    // the socket file lives in the work directory of the analysis, which a daemon outlives
+    socketPath = daemon == null ? unixSocketPath(context) : null;
+    if (socketPath == null) {
+      port = findOpenPort();
+    } else {
+      client = new UnixDomainSocketHttpClient(socketPath, Duration.ofSeconds(timeoutSeconds));
+    }
 
     File scriptFile = new File(bundle.startServerScript());
     if (!scriptFile.exists()) {
@@ -178,11 +258,16 @@ public class BridgeServerImpl implements BridgeServer {
       );
     }
 
-    LOG.debug("Creating Node.js process to start the bridge server on port " + port);
+    if (socketPath == null) {
+      LOG.debug("Creating Node.js process to start the bridge server on port " + port);
+    } else {
+      LOG.debug("Creating Node.js process to start the bridge server on socket " + socketPath);
+    }
     String bundles = deployedBundles
       .stream()
       .map(Path::toString)
       .collect(Collectors.joining(File.pathSeparator));
+    outputConsumer = new LogOutputConsumer();
     nodeCommand = initNodeCommand(context, scriptFile, bundles);
     nodeCommand.start();
 
@@ -198,21 +283,41 @@ public class BridgeServerImpl implements BridgeServer {
     deprecationWarning.logNodeDeprecation(nodeCommand.getActualNodeVersion().major());
   }
 
+  /**
+   * Returns the path of the Unix domain socket the bridge server should listen to, or null to use
+   * TCP. The socket is only used when enabled, outside Windows, and if the path of the work
+   * directory is short enough for a socket.
+   */
+  @Nullable
+  private static Path unixSocketPath(SensorContext context) throws IOException {
+    if (!context.config().getBoolean(UNIX_SOCKET_PROPERTY).orElse(false)) {
+      return null;
+    }
+    if (System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows")) {
+      LOG.debug("Unix domain sockets are not used on Windows, using TCP instead");
+      return null;
+    }
+    var workDir = context.fileSystem().workDir().toPath();
+    Files.createDirectories(workDir);
+    var path = Files.createTempFile(workDir, "bridge-", ".sock");
+    Files.delete(path);
+    if (path.toString().getBytes(StandardCharsets.UTF_8).length > MAX_UNIX_SOCKET_PATH_LENGTH) {
+      LOG.debug("Path {} is too long for a Unix domain socket, using TCP instead", path);
+      return null;
+    }
+    return path;
+  }
+
+  /**
+   * Waits for the bridge server to print its readiness handshake on the standard output.
+   */
   boolean waitServerToStart(int timeoutMs) {
-    int sleepStep = 100;
-    long start = System.currentTimeMillis();
     try {
-      Thread.sleep(sleepStep);
-      while (!isAlive()) {
-        if (System.currentTimeMillis() - start > timeoutMs) {
-          return false;
-        }
-        Thread.sleep(sleepStep);
-      }
+      return outputConsumer.awaitReady(timeoutMs);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
+      return false;
     }
-    return true;
   }
 
   private NodeCommand initNodeCommand(SensorContext context, File scriptFile, String bundles)
@@ -226,16 +331,9 @@ public class BridgeServerImpl implements BridgeServer {
     }
     var debugMemory = config.getBoolean(DEBUG_MEMORY).orElse(false);
 
-    nodeCommandBuilder
-      .outputConsumer(new LogOutputConsumer())
-      .errorConsumer(LOG::error)
-      .embeddedNode(embeddedNode)
-      .pathResolver(bundle)
-      .minNodeVersion(NodeDeprecationWarning.MIN_SUPPORTED_NODE_VERSION)
-      .configuration(context.config())
-      .script(scriptFile.getAbsolutePath())
-      .scriptArgs(
-        String.valueOf(port),
+    var scriptArgs = new ArrayList<>(
+      List.of(
+        socketPath == null ? String.valueOf(port) : socketPath.toString(),
         hostAddress,
         workdir,
         String.valueOf(allowTsParserJsFiles),
@@ -243,6 +341,23 @@ public class BridgeServerImpl implements BridgeServer {
         String.valueOf(debugMemory),
         bundles
       )
+    );
+    scriptArgs.add(
+      daemon == null
+        ? "0"
+        : String.valueOf(TimeUnit.SECONDS.toMillis(daemonIdleTimeoutSeconds(context)))
+    );
+    scriptArgs.add(String.valueOf(workerCount(context)));
+
+    nodeCommandBuilder
+      .outputConsumer(outputConsumer)
+      .errorConsumer(LOG::error)
+      .embeddedNode(embeddedNode)
+      .pathResolver(bundle)
+      .minNodeVersion(NodeDeprecationWarning.MIN_SUPPORTED_NODE_VERSION)
+      .configuration(context.config())
+      .script(scriptFile.getAbsolutePath())
+      .scriptArgs(scriptArgs.toArray(String[]::new))
       .env(getEnv());
 
     context
@@ -269,6 +384,7 @@ public class BridgeServerImpl implements BridgeServer {
       // required for SonarLint context to avoid restarting already failed server
       throw new ServerAlreadyFailedException();
     }
+    inFlightRequests = new Semaphore(new ContextUtils(context).maxInFlightRequests());
     var providedPort = nodeAlreadyRunningPort();
     // if SONARJS_EXISTING_NODE_PROCESS_PORT is set, use existing node process
     if (providedPort != 0) {
@@ -285,18 +401,97 @@ public class BridgeServerImpl implements BridgeServer {
         status = Status.FAILED;
         throw new ServerAlreadyFailedException();
       }
-      deploy();
-      List<Path> deployedBundles = rulesBundles.deploy(temporaryDeployLocation.resolve("package"));
+      serverContext = context;
+      recoveries = 0;
+      initLinterRequests.clear();
+      deployedBundles = deploy();
       rulesBundles
         .getUcfgRulesBundle()
         .ifPresent(rulesBundle -> PluginInfo.setUcfgPluginVersion(rulesBundle.bundleVersion()));
-      startServer(context, deployedBundles);
+      if (!startDaemon(context, deployedBundles)) {
+        startServer(context, deployedBundles);
+      }
     } catch (NodeCommandException e) {
       status = Status.FAILED;
       throw e;
     }
   }
 
+  /**
+   * Attaches to the bridge server daemon of the host if it runs the same versions and configuration,
+   * otherwise starts a bridge server which becomes the daemon and keeps running after the analysis
+   * until it gets no requests for the idle timeout. Returns false when the daemon is not enabled or
+   * can't be used, in which case a bridge server dedicated to the analysis should be started.
+   */
+  private boolean startDaemon(SensorContext context, List<Path> deployedBundles)
+    throws IOException {
+    if (!context.config().getBoolean(DAEMON_PROPERTY).orElse(false)) {
+      return false;
+    }
+    if (!deployedBundles.isEmpty()) {
+      // custom rules may depend on the work directory of the analysis which started the daemon
+      LOG.debug("The bridge server daemon is not used with custom rules bundles");
+      return false;
+    }
+    var lease = BridgeDaemon.acquire(sonarUserHome);
+    if (lease.isEmpty()) {
+      LOG.debug("The bridge server daemon is used by another analysis");
+      return false;
+    }
+    daemon = lease.get();
+    var pluginVersion = PluginInfo.getVersion();
+    var configuration = daemonConfiguration(context);
+    var daemonPort = daemon.port(pluginVersion, bundle.hash(), configuration);
+    if (daemonPort.isPresent()) {
+      port = daemonPort.getAsInt();
+      status = Status.STARTED;
+      if (isAlive()) {
+        serverHasStarted();
+        LOG.info("Using the bridge server daemon on port " + port);
+        return true;
+      }
+      status = Status.NOT_STARTED;
+      LOG.debug("The bridge server daemon on port {} is not running anymore", port);
+    }
+    startServer(context, deployedBundles);
+    daemon.record(port, pluginVersion, bundle.hash(), configuration);
+    LOG.info(
+      "Started the bridge server daemon on port {}, it stops after {}s without requests",
+      port,
+      daemonIdleTimeoutSeconds(context)
+    );
+    return true;
+  }
+
+  /**
+   * The settings of the analysis that the bridge server is started with
+   */
+  private static String daemonConfiguration(SensorContext context) {
+    var config = context.config();
+    return String.join(
+      ",",
+      String.valueOf(config.getBoolean(ALLOW_TS_PARSER_JS_FILES).orElse(true)),
+      String.valueOf(context.runtime().getProduct() == SonarProduct.SONARLINT),
+      String.valueOf(config.getBoolean(DEBUG_MEMORY).orElse(false)),
+      config.get(MAX_OLD_SPACE_SIZE_PROPERTY).orElse(""),
+      String.valueOf(workerCount(context))
+    );
+  }
+
+  /**
+   * One worker thread for the program being analyzed, and one for each program created ahead
+   */
+  private static int workerCount(SensorContext context) {
+    return new ContextUtils(context).programLookAhead() + 1;
+  }
+
+  private static int daemonIdleTimeoutSeconds(SensorContext context) {
+    return context
+      .config()
+      .getInt(DAEMON_IDLE_TIMEOUT_PROPERTY)
+      .orElse(DAEMON_IDLE_TIMEOUT_DEFAULT_SECONDS);
+  }
+
   @Override
   public void initLinter(
     List<EslintRule> rules,
@@ -337,55 +532,189 @@ public class BridgeServerImpl implements BridgeServer {
       exclusions
     );
     String request = GSON.toJson(initLinterRequest);
+    initLinterRequests.put(linterId, request);
+    sendInitLinter(request);
+  }
 
+  private void sendInitLinter(String request) throws IOException {
     String response = request(request, "init-linter");
     if (!"OK!".equals(response)) {
       throw new IllegalStateException("Failed to initialize linter");
     }
   }
 
+  @Override
+  public boolean recover() throws IOException {
+    if (
+      serverContext == null ||
+      !isRecoveryEnabled(serverContext) ||
+      Thread.currentThread().isInterrupted()
+    ) {
+      return false;
+    }
+    if (recoveries >= MAX_RECOVERIES) {
+      LOG.warn("The bridge server was already restarted {} times, giving up", recoveries);
+      return false;
+    }
+    recoveries++;
+    LOG.warn("Restarting the bridge server ({}/{})", recoveries, MAX_RECOVERIES);
+    restart();
+    return true;
+  }
+
+  @Override
+  public boolean recycle() throws IOException {
+    if (serverContext == null) {
+      return false;
+    }
+    LOG.info("Restarting the bridge server to release its memory");
+    restart();
+    return true;
+  }
+
+  private void restart() throws IOException {
+    if (isAlive()) {
+      try {
+        request("", "close");
+      } catch (IOException | RuntimeException e) {
+        LOG.debug("Failed to close the bridge server before restarting it", e);
+      }
+    }
+    if (nodeCommand != null) {
+      nodeCommand.waitFor();
+    }
+    status = Status.NOT_STARTED;
+    startServer(serverContext, deployedBundles);
+    if (daemon != null) {
+      daemon.record(
+        port,
+        PluginInfo.getVersion(),
+        bundle.hash(),
+        daemonConfiguration(serverContext)
+      );
+    }
+    for (var request : initLinterRequests.values()) {
+      sendInitLinter(request);
+    }
+  }
+
+  private static boolean isRecoveryEnabled(SensorContext context) {
+    return context.config().getBoolean(RECOVERY_PROPERTY).orElse(false);
+  }
+
   @Override
   public AnalysisResponse analyzeJavaScript(JsAnalysisRequest request) throws IOException {
-    String json = GSON.toJson(request);
-    return response(request(json, "analyze-js"), request.filePath);
+    return analyze(request, "analyze-js", request.filePath);
   }
 
   @Override
   public AnalysisResponse analyzeTypeScript(JsAnalysisRequest request) throws IOException {
-    String json = GSON.toJson(request);
-    return response(request(json, "analyze-ts"), request.filePath);
+    return analyze(request, "analyze-ts", request.filePath);
   }
 
   @Override
   public AnalysisResponse analyzeCss(CssAnalysisRequest request) throws IOException {
-    String json = GSON.toJson(request);
-    return response(request(json, "analyze-css"), request.filePath);
+    return analyze(request, "analyze-css", request.filePath);
   }
 
   @Override
   public AnalysisResponse analyzeYaml(JsAnalysisRequest request) throws IOException {
-    String json = GSON.toJson(request);
-    return response(request(json, "analyze-yaml"), request.filePath);
+    return analyze(request, "analyze-yaml", request.filePath);
   }
 
   @Override
   public AnalysisResponse analyzeHtml(JsAnalysisRequest request) throws IOException {
-    var json = GSON.toJson(request);
-    return response(request(json, "analyze-html"), request.filePath);
+    return analyze(request, "analyze-html", request.filePath);
   }
 
-  private String request(String json, String endpoint) throws IOException {
-    var request = HttpRequest
+  @Override
+  public CompletableFuture<AnalysisResponse> analyzeJavaScriptAsync(JsAnalysisRequest request) {
+    return analyzeAsync(request, "analyze-js", request.filePath);
+  }
+
+  @Override
+  public CompletableFuture<AnalysisResponse> analyzeTypeScriptAsync(JsAnalysisRequest request) {
+    return analyzeAsync(request, "analyze-ts", request.filePath);
+  }
+
+  /**
+   * The whole batch holds a single in-flight permit. Its responses are read one after the other
+   * on the HTTP client executor, completing the future of each file as soon as it is decoded.
+   */
+  @Override
+  public List<CompletableFuture<AnalysisResponse>> analyzeBatch(List<BatchedRequest> requests) {
+    List<CompletableFuture<AnalysisResponse>> responses = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      responses.add(new CompletableFuture<>());
+    }
+    if (requests.isEmpty()) {
+      return responses;
+    }
+    var httpRequest = analysisRequest(new BatchRequest(requests), "analyze-batch");
+    var permits = inFlightRequests;
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      throw handleInterruptedException(e, "Request analyze-batch was interrupted.");
+    }
+    client
+      .sendAsync(httpRequest, BodyHandlers.ofInputStream())
+      .thenAccept(response -> readBatch(response, requests, responses))
+      .whenComplete((result, failure) -> {
+        permits.release();
+        if (failure != null) {
+          var cause = failure instanceof CompletionException ? failure.getCause() : failure;
+          var exception = cause instanceof IllegalStateException
+            ? cause
+            : new IllegalStateException("The bridge server is unresponsive", cause);
+          responses.forEach(response -> response.completeExceptionally(exception));
+        }
+      });
+    return responses;
+  }
+
+  private HttpRequest.Builder httpRequest(BodyPublisher body, String endpoint) {
+    return HttpRequest
       .newBuilder()
       .uri(url(endpoint))
       .timeout(Duration.ofSeconds(timeoutSeconds))
       .header("Content-Type", "application/json")
-      .POST(HttpRequest.BodyPublishers.ofString(json))
+      .POST(body);
+  }
+
+  /**
+   * Analysis requests accept responses in the binary format of the bridge, which falls back to
+   * JSON when it does not support it.
+   */
+  private HttpRequest analysisRequest(Object request, String endpoint) {
+    return httpRequest(jsonBody(request), endpoint)
+      .header("Accept", BinaryResponseDeserializer.CONTENT_TYPE + ", application/json")
       .build();
+  }
+
+  private String request(String json, String endpoint) throws IOException {
+    var request = httpRequest(BodyPublishers.ofString(json), endpoint).build();
+    return send(request, BodyHandlers.ofString(), endpoint).body();
+  }
+
+  /**
+   * Analysis requests and responses can be as large as the analyzed file, several times over for
+   * generated code. The request is serialized to UTF-8 bytes without an intermediate string, and
+   * the response is decoded as it is read from the connection instead of being buffered first.
+   */
+  private AnalysisResponse analyze(Object request, String endpoint, String filePath)
+    throws IOException {
+    var httpRequest = analysisRequest(request, endpoint);
+    return response(send(httpRequest, BodyHandlers.ofInputStream(), endpoint), filePath);
+  }
 
+  private <T> HttpResponse<T> send(
+    HttpRequest request,
+    BodyHandler<T> bodyHandler,
+    String endpoint
+  ) {
     try {
-      var response = client.send(request, BodyHandlers.ofString());
-      return response.body();
+      return client.send(request, bodyHandler);
     } catch (InterruptedException e) {
       throw handleInterruptedException(e, "Request " + endpoint + " was interrupted.");
     } catch (IOException e) {
@@ -393,6 +722,56 @@ public class BridgeServerImpl implements BridgeServer {
     }
   }
 
+  /**
+   * Sends the request on the HTTP client executor. The permit acquired here bounds the number of
+   * requests waiting in the bridge queue and is released once the response is received.
+   */
+  private CompletableFuture<AnalysisResponse> analyzeAsync(
+    Object request,
+    String endpoint,
+    String filePath
+  ) {
+    var httpRequest = analysisRequest(request, endpoint);
+    var permits = inFlightRequests;
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      throw handleInterruptedException(e, "Request " + endpoint + " was interrupted.");
+    }
+    return client
+      .sendAsync(httpRequest, BodyHandlers.ofInputStream())
+      .whenComplete((response, failure) -> permits.release())
+      .handle((response, failure) -> {
+        if (failure != null) {
+          throw new CompletionException(
+            new IllegalStateException("The bridge server is unresponsive", failure)
+          );
+        }
+        return response;
+      })
+      .thenApply(response -> response(response, filePath));
+  }
+
+  private static BodyPublisher jsonBody(Object request) {
+    var body = new JsonBody();
+    try (var writer = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
+      GSON.toJson(request, writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return body.publisher();
+  }
+
+  /**
+   * Buffer of a serialized request, published without copying it once more.
+   */
+  private static class JsonBody extends ByteArrayOutputStream {
+
+    BodyPublisher publisher() {
+      return BodyPublishers.ofByteArray(buf, 0, count);
+    }
+  }
+
   private static IllegalStateException handleInterruptedException(
     InterruptedException e,
     String msg
@@ -402,13 +781,53 @@ public class BridgeServerImpl implements BridgeServer {
     return new IllegalStateException(msg, e);
   }
 
-  private static AnalysisResponse response(String result, String filePath) {
-    try {
-      return GSON.fromJson(result, AnalysisResponse.class);
-    } catch (JsonSyntaxException e) {
-      String msg =
-        "Failed to parse response for file " + filePath + ": \n-----\n" + result + "\n-----\n";
-      LOG.error(msg, e);
+  private static boolean isBinary(HttpResponse<?> response) {
+    return response
+      .headers()
+      .firstValue("Content-Type")
+      .filter(type -> type.startsWith(BinaryResponseDeserializer.CONTENT_TYPE))
+      .isPresent();
+  }
+
+  private static AnalysisResponse response(HttpResponse<InputStream> response, String filePath) {
+    try (var body = response.body()) {
+      if (isBinary(response)) {
+        return BinaryResponseDeserializer.fromBinary(body);
+      }
+      var reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+      return GSON.fromJson(reader, AnalysisResponse.class);
+    } catch (IOException | JsonParseException e) {
+      LOG.error("Failed to parse response for file " + filePath, e);
+      throw new IllegalStateException("Failed to parse response", e);
+    }
+  }
+
+  /**
+   * The bridge server sends the responses of a batch in the order of the requests, either as
+   * consecutive binary frames or as consecutive JSON documents.
+   */
+  private static void readBatch(
+    HttpResponse<InputStream> response,
+    List<BatchedRequest> requests,
+    List<CompletableFuture<AnalysisResponse>> responses
+  ) {
+    var binary = isBinary(response);
+    var index = 0;
+    try (var body = new BufferedInputStream(response.body())) {
+      var reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+      reader.setLenient(true);
+      for (; index < requests.size(); index++) {
+        var analysisResponse = binary
+          ? BinaryResponseDeserializer.readResponse(body)
+          : GSON.<AnalysisResponse>fromJson(reader, AnalysisResponse.class);
+        if (analysisResponse == null) {
+          throw new IOException("Missing responses in batch");
+        }
+        responses.get(index).complete(analysisResponse);
+      }
+    } catch (IOException | JsonParseException e) {
+      var filePath = requests.get(Math.min(index, requests.size() - 1)).input.filePath;
+      LOG.error("Failed to parse response for file " + filePath, e);
       throw new IllegalStateException("Failed to parse response", e);
     }
   }
@@ -474,6 +893,16 @@ public class BridgeServerImpl implements BridgeServer {
     );
   }
 
+  @Override
+  public MemoryUsage memoryUsage() throws IOException {
+    var response = request("", "memory");
+    try {
+      return GSON.fromJson(response, MemoryUsage.class);
+    } catch (JsonSyntaxException e) {
+      throw new IllegalStateException("Failed to parse the heap usage of the bridge server", e);
+    }
+  }
+
   @Override
   public TsProgram createProgram(TsProgramRequest tsProgramRequest) throws IOException {
     var response = request(GSON.toJson(tsProgramRequest), "create-program");
@@ -501,7 +930,12 @@ public class BridgeServerImpl implements BridgeServer {
   public void clean() {
     LOG.trace("Closing heartbeat service");
     heartbeatService.shutdownNow();
-    if (nodeCommand != null && isAlive()) {
+    if (daemon != null) {
+      // the daemon keeps running for the next analyses, which can take the lease from now on
+      daemon.close();
+      daemon = null;
+      nodeCommand = null;
+    } else if (nodeCommand != null && isAlive()) {
       try {
         request("", "close");
       } catch (IOException e) {
@@ -510,10 +944,26 @@ public class BridgeServerImpl implements BridgeServer {
       nodeCommand.waitFor();
       nodeCommand = null;
     }
+    closeUnixSocketClient();
     port = 0;
     status = Status.NOT_STARTED;
   }
 
+  private void closeUnixSocketClient() {
+    if (client instanceof UnixDomainSocketHttpClient) {
+      ((UnixDomainSocketHttpClient) client).shutdown();
+      client = tcpClient(timeoutSeconds);
+    }
+    if (socketPath != null) {
+      try {
+        Files.deleteIfExists(socketPath);
+      } catch (IOException e) {
+        LOG.debug("Failed to delete the bridge server socket " + socketPath, e);
+      }
+      socketPath = null;
+    }
+  }
+
   /**
    * Required for testing purposes
    */
@@ -572,6 +1022,15 @@ public class BridgeServerImpl implements BridgeServer {
     return System.getenv(SONARJS_EXISTING_NODE_PROCESS_PORT);
   }
 
+  static class BatchRequest {
+
+    final List<BatchedRequest> requests;
+
+    BatchRequest(List<BatchedRequest> requests) {
+      this.requests = requests;
+    }
+  }
+
   static class TsConfigRequest {
 
     final String tsconfig;
@@ -609,9 +1068,16 @@ public class BridgeServerImpl implements BridgeServer {
 
   static class LogOutputConsumer implements Consumer<String> {
 
+    // printed by the bridge server once it accepts requests, see bin/server
+    static final String READY_HANDSHAKE = "SONARJS_BRIDGE_READY";
+
+    private final CountDownLatch ready = new CountDownLatch(1);
+
     @Override
     public void accept(String message) {
-      if (message.startsWith("DEBUG")) {
+      if (READY_HANDSHAKE.equals(message)) {
+        ready.countDown();
+      } else if (message.startsWith("DEBUG")) {
         LOG.debug(message.substring(5).trim());
       } else if (message.startsWith("WARN")) {
         LOG.warn(message.substring(4).trim());
@@ -619,5 +1085,9 @@ public class BridgeServerImpl implements BridgeServer {
         LOG.info(message);
       }
     }
+
+    boolean awaitReady(long timeoutMs) throws InterruptedException {
+      return ready.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
   }
 }
@@ -0,0 +1,136 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.sonarsource.api.sonarlint.SonarLintSide.MULTIPLE_ANALYSES;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import org.sonar.api.Startable;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.scanner.ScannerSide;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.JavaScriptPlugin;
+import org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl;
+import org.sonar.plugins.javascript.nodejs.ProcessWrapperImpl;
+import org.sonar.plugins.javascript.utils.Exclusions;
+import org.sonarsource.api.sonarlint.SonarLintSide;
+
+/**
+ * Pool of bridge servers used to analyze several TypeScript programs in parallel.
+ * <p>
+ * The first server of the pool is always the bridge server shared by all sensors. Additional
+ * servers are started lazily, each one in its own Node.js process with its own linter.
+ */
+@ScannerSide
+@SonarLintSide(lifespan = MULTIPLE_ANALYSES)
+public class BridgeServerPool implements Startable {
+
+  private static final Logger LOG = Loggers.get(BridgeServerPool.class);
+
+  // internal property to set the number of Node.js processes analyzing TypeScript programs
+  static final String POOL_SIZE_PROPERTY = "sonar.javascript.bridge.poolSize";
+  static final int POOL_SIZE_DEFAULT_VALUE = 1;
+
+  private final BridgeServer bridgeServer;
+  private final Supplier<BridgeServer> serverFactory;
+  private final List<BridgeServer> additionalServers = new ArrayList<>();
+
+  // Used by pico container for dependency injection
+  public BridgeServerPool(
+    BridgeServer bridgeServer,
+    Bundle bundle,
+    RulesBundles rulesBundles,
+    NodeDeprecationWarning deprecationWarning,
+    Environment environment,
+    EmbeddedNode embeddedNode
+  ) {
+    this(
+      bridgeServer,
+      () ->
+        new BridgeServerImpl(
+          new NodeCommandBuilderImpl(new ProcessWrapperImpl()),
+          bundle,
+          rulesBundles,
+          deprecationWarning,
+          environment,
+          embeddedNode
+        )
+    );
+  }
+
+  BridgeServerPool(BridgeServer bridgeServer, Supplier<BridgeServer> serverFactory) {
+    this.bridgeServer = bridgeServer;
+    this.serverFactory = serverFactory;
+  }
+
+  static int poolSize(SensorContext context) {
+    var poolSize = context.config().getInt(POOL_SIZE_PROPERTY).orElse(POOL_SIZE_DEFAULT_VALUE);
+    return Math.max(1, poolSize);
+  }
+
+  /**
+   * Returns the bridge servers of the pool, starting the missing ones. The linter of the shared
+   * bridge server is expected to be already initialized, the others get the same configuration.
+   */
+  List<BridgeServer> servers(SensorContext context, JsTsChecks checks, AnalysisMode analysisMode)
+    throws IOException {
+    var size = poolSize(context);
+    while (additionalServers.size() < size - 1) {
+      LOG.debug("Starting additional bridge server {} of {}", additionalServers.size() + 2, size);
+      additionalServers.add(serverFactory.get());
+    }
+    var config = context.config();
+    var environments = Arrays.asList(config.getStringArray(JavaScriptPlugin.ENVIRONMENTS));
+    var globals = Arrays.asList(config.getStringArray(JavaScriptPlugin.GLOBALS));
+    var exclusions = Arrays.asList(Exclusions.getExcludedPaths(config));
+    var baseDir = context.fileSystem().baseDir().getAbsolutePath();
+    List<BridgeServer> servers = new ArrayList<>(size);
+    servers.add(bridgeServer);
+    for (var server : additionalServers.subList(0, size - 1)) {
+      server.startServerLazily(context);
+      server.initLinter(
+        checks.eslintRules(),
+        environments,
+        globals,
+        analysisMode,
+        baseDir,
+        exclusions
+      );
+      servers.add(server);
+    }
+    return servers;
+  }
+
+  @Override
+  public void start() {
+    // Servers are started lazily by the analysis requiring them
+  }
+
+  @Override
+  public void stop() {
+    additionalServers.forEach(BridgeServer::clean);
+    additionalServers.clear();
+  }
+}
@@ -27,4 +27,9 @@ interface Bundle extends BundlePathResolver {
   void deploy(Path deployLocation) throws IOException;
 
   String startServerScript();
+
+  /**
+   * @return the hash identifying the content of the deployed bundle
+   */
+  String hash();
 }
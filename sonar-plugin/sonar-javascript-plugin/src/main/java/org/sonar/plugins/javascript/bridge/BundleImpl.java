@@ -22,7 +22,6 @@ package org.sonar.plugins.javascript.bridge;
 import static org.sonarsource.api.sonarlint.SonarLintSide.MULTIPLE_ANALYSES;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.utils.log.Logger;
@@ -51,16 +50,19 @@ public class BundleImpl implements Bundle {
     this.bundleLocation = bundleLocation;
   }
 
+  /**
+   * Extracts the bridge server into a directory of `deployLocation` named after the hash of the
+   * archive, which is reused by the next analyses as long as the archive doesn't change.
+   */
   @Override
   public void deploy(Path deployLocation) throws IOException {
     PROFILER.startDebug("Deploying bundle");
     LOG.debug("Deploying the bridge server into {}", deployLocation);
-    InputStream bundle = getClass().getResourceAsStream(bundleLocation);
-    if (bundle == null) {
+    if (getClass().getResource(bundleLocation) == null) {
       throw new IllegalStateException("The bridge server was not found in the plugin jar");
     }
-    BundleUtils.extractFromClasspath(bundle, deployLocation);
-    this.deployLocation = deployLocation;
+    this.deployLocation =
+      BundleUtils.extractOnce(() -> getClass().getResourceAsStream(bundleLocation), deployLocation);
     PROFILER.stopDebug();
   }
 
@@ -69,6 +71,11 @@ public class BundleImpl implements Bundle {
     return resolve(DEFAULT_STARTUP_SCRIPT);
   }
 
+  @Override
+  public String hash() {
+    return deployLocation.getFileName().toString();
+  }
+
   @Override
   public String resolve(String relativePath) {
     return deployLocation.resolve(relativePath).toAbsolutePath().toString();
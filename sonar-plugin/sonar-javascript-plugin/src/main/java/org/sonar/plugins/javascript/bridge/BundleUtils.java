@@ -19,12 +19,21 @@
  */
 package org.sonar.plugins.javascript.bridge;
 
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Objects;
 import java.util.zip.GZIPInputStream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -32,13 +41,80 @@ import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.io.FileUtils;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
 
 class BundleUtils {
 
+  private static final Logger LOG = Loggers.get(BundleUtils.class);
+
+  // number of hexadecimal characters of the SHA-256 hash naming an extracted archive
+  private static final int HASH_LENGTH = 16;
+
+  // file locks are held on behalf of the whole JVM, so threads have to be serialized separately
+  private static final Object EXTRACTION_LOCK = new Object();
+
   private BundleUtils() {
     // utility class
   }
 
+  /**
+   * Supplies a fresh stream of an archive, as it is read once to be hashed and once to be extracted
+   */
+  interface Archive {
+    InputStream open() throws IOException;
+  }
+
+  /**
+   * Extracts the archive into a directory of `parent` named after the hash of its content, unless a
+   * previous analysis already did. The extraction happens under a file lock into a temporary
+   * directory, which is renamed once complete, so that a partially extracted archive is never used.
+   *
+   * @return the directory where the archive is extracted
+   */
+  static Path extractOnce(Archive archive, Path parent) throws IOException {
+    Path target = parent.resolve(contentHash(archive));
+    if (Files.isDirectory(target)) {
+      LOG.debug("Reusing archive already extracted into {}", target);
+      return target;
+    }
+    Files.createDirectories(parent);
+    String name = target.getFileName().toString();
+    synchronized (EXTRACTION_LOCK) {
+      try (
+        var channel = FileChannel.open(parent.resolve(name + ".lock"), CREATE, WRITE);
+        var lock = channel.lock()
+      ) {
+        if (Files.isDirectory(target)) {
+          LOG.debug("Archive was extracted into {} by another analysis", target);
+          return target;
+        }
+        Path extraction = Files.createTempDirectory(parent, name + "-");
+        try (InputStream resource = archive.open()) {
+          extractFromClasspath(resource, extraction);
+          Files.move(extraction, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+          FileUtils.deleteQuietly(extraction.toFile());
+        }
+      }
+    }
+    return target;
+  }
+
+  private static String contentHash(Archive archive) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    try (InputStream resource = new DigestInputStream(archive.open(), digest)) {
+      resource.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest()).substring(0, HASH_LENGTH);
+  }
+
   static void extractFromClasspath(InputStream resource, Path targetPath) throws IOException {
     Objects.requireNonNull(resource);
     try (
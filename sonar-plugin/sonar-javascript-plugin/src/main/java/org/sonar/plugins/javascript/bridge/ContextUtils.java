@@ -27,6 +27,79 @@ import org.sonar.plugins.javascript.JavaScriptPlugin;
 
 class ContextUtils {
 
+  /**
+   * Internal property to set the number of analysis requests that can be in-flight to the bridge
+   * server at the same time. With a value greater than 1, the bridge analyzes the next files
+   * while the responses of the previous ones are being saved.
+   */
+  static final String MAX_IN_FLIGHT_REQUESTS = "sonar.javascript.bridge.maxInFlightRequests";
+  static final int MAX_IN_FLIGHT_REQUESTS_DEFAULT_VALUE = 1;
+
+  /**
+   * Internal property to set the number of files sent to the bridge server in a single analysis
+   * request. With a value greater than 1, the per-request overhead is shared by the files of the
+   * batch, whose responses are streamed back one by one.
+   */
+  static final String BATCH_SIZE = "sonar.javascript.bridge.batchSize";
+  static final int BATCH_SIZE_DEFAULT_VALUE = 1;
+
+  /**
+   * Internal property to set the percentage of the heap size limit of the bridge server above which
+   * the analysis releases memory between two files: first by waiting for the in-flight requests and
+   * creating the TypeScript program again, then by restarting the bridge server. Disabled with 0.
+   */
+  static final String HEAP_WATERMARK = "sonar.javascript.bridge.heapWatermark";
+  static final int HEAP_WATERMARK_DEFAULT_VALUE = 0;
+
+  /**
+   * Internal property to set the number of TypeScript programs created ahead, while the files of
+   * the current program are analyzed. The bridge server then runs one worker thread per program
+   * that can be alive at the same time.
+   */
+  static final String PROGRAM_LOOK_AHEAD = "sonar.javascript.bridge.programLookAhead";
+  static final int PROGRAM_LOOK_AHEAD_DEFAULT_VALUE = 0;
+
+  /**
+   * Internal property to plan the TypeScript programs to create before creating any of them,
+   * rather than following the project references of each program once it is created.
+   */
+  static final String PLAN_PROGRAMS = "sonar.javascript.bridge.planPrograms";
+
+  /**
+   * Internal property to save the incremental state of the TypeScript programs in the analysis
+   * cache, for the programs of the next analysis to be seeded with it. The unchanged files whose
+   * dependencies changed according to that state are analyzed again.
+   */
+  static final String CACHE_PROGRAM_STATE = "sonar.javascript.bridge.cacheProgramState";
+
+  /**
+   * Internal property to analyze files without creating TypeScript programs when none of the
+   * active rules requires type information.
+   */
+  static final String SKIP_UNNEEDED_PROGRAMS = "sonar.javascript.bridge.skipUnneededPrograms";
+
+  /**
+   * Internal property to set the maximum number of files of generated programs, for the files part
+   * of no tsconfig.json, otherwise analyzed without type information, and for the default
+   * tsconfig.json generated when the project has none, then split by directory. Disabled with 0.
+   */
+  static final String GENERATED_PROGRAM_SIZE = "sonar.javascript.bridge.generatedProgramSize";
+  static final int GENERATED_PROGRAM_SIZE_DEFAULT_VALUE = 0;
+
+  /**
+   * Internal property to save the files each file depends on in the analysis cache, for the
+   * unchanged files depending on changed ones to be analyzed again rather than restored from it.
+   */
+  static final String TRACK_DEPENDENCIES = "sonar.javascript.bridge.trackDependencies";
+
+  /**
+   * Internal property to set the number of threads preparing the analysis data of the files for
+   * saving, for the analysis to move on to the next file meanwhile. Data is always saved by the
+   * analysis thread, which also prepares it with 0.
+   */
+  static final String PERSISTENCE_THREADS = "sonar.javascript.bridge.persistenceThreads";
+  static final int PERSISTENCE_THREADS_DEFAULT_VALUE = 0;
+
   private final SensorContext context;
 
   ContextUtils(SensorContext context) {
@@ -56,6 +129,59 @@ class ContextUtils {
     return context.config().getBoolean("sonar.internal.analysis.failFast").orElse(false);
   }
 
+  int maxInFlightRequests() {
+    return Math.max(
+      1,
+      context.config().getInt(MAX_IN_FLIGHT_REQUESTS).orElse(MAX_IN_FLIGHT_REQUESTS_DEFAULT_VALUE)
+    );
+  }
+
+  int batchSize() {
+    return Math.max(1, context.config().getInt(BATCH_SIZE).orElse(BATCH_SIZE_DEFAULT_VALUE));
+  }
+
+  int heapWatermark() {
+    var watermark = context.config().getInt(HEAP_WATERMARK).orElse(HEAP_WATERMARK_DEFAULT_VALUE);
+    return Math.max(0, Math.min(100, watermark));
+  }
+
+  int programLookAhead() {
+    return Math.max(
+      0,
+      context.config().getInt(PROGRAM_LOOK_AHEAD).orElse(PROGRAM_LOOK_AHEAD_DEFAULT_VALUE)
+    );
+  }
+
+  boolean planPrograms() {
+    return context.config().getBoolean(PLAN_PROGRAMS).orElse(false);
+  }
+
+  boolean cacheProgramState() {
+    return context.config().getBoolean(CACHE_PROGRAM_STATE).orElse(false);
+  }
+
+  boolean skipUnneededPrograms() {
+    return context.config().getBoolean(SKIP_UNNEEDED_PROGRAMS).orElse(false);
+  }
+
+  int generatedProgramSize() {
+    return Math.max(
+      0,
+      context.config().getInt(GENERATED_PROGRAM_SIZE).orElse(GENERATED_PROGRAM_SIZE_DEFAULT_VALUE)
+    );
+  }
+
+  boolean trackDependencies() {
+    return context.config().getBoolean(TRACK_DEPENDENCIES).orElse(false);
+  }
+
+  int persistenceThreads() {
+    return Math.max(
+      0,
+      context.config().getInt(PERSISTENCE_THREADS).orElse(PERSISTENCE_THREADS_DEFAULT_VALUE)
+    );
+  }
+
   SensorContext context() {
     return context;
   }
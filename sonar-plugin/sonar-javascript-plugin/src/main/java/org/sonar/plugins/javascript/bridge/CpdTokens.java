@@ -0,0 +1,61 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * The CPD tokens of an analysis response, the text of a token being its image
+ */
+@JsonAdapter(AnalysisResponseTypeAdapters.CpdTokensAdapter.class)
+public final class CpdTokens extends Tokens {
+
+  public static final CpdTokens EMPTY = builder().build();
+
+  private CpdTokens(Tokens.Builder builder) {
+    super(builder);
+  }
+
+  static CpdTokens of(Tokens.Builder builder) {
+    return new CpdTokens(builder);
+  }
+
+  public String image(int token) {
+    return text(token);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+
+    private final Tokens.Builder tokens = new Tokens.Builder();
+
+    public Builder add(int startLine, int startCol, int endLine, int endCol, String image) {
+      tokens.add(startLine, startCol, endLine, endCol, image);
+      return this;
+    }
+
+    public CpdTokens build() {
+      return new CpdTokens(tokens);
+    }
+  }
+}
@@ -35,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Locale;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
@@ -59,6 +60,7 @@ public class EmbeddedNode {
   private final Environment env;
   private final ProcessWrapper processWrapper;
   private boolean isAvailable;
+  private String version;
 
   enum Platform {
     WIN_X64,
@@ -189,8 +191,8 @@ public class EmbeddedNode {
         extractWithLocking(is, versionIs, targetRuntime, targetDirectory);
       }
       // we try to run 'node -v' to test that node is working
-      var detected = NodeVersion.getVersion(processWrapper, binary().toString());
-      LOG.debug("Deployed node version {}", detected);
+      version = NodeVersion.getVersion(processWrapper, binary().toString());
+      LOG.debug("Deployed node version {}", version);
       isAvailable = true;
     } catch (Exception e) {
       LOG.warn("Embedded Node.js failed to deploy. Will fallback to host Node.js.", e);
@@ -284,6 +286,14 @@ public class EmbeddedNode {
     }
   }
 
+  /**
+   * @return the version reported by the runtime once it has been deployed, null if not available
+   */
+  @CheckForNull
+  public String version() {
+    return isAvailable() ? version : null;
+  }
+
   /**
    * @return the path to the binary once it has been decompressed
    */
@@ -34,12 +34,24 @@ class EslintRule {
   final List<String> fileTypeTarget;
   final List<Object> configurations;
   final String language;
+  // not sent to the bridge server, only used to decide whether programs are worth creating
+  final transient boolean requiresTypeChecking;
 
   EslintRule(
     String key,
     List<Object> configurations,
     List<InputFile.Type> fileTypeTarget,
     String language
+  ) {
+    this(key, configurations, fileTypeTarget, language, false);
+  }
+
+  EslintRule(
+    String key,
+    List<Object> configurations,
+    List<InputFile.Type> fileTypeTarget,
+    String language,
+    boolean requiresTypeChecking
   ) {
     this.key = key;
     this.fileTypeTarget = fileTypeTarget.stream().map(InputFile.Type::name).toList();
@@ -49,6 +61,7 @@ class EslintRule {
       throw new IllegalArgumentException("Invalid language " + language);
     }
     this.language = language;
+    this.requiresTypeChecking = requiresTypeChecking;
   }
 
   @Override
@@ -64,6 +77,10 @@ class EslintRule {
     return rules.stream().anyMatch(ruleMatcher(eslintKey));
   }
 
+  static boolean anyRequiresTypeChecking(List<EslintRule> rules) {
+    return rules.stream().anyMatch(rule -> rule.requiresTypeChecking);
+  }
+
   static EslintRule findFirstRuleWithKey(List<EslintRule> rules, String eslintKey) {
     return rules.stream().filter(ruleMatcher(eslintKey)).findFirst().orElse(null);
   }
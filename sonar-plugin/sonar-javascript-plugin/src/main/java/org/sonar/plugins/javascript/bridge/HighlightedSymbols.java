@@ -0,0 +1,174 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.annotations.JsonAdapter;
+import java.util.Arrays;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+
+/**
+ * The highlighted symbols of an analysis response, i.e., the location of the declaration of each
+ * symbol along with the locations of its references.
+ * <p>
+ * Like {@link Tokens}, the coordinates of the locations are packed in arrays: one for the
+ * declarations, one for the references of all symbols one after the other, and one for the index
+ * of the first reference of each symbol.
+ */
+@JsonAdapter(AnalysisResponseTypeAdapters.HighlightedSymbolsAdapter.class)
+final class HighlightedSymbols {
+
+  static final HighlightedSymbols EMPTY = builder().build();
+
+  private static final int COORDINATES = 4;
+
+  private final int[] declarations;
+  private final int[] firstReferences;
+  private final int[] references;
+
+  private HighlightedSymbols(Builder builder) {
+    this.declarations = Arrays.copyOf(builder.declarations, builder.size * COORDINATES);
+    this.firstReferences = Arrays.copyOf(builder.firstReferences, builder.size + 1);
+    this.firstReferences[builder.size] = builder.referenceCount;
+    this.references = Arrays.copyOf(builder.references, builder.referenceCount * COORDINATES);
+  }
+
+  int size() {
+    return firstReferences.length - 1;
+  }
+
+  /**
+   * The coordinates of the declaration of the symbol: start line, start column, end line and end
+   * column.
+   */
+  int[] declaration(int symbol) {
+    var offset = symbol * COORDINATES;
+    return Arrays.copyOfRange(declarations, offset, offset + COORDINATES);
+  }
+
+  int referenceCount(int symbol) {
+    return firstReferences[symbol + 1] - firstReferences[symbol];
+  }
+
+  /**
+   * The coordinates of the reference of the symbol, like {@link #declaration(int)}
+   */
+  int[] reference(int symbol, int reference) {
+    var offset = (firstReferences[symbol] + reference) * COORDINATES;
+    return Arrays.copyOfRange(references, offset, offset + COORDINATES);
+  }
+
+  /**
+   * The text ranges of the symbols in the file: the range of the declaration of each symbol
+   * followed by the ranges of its references.
+   */
+  TextRange[] textRanges(InputFile inputFile) {
+    var textRanges = new TextRange[size() + firstReferences[size()]];
+    var index = 0;
+    for (int symbol = 0; symbol < size(); symbol++) {
+      textRanges[index++] = textRange(declarations, symbol, inputFile);
+      var lastReference = firstReferences[symbol + 1];
+      for (int reference = firstReferences[symbol]; reference < lastReference; reference++) {
+        textRanges[index++] = textRange(references, reference, inputFile);
+      }
+    }
+    return textRanges;
+  }
+
+  private static TextRange textRange(int[] locations, int index, InputFile inputFile) {
+    var offset = index * COORDINATES;
+    return inputFile.newRange(
+      locations[offset],
+      locations[offset + 1],
+      locations[offset + 2],
+      locations[offset + 3]
+    );
+  }
+
+  /**
+   * Adds the symbols and their references to the symbol table of a file, given their text ranges
+   * from {@link #textRanges(InputFile)}
+   */
+  void addTo(NewSymbolTable symbolTable, TextRange[] textRanges) {
+    var index = 0;
+    for (int symbol = 0; symbol < size(); symbol++) {
+      var newSymbol = symbolTable.newSymbol(textRanges[index++]);
+      for (int reference = 0; reference < referenceCount(symbol); reference++) {
+        newSymbol.newReference(textRanges[index++]);
+      }
+    }
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static final class Builder {
+
+    private int[] declarations = new int[16 * COORDINATES];
+    private int[] firstReferences = new int[16];
+    private int[] references = new int[16 * COORDINATES];
+    private int size;
+    private int referenceCount;
+
+    /**
+     * Starts a new symbol, whose references are the ones added next
+     */
+    Builder addSymbol(int startLine, int startCol, int endLine, int endCol) {
+      if (size + 1 >= firstReferences.length) {
+        firstReferences = Arrays.copyOf(firstReferences, firstReferences.length * 2);
+        declarations = Arrays.copyOf(declarations, firstReferences.length * COORDINATES);
+      }
+      set(declarations, size, startLine, startCol, endLine, endCol);
+      firstReferences[size] = referenceCount;
+      size++;
+      return this;
+    }
+
+    Builder addReference(int startLine, int startCol, int endLine, int endCol) {
+      if ((referenceCount + 1) * COORDINATES > references.length) {
+        references = Arrays.copyOf(references, references.length * 2);
+      }
+      set(references, referenceCount, startLine, startCol, endLine, endCol);
+      referenceCount++;
+      return this;
+    }
+
+    private static void set(
+      int[] locations,
+      int index,
+      int startLine,
+      int startCol,
+      int endLine,
+      int endCol
+    ) {
+      var offset = index * COORDINATES;
+      locations[offset] = startLine;
+      locations[offset + 1] = startCol;
+      locations[offset + 2] = endLine;
+      locations[offset + 3] = endCol;
+    }
+
+    HighlightedSymbols build() {
+      return new HighlightedSymbols(this);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * The highlights of an analysis response, the text of a token being its type of text
+ */
+@JsonAdapter(AnalysisResponseTypeAdapters.HighlightsAdapter.class)
+final class Highlights extends Tokens {
+
+  static final Highlights EMPTY = builder().build();
+
+  private Highlights(Tokens.Builder builder) {
+    super(builder);
+  }
+
+  static Highlights of(Tokens.Builder builder) {
+    return new Highlights(builder);
+  }
+
+  String textType(int token) {
+    return text(token);
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static final class Builder {
+
+    private final Tokens.Builder tokens = new Tokens.Builder();
+
+    Builder add(int startLine, int startCol, int endLine, int endCol, String textType) {
+      tokens.add(startLine, startCol, endLine, endCol, textType);
+      return this;
+    }
+
+    Highlights build() {
+      return new Highlights(tokens);
+    }
+  }
+}
@@ -31,6 +31,9 @@ import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.CancellationException;
 import org.sonar.plugins.javascript.JavaScriptLanguage;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
 import org.sonar.plugins.javascript.bridge.cache.CacheStrategies;
@@ -45,6 +48,7 @@ public class HtmlSensor extends AbstractBridgeSensor {
   private final JsTsChecks checks;
   private final AnalysisProcessor analysisProcessor;
   private AnalysisMode analysisMode;
+  private AnalysisBatch batch;
 
   public HtmlSensor(
     JsTsChecks checks,
@@ -79,6 +83,8 @@ public class HtmlSensor extends AbstractBridgeSensor {
         context.fileSystem().baseDir().getAbsolutePath(),
         exclusions
       );
+      var batchSize = contextUtils.batchSize();
+      batch = batchSize > 1 ? new AnalysisBatch(bridgeServer, batchSize) : null;
       for (var inputFile : inputFiles) {
         if (context.isCancelled()) {
           throw new CancellationException(
@@ -87,10 +93,15 @@ public class HtmlSensor extends AbstractBridgeSensor {
         }
         progressReport.nextFile(inputFile.absolutePath());
         var cacheStrategy = CacheStrategies.getStrategyFor(context, inputFile);
+        // the CPD tokens are handled by the sonar-html plugin, only the UCFG files are restored
+        if (!cacheStrategy.isAnalysisRequired() && !cacheStrategy.restoreFromCache(null)) {
+          cacheStrategy = CacheStrategies.fallbackToAnalysis(cacheStrategy, inputFile);
+        }
         if (cacheStrategy.isAnalysisRequired()) {
           analyze(inputFile, cacheStrategy);
         }
       }
+      saveBatch();
       success = true;
     } finally {
       if (success) {
@@ -132,15 +143,39 @@ public class HtmlSensor extends AbstractBridgeSensor {
         null,
         analysisMode.getLinterIdFor(file)
       );
+      if (batch != null) {
+        var batchedRequest = new BatchedRequest(BatchedAnalysis.HTML, jsAnalysisRequest);
+        batch.add(file, cacheStrategy, batchedRequest);
+        if (batch.isFull()) {
+          saveBatch();
+        }
+        return;
+      }
       var response = bridgeServer.analyzeHtml(jsAnalysisRequest);
-      analysisProcessor.processResponse(context, checks, file, response);
-      cacheStrategy.writeAnalysisToCache(
-        CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
-        file
-      );
+      saveResponse(file, cacheStrategy, response);
     } catch (IOException e) {
       LOG.error("Failed to get response while analyzing " + file.uri(), e);
       throw e;
     }
   }
+
+  /**
+   * Sends the files collected in the batch and saves their responses as they are streamed back.
+   */
+  private void saveBatch() throws IOException {
+    if (batch != null && !batch.isEmpty()) {
+      for (var pendingAnalysis : batch.send()) {
+        saveResponse(pendingAnalysis.file, pendingAnalysis.cacheStrategy, pendingAnalysis.join());
+      }
+    }
+  }
+
+  private void saveResponse(InputFile file, CacheStrategy cacheStrategy, AnalysisResponse response)
+    throws IOException {
+    analysisProcessor.processResponse(context, checks, file, response);
+    cacheStrategy.writeAnalysisToCache(
+      CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
+      file
+    );
+  }
 }
@@ -53,7 +53,9 @@ public class JsTsChecks {
   private final CheckFactory checkFactory;
   private final CustomRuleRepository[] customRuleRepositories;
   private final Map<LanguageAndRepository, Checks<JavaScriptCheck>> checks = new HashMap<>();
-  private final Map<String, Map<Language, RuleKey>> eslintKeyToRuleKey = new HashMap<>();
+  private final Map<Language, Map<String, RuleKey>> ruleKeysByLanguage = new EnumMap<>(
+    Language.class
+  );
   private RuleKey parseErrorRuleKey;
 
   public JsTsChecks(CheckFactory checkFactory) {
@@ -88,9 +90,9 @@ public class JsTsChecks {
       .filter(EslintBasedCheck.class::isInstance)
       .map(EslintBasedCheck.class::cast)
       .forEach(check ->
-        eslintKeyToRuleKey
-          .computeIfAbsent(check.eslintKey(), k -> new EnumMap<>(Language.class))
-          .put(language, chks.ruleKey(check))
+        ruleKeysByLanguage
+          .computeIfAbsent(language, l -> new HashMap<>())
+          .put(check.eslintKey(), chks.ruleKey(check))
       );
   }
 
@@ -125,8 +127,14 @@ public class JsTsChecks {
 
   @Nullable
   public RuleKey ruleKeyByEslintKey(String eslintKey, Language language) {
-    var k = eslintKeyToRuleKey.get(eslintKey);
-    return k != null ? k.get(language) : null;
+    return ruleKeysByEslintKey(language).get(eslintKey);
+  }
+
+  /**
+   * The rule keys of the language by ESLint key, to look up the rules of many issues at once
+   */
+  Map<String, RuleKey> ruleKeysByEslintKey(Language language) {
+    return ruleKeysByLanguage.getOrDefault(language, Map.of());
   }
 
   /**
@@ -164,7 +172,9 @@ public class JsTsChecks {
               check.eslintKey(),
               check.configurations(),
               check.targets(),
-              e.getKey().language
+              e.getKey().language,
+              // custom rules may rely on type information without saying so
+              check.requiresTypeChecking() || !e.getKey().isBuiltIn()
             )
           )
       )
@@ -182,6 +192,13 @@ public class JsTsChecks {
       this.repository = repository;
     }
 
+    boolean isBuiltIn() {
+      return (
+        CheckList.JS_REPOSITORY_KEY.equals(repository) ||
+        CheckList.TS_REPOSITORY_KEY.equals(repository)
+      );
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
@@ -110,21 +110,28 @@ public class JsTsSensor extends AbstractBridgeSensor {
     );
 
     SonarLintTypeCheckingChecker.checkOnce(javaScriptProjectChecker, context);
-    var tsConfigs = TsConfigProvider.getTsConfigs(
-      contextUtils,
-      javaScriptProjectChecker,
-      this::createTsConfigFile
-    );
     AbstractAnalysis analysis;
     if (shouldAnalyzeWithProgram(inputFiles)) {
       analysis = analysisWithProgram;
     } else {
       analysis = analysisWithWatchProgram;
     }
-    if (tsConfigs.isEmpty()) {
-      LOG.info("No tsconfig.json file found");
-    }
     analysis.initialize(context, checks, analysisMode);
+    List<String> tsConfigs;
+    if (analysis.isLintOnly()) {
+      LOG.info("No active rule requires type information: TypeScript programs will not be created");
+      tsConfigs = List.of();
+    } else {
+      tsConfigs =
+        TsConfigProvider.getTsConfigs(
+          contextUtils,
+          javaScriptProjectChecker,
+          this::createTsConfigFile
+        );
+      if (tsConfigs.isEmpty()) {
+        LOG.info("No tsconfig.json file found");
+      }
+    }
     analysis.analyzeFiles(inputFiles, tsConfigs);
   }
 
@@ -0,0 +1,112 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Prepares the analysis data of the files on background threads: issues, highlights, symbols and
+ * CPD tokens are converted down to the text ranges of their locations. The preparations waiting
+ * for a thread are bounded: once the queue is full, the analysis thread prepares the data of the
+ * next file itself. Without threads, data is prepared and saved as soon as submitted.
+ * <p>
+ * A preparation doesn't save anything to the sensor context, it returns the save to run instead.
+ * The saves are run on the sensor thread, in the order the files were submitted, as the scanner
+ * API doesn't support concurrent calls.
+ */
+class PersistenceStage implements Closeable {
+
+  private static final int QUEUE_SIZE_PER_THREAD = 16;
+
+  @Nullable
+  private final ThreadPoolExecutor executor;
+  private final Deque<Future<Runnable>> pendingSaves = new ArrayDeque<>();
+
+  PersistenceStage(int threads) {
+    this.executor =
+      threads > 0
+        ? new ThreadPoolExecutor(
+          threads,
+          threads,
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD),
+          new ThreadPoolExecutor.CallerRunsPolicy()
+        )
+        : null;
+  }
+
+  /**
+   * Prepares the analysis data, on a background thread when there is one, and saves the data of
+   * the files whose preparation completed in the meantime.
+   */
+  void submit(Supplier<Runnable> preparation) {
+    if (executor == null) {
+      preparation.get().run();
+      return;
+    }
+    Callable<Runnable> task = preparation::get;
+    pendingSaves.add(executor.submit(task));
+    while (!pendingSaves.isEmpty() && pendingSaves.peek().isDone()) {
+      join(pendingSaves.poll()).run();
+    }
+  }
+
+  /**
+   * Waits for all the pending preparations and saves their data, in submission order
+   */
+  void await() {
+    while (!pendingSaves.isEmpty()) {
+      join(pendingSaves.poll()).run();
+    }
+  }
+
+  private static Runnable join(Future<Runnable> preparation) {
+    try {
+      return preparation.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while saving analysis data", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Failed to save analysis data", e.getCause());
+    }
+  }
+
+  @Override
+  public void close() {
+    pendingSaves.clear();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+/**
+ * Plans which TypeScript programs to create, and in which order, before creating any of them.
+ * <p>
+ * The tsconfig.json files of the project and the ones they reference are loaded up front, which
+ * only resolves their files without creating programs. Programs are then picked greedily: the next
+ * one is the program including the most files not covered by the previous ones, the smallest one
+ * first in case of a tie. Large programs shared by many files thus come first, and programs whose
+ * files are all covered already are not created at all.
+ */
+class ProgramPlanner {
+
+  private static final Logger LOG = Loggers.get(ProgramPlanner.class);
+
+  private final BridgeServer bridgeServer;
+
+  ProgramPlanner(BridgeServer bridgeServer) {
+    this.bridgeServer = bridgeServer;
+  }
+
+  /**
+   * Returns the tsconfig.json files to create programs of, in the order to create them
+   */
+  List<String> plan(List<String> tsConfigs, List<InputFile> inputFiles) {
+    var tsConfigFiles = loadTsConfigFiles(tsConfigs);
+    Map<String, InputFile> inputFilesByPath = new HashMap<>();
+    for (var inputFile : inputFiles) {
+      inputFilesByPath.put(TsConfigFile.normalizePath(inputFile.absolutePath()), inputFile);
+    }
+    Map<TsConfigFile, Set<InputFile>> filesByTsConfig = new LinkedHashMap<>();
+    for (var tsConfigFile : tsConfigFiles) {
+      filesByTsConfig.put(
+        tsConfigFile,
+        tsConfigFile.files
+          .stream()
+          .map(inputFilesByPath::get)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toSet())
+      );
+    }
+
+    List<String> plan = new ArrayList<>();
+    Set<InputFile> coveredFiles = new HashSet<>();
+    while (true) {
+      TsConfigFile next = null;
+      long nextGain = 0;
+      for (var entry : filesByTsConfig.entrySet()) {
+        var gain = entry.getValue().stream().filter(file -> !coveredFiles.contains(file)).count();
+        if (
+          gain > nextGain ||
+          (gain > 0 && gain == nextGain && entry.getKey().files.size() < next.files.size())
+        ) {
+          next = entry.getKey();
+          nextGain = gain;
+        }
+      }
+      if (next == null) {
+        break;
+      }
+      plan.add(next.filename);
+      coveredFiles.addAll(filesByTsConfig.remove(next));
+    }
+
+    filesByTsConfig
+      .keySet()
+      .forEach(tsConfigFile ->
+        LOG.debug(
+          "Skipping tsconfig.json with no file left to analyze: '{}'",
+          tsConfigFile.filename
+        )
+      );
+    LOG.info(
+      "Planned {} TypeScript program(s) out of {} tsconfig.json file(s)",
+      plan.size(),
+      tsConfigFiles.size()
+    );
+    return plan;
+  }
+
+  /**
+   * Loads the tsconfig.json files along with the ones they reference, transitively
+   */
+  private List<TsConfigFile> loadTsConfigFiles(List<String> tsConfigs) {
+    var workList = new ArrayDeque<>(tsConfigs);
+    Set<String> loaded = new HashSet<>();
+    List<TsConfigFile> tsConfigFiles = new ArrayList<>();
+    while (!workList.isEmpty()) {
+      // normalized as in AnalysisWithProgram, for project references to match
+      var tsConfig = Path.of(workList.pop()).toString();
+      if (loaded.add(tsConfig)) {
+        var tsConfigFile = bridgeServer.loadTsConfig(tsConfig);
+        tsConfigFiles.add(tsConfigFile);
+        workList.addAll(tsConfigFile.projectReferences);
+      }
+    }
+    return tsConfigFiles;
+  }
+}
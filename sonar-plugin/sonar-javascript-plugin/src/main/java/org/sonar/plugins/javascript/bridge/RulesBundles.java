@@ -73,16 +73,16 @@ public class RulesBundles {
   }
 
   /**
-   * Deploy bundles in temporary directory and return list of paths for deployed modules
+   * Deploy bundles in the custom-rules directory of the target, into a directory named after the hash
+   * of each bundle and reused across analyses, and return list of paths for deployed modules
    *
    */
   public List<Path> deploy(Path target) {
     List<Path> unpackedBundles = new ArrayList<>();
     bundleUrls.forEach(bundle -> {
       try {
-        Path location = Files.createTempDirectory(target, "custom-rules");
-        LOG.debug("Deploying custom rules bundle {} to {}", bundle, location);
-        BundleUtils.extractFromClasspath(bundle.openStream(), location);
+        LOG.debug("Deploying custom rules bundle {} to {}", bundle, target);
+        Path location = BundleUtils.extractOnce(bundle::openStream, target.resolve("custom-rules"));
         Path deployedBundle = location.resolve("package").toAbsolutePath();
         if (!Files.exists(deployedBundle)) {
           // Inside tgz we expect "package" directory, this is npm contract.
@@ -0,0 +1,140 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+
+/**
+ * Tokens of an analysis response, each being a location along with a text, e.g., the CPD tokens
+ * and their image or the highlights and their type of text.
+ * <p>
+ * Tokens are stored column by column rather than as one object per token: the coordinates of the
+ * locations are packed in a single array, and the texts, which mostly repeat, are interned in a
+ * table and referred to by index. Files with many tokens then cost a handful of arrays.
+ */
+public abstract class Tokens {
+
+  private static final int COORDINATES = 4;
+
+  private final int[] locations;
+  private final int[] texts;
+  private final String[] textTable;
+
+  Tokens(Builder builder) {
+    this.locations = Arrays.copyOf(builder.locations, builder.size * COORDINATES);
+    this.texts = Arrays.copyOf(builder.texts, builder.size);
+    this.textTable = builder.textTable.toArray(new String[0]);
+  }
+
+  public int size() {
+    return texts.length;
+  }
+
+  public boolean isEmpty() {
+    return texts.length == 0;
+  }
+
+  public int startLine(int token) {
+    return locations[token * COORDINATES];
+  }
+
+  public int startCol(int token) {
+    return locations[token * COORDINATES + 1];
+  }
+
+  public int endLine(int token) {
+    return locations[token * COORDINATES + 2];
+  }
+
+  public int endCol(int token) {
+    return locations[token * COORDINATES + 3];
+  }
+
+  TextRange textRange(int token, InputFile inputFile) {
+    return inputFile.newRange(startLine(token), startCol(token), endLine(token), endCol(token));
+  }
+
+  /**
+   * The text ranges of all the tokens in the file, in token order
+   */
+  TextRange[] textRanges(InputFile inputFile) {
+    var textRanges = new TextRange[size()];
+    for (int i = 0; i < textRanges.length; i++) {
+      textRanges[i] = textRange(i, inputFile);
+    }
+    return textRanges;
+  }
+
+  String text(int token) {
+    return textTable[texts[token]];
+  }
+
+  /**
+   * The index of the text of the token in {@link #textTable()}
+   */
+  public int textIndex(int token) {
+    return texts[token];
+  }
+
+  /**
+   * The distinct texts of the tokens
+   */
+  public List<String> textTable() {
+    return Collections.unmodifiableList(Arrays.asList(textTable));
+  }
+
+  static final class Builder {
+
+    private int[] locations = new int[16 * COORDINATES];
+    private int[] texts = new int[16];
+    private int size;
+    private final Map<String, Integer> textIndexes = new HashMap<>();
+    private final List<String> textTable = new ArrayList<>();
+
+    Builder add(int startLine, int startCol, int endLine, int endCol, String text) {
+      if (size == texts.length) {
+        texts = Arrays.copyOf(texts, size * 2);
+        locations = Arrays.copyOf(locations, size * 2 * COORDINATES);
+      }
+      var offset = size * COORDINATES;
+      locations[offset] = startLine;
+      locations[offset + 1] = startCol;
+      locations[offset + 2] = endLine;
+      locations[offset + 3] = endCol;
+      texts[size] =
+        textIndexes.computeIfAbsent(
+          text,
+          t -> {
+            textTable.add(t);
+            return textTable.size() - 1;
+          }
+        );
+      size++;
+      return this;
+    }
+  }
+}
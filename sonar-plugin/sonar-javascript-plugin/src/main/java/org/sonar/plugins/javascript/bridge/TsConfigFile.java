@@ -25,10 +25,12 @@ import java.io.IOException;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.sonar.api.batch.fs.InputFile;
@@ -39,6 +41,8 @@ class TsConfigFile implements Predicate<InputFile> {
 
   private static final Logger LOG = Loggers.get(TsConfigFile.class);
 
+  private static final Map<String, String> REAL_PATHS = new ConcurrentHashMap<>();
+
   static final TsConfigFile UNMATCHED_CONFIG = new TsConfigFile(
     "NO_CONFIG",
     emptyList(),
@@ -55,7 +59,15 @@ class TsConfigFile implements Predicate<InputFile> {
     this.projectReferences = projectReferences;
   }
 
+  /**
+   * Normalizes the path with its real path, which is memoized: the same files are usually part of
+   * several tsconfig.json files, and resolving a real path is a file system call.
+   */
   static String normalizePath(String path) {
+    return REAL_PATHS.computeIfAbsent(path, TsConfigFile::realPath);
+  }
+
+  private static String realPath(String path) {
     try {
       return Path
         .of(path)
@@ -68,26 +80,44 @@ class TsConfigFile implements Predicate<InputFile> {
     }
   }
 
+  /**
+   * Forgets the real paths resolved so far, which only hold for the current analysis
+   */
+  static void clearRealPaths() {
+    REAL_PATHS.clear();
+  }
+
   @Override
   public boolean test(InputFile inputFile) {
     var path = normalizePath(inputFile.absolutePath());
     return files.contains(path);
   }
 
+  /**
+   * Groups the input files by the first tsconfig.json file including them. The tsconfig.json files
+   * are indexed by the paths of their files, and the real paths of the input files are resolved in
+   * parallel, so that matching a file is a single lookup.
+   */
   static Map<TsConfigFile, List<InputFile>> inputFilesByTsConfig(
     List<TsConfigFile> tsConfigFiles,
     List<InputFile> inputFiles
   ) {
+    Map<String, TsConfigFile> tsConfigsByPath = new HashMap<>();
+    for (var tsConfigFile : tsConfigFiles) {
+      tsConfigFile.files.forEach(file -> tsConfigsByPath.putIfAbsent(file, tsConfigFile));
+    }
+    var paths = inputFiles
+      .parallelStream()
+      .map(inputFile -> normalizePath(inputFile.absolutePath()))
+      .collect(Collectors.toList());
+
     Map<TsConfigFile, List<InputFile>> result = new LinkedHashMap<>();
-    inputFiles.forEach(inputFile -> {
-      TsConfigFile tsconfig = tsConfigFiles
-        .stream()
-        .filter(tsConfigFile -> tsConfigFile.test(inputFile))
-        .findFirst()
-        .orElse(UNMATCHED_CONFIG);
+    for (int i = 0; i < inputFiles.size(); i++) {
+      var inputFile = inputFiles.get(i);
+      var tsconfig = tsConfigsByPath.getOrDefault(paths.get(i), UNMATCHED_CONFIG);
       LOG.debug("{} matched {}", inputFile.absolutePath(), tsconfig);
       result.computeIfAbsent(tsconfig, t -> new ArrayList<>()).add(inputFile);
-    });
+    }
     return result;
   }
 
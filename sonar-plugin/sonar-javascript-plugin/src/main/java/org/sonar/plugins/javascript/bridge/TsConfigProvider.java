@@ -29,13 +29,16 @@ import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.FilePredicate;
@@ -72,7 +75,8 @@ class TsConfigProvider {
    * Relying on (in order of priority)
    * 1. Property sonar.typescript.tsconfigPath(s)
    * 2. Looking up file system
-   * 3. Creating a tmp tsconfig.json listing all files
+   * 3. Creating a tmp tsconfig.json listing all files, or several ones listing the files by
+   *    directory when the size of generated programs is bounded
    */
   static List<String> getTsConfigs(
     ContextUtils contextUtils,
@@ -81,7 +85,11 @@ class TsConfigProvider {
   ) throws IOException {
     var defaultProvider = contextUtils.isSonarLint()
       ? new TsConfigProvider.WildcardTsConfigProvider(javaScriptProjectChecker, tsConfigFileCreator)
-      : new DefaultTsConfigProvider(tsConfigFileCreator, JavaScriptFilePredicate::getJsTsPredicate);
+      : new DefaultTsConfigProvider(
+        tsConfigFileCreator,
+        JavaScriptFilePredicate::getJsTsPredicate,
+        contextUtils.generatedProgramSize()
+      );
 
     var provider = new TsConfigProvider(
       List.of(new PropertyTsConfigProvider(), new LookupTsConfigProvider(), defaultProvider)
@@ -239,20 +247,74 @@ class TsConfigProvider {
     }
 
     abstract List<String> getDefaultTsConfigs(SensorContext context) throws IOException;
+
+    /**
+     * Generates a tsconfig.json file listing the given files, returns null if it failed
+     */
+    @Nullable
+    static String generateTsConfig(
+      Iterable<InputFile> inputFiles,
+      TsConfigFileCreator tsConfigFileCreator
+    ) {
+      var tsconfigs = new TsConfig(inputFiles, null).writeFileWith(tsConfigFileCreator);
+      return tsconfigs.isEmpty() ? null : tsconfigs.get(0);
+    }
+
+    /**
+     * Splits the files into partitions of at most the given size. The files of a directory are kept
+     * together, along with the ones of the next directories in path order while the partition is
+     * not full, unless a directory alone has more files than a partition can hold.
+     */
+    static List<List<InputFile>> partitionByDirectory(
+      Collection<InputFile> inputFiles,
+      int maxPartitionSize
+    ) {
+      var filesByDirectory = inputFiles
+        .stream()
+        .collect(
+          Collectors.groupingBy(
+            f -> Path.of(f.absolutePath()).getParent().toString(),
+            TreeMap::new,
+            Collectors.toList()
+          )
+        );
+      List<List<InputFile>> partitions = new ArrayList<>();
+      List<InputFile> partition = new ArrayList<>();
+      for (var directoryFiles : filesByDirectory.values()) {
+        if (!partition.isEmpty() && partition.size() + directoryFiles.size() > maxPartitionSize) {
+          partitions.add(partition);
+          partition = new ArrayList<>();
+        }
+        for (var file : directoryFiles) {
+          if (partition.size() == maxPartitionSize) {
+            partitions.add(partition);
+            partition = new ArrayList<>();
+          }
+          partition.add(file);
+        }
+      }
+      if (!partition.isEmpty()) {
+        partitions.add(partition);
+      }
+      return partitions;
+    }
   }
 
   static class DefaultTsConfigProvider extends GeneratedTsConfigFileProvider {
 
     private final Function<FileSystem, FilePredicate> filePredicateProvider;
     private final TsConfigFileCreator tsConfigFileCreator;
+    private final int maxProgramSize;
 
     DefaultTsConfigProvider(
       TsConfigFileCreator tsConfigFileCreator,
-      Function<FileSystem, FilePredicate> filePredicate
+      Function<FileSystem, FilePredicate> filePredicate,
+      int maxProgramSize
     ) {
       super(SonarProduct.SONARQUBE);
       this.tsConfigFileCreator = tsConfigFileCreator;
       this.filePredicateProvider = filePredicate;
+      this.maxProgramSize = maxProgramSize;
     }
 
     @Override
@@ -260,12 +322,36 @@ class TsConfigProvider {
       var inputFiles = context
         .fileSystem()
         .inputFiles(filePredicateProvider.apply(context.fileSystem()));
+      if (maxProgramSize > 0) {
+        return writePartitionedTsConfigs(inputFiles);
+      }
       var tsConfig = new TsConfig(inputFiles, null);
       var tsconfigFile = writeToJsonFile(tsConfig);
       LOG.debug("Using generated tsconfig.json file {}", tsconfigFile.getAbsolutePath());
       return singletonList(tsconfigFile.getAbsolutePath());
     }
 
+    /**
+     * Writes a tsconfig.json file per partition of the files, for no program to exceed the size
+     * budget. Each one is then analyzed as a program of its own. Failing to write one of them fails
+     * like for a single tsconfig.json file, rather than leaving its files without program.
+     */
+    private List<String> writePartitionedTsConfigs(Iterable<InputFile> inputFiles)
+      throws IOException {
+      List<InputFile> files = new ArrayList<>();
+      inputFiles.forEach(files::add);
+      List<String> tsconfigs = new ArrayList<>();
+      for (var partition : partitionByDirectory(files, maxProgramSize)) {
+        tsconfigs.add(writeToJsonFile(new TsConfig(partition, null)).getAbsolutePath());
+      }
+      LOG.debug(
+        "Using {} generated tsconfig.json file(s) of at most {} file(s)",
+        tsconfigs.size(),
+        maxProgramSize
+      );
+      return tsconfigs;
+    }
+
     private File writeToJsonFile(TsConfig tsConfig) throws IOException {
       String json = new Gson().toJson(tsConfig);
       return Path.of(tsConfigFileCreator.createTsConfigFile(json)).toFile();
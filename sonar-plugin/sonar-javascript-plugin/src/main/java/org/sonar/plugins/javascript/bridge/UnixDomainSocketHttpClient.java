@@ -0,0 +1,620 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+/**
+ * Minimal HTTP/1.1 client sending requests to the bridge server over a Unix domain socket, which
+ * the JDK client does not support. Each request opens its own connection, which the bridge server
+ * closes once the response is sent. Only what the bridge server needs is supported: requests with
+ * a body of known length, and responses with a fixed length or chunked body.
+ */
+class UnixDomainSocketHttpClient extends HttpClient {
+
+  private static final Logger LOG = Loggers.get(UnixDomainSocketHttpClient.class);
+  private static final int BUFFER_SIZE = 8192;
+
+  private final UnixDomainSocketAddress address;
+  private final Duration connectTimeout;
+  private final ExecutorService executor;
+  private final ScheduledExecutorService timeouts;
+
+  UnixDomainSocketHttpClient(Path socketPath, Duration connectTimeout) {
+    this.address = UnixDomainSocketAddress.of(socketPath);
+    this.connectTimeout = connectTimeout;
+    this.executor =
+      Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r);
+        thread.setName("bridge-unix-socket-client");
+        thread.setDaemon(true);
+        return thread;
+      });
+    this.timeouts =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r);
+        thread.setName("bridge-unix-socket-timeouts");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  @Override
+  public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+    throws IOException, InterruptedException {
+    try {
+      return sendAsync(request, bodyHandler).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+    HttpRequest request,
+    HttpResponse.BodyHandler<T> bodyHandler
+  ) {
+    var response = new CompletableFuture<HttpResponse<T>>();
+    executor.execute(() -> {
+      try {
+        exchange(request, bodyHandler, response);
+      } catch (IOException | RuntimeException e) {
+        response.completeExceptionally(e);
+      }
+    });
+    return response;
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+    HttpRequest request,
+    HttpResponse.BodyHandler<T> bodyHandler,
+    HttpResponse.PushPromiseHandler<T> pushPromiseHandler
+  ) {
+    return sendAsync(request, bodyHandler);
+  }
+
+  /**
+   * Sends the request and feeds the response body to the subscriber of the body handler. The
+   * response completes as soon as the subscriber provides the body, which for a streamed body
+   * happens before it is fully read.
+   */
+  private <T> void exchange(
+    HttpRequest request,
+    HttpResponse.BodyHandler<T> bodyHandler,
+    CompletableFuture<HttpResponse<T>> response
+  ) throws IOException {
+    try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+      var timeout = new Timeout(channel, request);
+      InputStream in;
+      int statusCode;
+      HttpHeaders headers;
+      timeout.start();
+      try {
+        channel.connect(address);
+        writeRequest(channel, request);
+        in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+        statusCode = readStatusCode(in);
+        headers = readHeaders(in);
+      } catch (IOException e) {
+        throw timeout.translate(e);
+      } finally {
+        timeout.cancel();
+      }
+      var subscriber = bodyHandler.apply(new ResponseInfo(statusCode, headers));
+      subscriber
+        .getBody()
+        .whenComplete((body, failure) -> {
+          if (failure != null) {
+            response.completeExceptionally(failure);
+          } else {
+            response.complete(new Response<>(request, statusCode, headers, body));
+          }
+        });
+      feed(subscriber, body(in, headers), timeout);
+    }
+  }
+
+  private static void writeRequest(SocketChannel channel, HttpRequest request)
+    throws IOException {
+    var publisher = request.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody());
+    if (publisher.contentLength() < 0) {
+      throw new IOException("Request bodies of unknown length are not supported");
+    }
+    var uri = request.uri();
+    var head = new StringBuilder()
+      .append(request.method())
+      .append(' ')
+      .append(uri.getRawPath())
+      .append(uri.getRawQuery() == null ? "" : ("?" + uri.getRawQuery()))
+      .append(" HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n")
+      .append("Content-Length: ")
+      .append(publisher.contentLength())
+      .append("\r\n");
+    request
+      .headers()
+      .map()
+      .forEach((name, values) ->
+        values.forEach(value -> head.append(name).append(": ").append(value).append("\r\n"))
+      );
+    head.append("\r\n");
+    write(channel, ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.US_ASCII)));
+
+    var written = new CompletableFuture<Void>();
+    publisher.subscribe(
+      new Flow.Subscriber<>() {
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+          this.subscription = subscription;
+          subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer buffer) {
+          try {
+            write(channel, buffer);
+          } catch (IOException e) {
+            subscription.cancel();
+            written.completeExceptionally(e);
+          }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+          written.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+          written.complete(null);
+        }
+      }
+    );
+    try {
+      written.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while sending the request", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static int readStatusCode(InputStream in) throws IOException {
+    var statusLine = readLine(in);
+    var parts = statusLine.split(" ", 3);
+    if (parts.length < 2 || !parts[0].startsWith("HTTP/1.")) {
+      throw new IOException("Invalid HTTP status line: " + statusLine);
+    }
+    try {
+      return Integer.parseInt(parts[1]);
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid HTTP status line: " + statusLine, e);
+    }
+  }
+
+  private static HttpHeaders readHeaders(InputStream in) throws IOException {
+    Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    String line;
+    while (!(line = readLine(in)).isEmpty()) {
+      var separator = line.indexOf(':');
+      if (separator <= 0) {
+        throw new IOException("Invalid HTTP header: " + line);
+      }
+      headers
+        .computeIfAbsent(line.substring(0, separator).trim(), name -> new ArrayList<>())
+        .add(line.substring(separator + 1).trim());
+    }
+    return HttpHeaders.of(headers, (name, value) -> true);
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    var line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != '\n') {
+      if (b == -1) {
+        throw new EOFException("Connection closed by the bridge server");
+      }
+      if (b != '\r') {
+        line.write(b);
+      }
+    }
+    return line.toString(StandardCharsets.US_ASCII);
+  }
+
+  private static InputStream body(InputStream in, HttpHeaders headers) {
+    if (headers.firstValue("Transfer-Encoding").filter("chunked"::equalsIgnoreCase).isPresent()) {
+      return new ChunkedInputStream(in);
+    }
+    // the connection is closed after the response, the body ends with the stream otherwise
+    return in;
+  }
+
+  /**
+   * Pushes the body to the subscriber, never more buffers than it requested. The timeout of the
+   * request applies to each read of the body, a streamed body can thus take longer as a whole as
+   * long as the bridge server keeps sending it.
+   */
+  private static void feed(
+    Flow.Subscriber<List<ByteBuffer>> subscriber,
+    InputStream body,
+    Timeout timeout
+  ) {
+    var subscription = new Subscription();
+    subscriber.onSubscribe(subscription);
+    try {
+      var buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = read(body, buffer, timeout)) != -1) {
+        if (!subscription.awaitDemand()) {
+          return;
+        }
+        var chunk = ByteBuffer.allocate(read).put(buffer, 0, read).flip();
+        subscriber.onNext(List.of(chunk));
+      }
+      subscriber.onComplete();
+    } catch (IOException e) {
+      subscriber.onError(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      subscriber.onError(e);
+    }
+  }
+
+  private static int read(InputStream body, byte[] buffer, Timeout timeout) throws IOException {
+    timeout.start();
+    try {
+      return body.read(buffer);
+    } catch (IOException e) {
+      throw timeout.translate(e);
+    } finally {
+      timeout.cancel();
+    }
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+    timeouts.shutdownNow();
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to close the connection to the bridge server", e);
+    }
+  }
+
+  @Override
+  public Optional<CookieHandler> cookieHandler() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Duration> connectTimeout() {
+    return Optional.of(connectTimeout);
+  }
+
+  @Override
+  public Redirect followRedirects() {
+    return Redirect.NEVER;
+  }
+
+  @Override
+  public Optional<ProxySelector> proxy() {
+    return Optional.empty();
+  }
+
+  /**
+   * TLS is not used over Unix domain sockets, the default context is returned as required by the
+   * contract of {@link HttpClient}.
+   */
+  @Override
+  public SSLContext sslContext() {
+    try {
+      return SSLContext.getDefault();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public SSLParameters sslParameters() {
+    return new SSLParameters();
+  }
+
+  @Override
+  public Optional<Authenticator> authenticator() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Version version() {
+    return Version.HTTP_1_1;
+  }
+
+  @Override
+  public Optional<Executor> executor() {
+    return Optional.of(executor);
+  }
+
+  /**
+   * Timeout of the request, closing the connection when a read takes longer. It is started again
+   * for each read, the response headers being read at once.
+   */
+  private class Timeout {
+
+    private final SocketChannel channel;
+    private final HttpRequest request;
+    private final AtomicBoolean timedOut = new AtomicBoolean();
+    private ScheduledFuture<?> scheduled;
+
+    Timeout(SocketChannel channel, HttpRequest request) {
+      this.channel = channel;
+      this.request = request;
+    }
+
+    void start() {
+      request
+        .timeout()
+        .ifPresent(duration ->
+          scheduled =
+            timeouts.schedule(
+              () -> {
+                timedOut.set(true);
+                closeQuietly(channel);
+              },
+              duration.toMillis(),
+              TimeUnit.MILLISECONDS
+            )
+        );
+    }
+
+    void cancel() {
+      if (scheduled != null) {
+        scheduled.cancel(false);
+        scheduled = null;
+      }
+    }
+
+    IOException translate(IOException e) {
+      if (timedOut.get()) {
+        return new HttpTimeoutException("Request " + request.uri().getPath() + " timed out");
+      }
+      return e;
+    }
+  }
+
+  private static class Subscription implements Flow.Subscription {
+
+    private long demand;
+    private boolean cancelled;
+
+    @Override
+    public synchronized void request(long n) {
+      demand = demand + n < 0 ? Long.MAX_VALUE : (demand + n);
+      notifyAll();
+    }
+
+    @Override
+    public synchronized void cancel() {
+      cancelled = true;
+      notifyAll();
+    }
+
+    synchronized boolean awaitDemand() throws InterruptedException {
+      while (demand == 0 && !cancelled) {
+        wait();
+      }
+      if (cancelled) {
+        return false;
+      }
+      demand--;
+      return true;
+    }
+  }
+
+  private static class ChunkedInputStream extends InputStream {
+
+    private final InputStream in;
+    private int remaining;
+    private boolean eof;
+
+    ChunkedInputStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      var b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : (b[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (eof) {
+        return -1;
+      }
+      if (remaining == 0) {
+        var sizeLine = readLine(in);
+        var extension = sizeLine.indexOf(';');
+        var size = extension < 0 ? sizeLine : sizeLine.substring(0, extension);
+        try {
+          remaining = Integer.parseInt(size.trim(), 16);
+        } catch (NumberFormatException e) {
+          throw new IOException("Invalid chunk size: " + sizeLine, e);
+        }
+        if (remaining == 0) {
+          eof = true;
+          while (!readLine(in).isEmpty()) {
+            // skip trailers
+          }
+          return -1;
+        }
+      }
+      var read = in.read(b, off, Math.min(len, remaining));
+      if (read == -1) {
+        throw new EOFException("Connection closed by the bridge server");
+      }
+      remaining -= read;
+      if (remaining == 0) {
+        readLine(in);
+      }
+      return read;
+    }
+  }
+
+  private static class ResponseInfo implements HttpResponse.ResponseInfo {
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+
+    ResponseInfo(int statusCode, HttpHeaders headers) {
+      this.statusCode = statusCode;
+      this.headers = headers;
+    }
+
+    @Override
+    public int statusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public HttpHeaders headers() {
+      return headers;
+    }
+
+    @Override
+    public Version version() {
+      return Version.HTTP_1_1;
+    }
+  }
+
+  private static class Response<T> implements HttpResponse<T> {
+
+    private final HttpRequest request;
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final T body;
+
+    Response(HttpRequest request, int statusCode, HttpHeaders headers, T body) {
+      this.request = request;
+      this.statusCode = statusCode;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    @Override
+    public int statusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public HttpRequest request() {
+      return request;
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+      return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+      return headers;
+    }
+
+    @Override
+    public T body() {
+      return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+      return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+      return request.uri();
+    }
+
+    @Override
+    public Version version() {
+      return Version.HTTP_1_1;
+    }
+  }
+}
@@ -33,9 +33,13 @@ import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.CancellationException;
 import org.sonar.plugins.javascript.JavaScriptLanguage;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.cache.CacheAnalysis;
 import org.sonar.plugins.javascript.bridge.cache.CacheStrategies;
+import org.sonar.plugins.javascript.bridge.cache.CacheStrategy;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 
 public class YamlSensor extends AbstractBridgeSensor {
@@ -48,6 +52,7 @@ public class YamlSensor extends AbstractBridgeSensor {
   private final JsTsChecks checks;
   private final AnalysisProcessor analysisProcessor;
   private AnalysisMode analysisMode;
+  private AnalysisBatch batch;
 
   public YamlSensor(
     JsTsChecks checks,
@@ -82,6 +87,8 @@ public class YamlSensor extends AbstractBridgeSensor {
         context.fileSystem().baseDir().getAbsolutePath(),
         exclusions
       );
+      var batchSize = contextUtils.batchSize();
+      batch = batchSize > 1 ? new AnalysisBatch(bridgeServer, batchSize) : null;
       for (var inputFile : inputFiles) {
         if (context.isCancelled()) {
           throw new CancellationException(
@@ -91,6 +98,7 @@ public class YamlSensor extends AbstractBridgeSensor {
         progressReport.nextFile(inputFile.absolutePath());
         analyze(inputFile);
       }
+      saveBatch();
       success = true;
     } finally {
       if (success) {
@@ -147,8 +155,11 @@ public class YamlSensor extends AbstractBridgeSensor {
 
   private void analyze(InputFile file) throws IOException {
     var cacheStrategy = CacheStrategies.getStrategyFor(context, file);
-    // When there is no analysis required, the sensor doesn't need to do anything as the CPD tokens are handled by the sonar-iac plugin.
+    // When there is no analysis required, the sensor only restores the UCFG files as the CPD tokens are handled by the sonar-iac plugin.
     // See AnalysisProcessor for more details.
+    if (!cacheStrategy.isAnalysisRequired() && !cacheStrategy.restoreFromCache(null)) {
+      cacheStrategy = CacheStrategies.fallbackToAnalysis(cacheStrategy, file);
+    }
     if (cacheStrategy.isAnalysisRequired()) {
       try {
         LOG.debug("Analyzing file: {}", file.uri());
@@ -163,16 +174,40 @@ public class YamlSensor extends AbstractBridgeSensor {
           null,
           analysisMode.getLinterIdFor(file)
         );
+        if (batch != null) {
+          var batchedRequest = new BatchedRequest(BatchedAnalysis.YAML, jsAnalysisRequest);
+          batch.add(file, cacheStrategy, batchedRequest);
+          if (batch.isFull()) {
+            saveBatch();
+          }
+          return;
+        }
         var response = bridgeServer.analyzeYaml(jsAnalysisRequest);
-        analysisProcessor.processResponse(context, checks, file, response);
-        cacheStrategy.writeAnalysisToCache(
-          CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
-          file
-        );
+        saveResponse(file, cacheStrategy, response);
       } catch (IOException e) {
         LOG.error("Failed to get response while analyzing " + file.uri(), e);
         throw e;
       }
     }
   }
+
+  /**
+   * Sends the files collected in the batch and saves their responses as they are streamed back.
+   */
+  private void saveBatch() throws IOException {
+    if (batch != null && !batch.isEmpty()) {
+      for (var pendingAnalysis : batch.send()) {
+        saveResponse(pendingAnalysis.file, pendingAnalysis.cacheStrategy, pendingAnalysis.join());
+      }
+    }
+  }
+
+  private void saveResponse(InputFile file, CacheStrategy cacheStrategy, AnalysisResponse response)
+    throws IOException {
+    analysisProcessor.processResponse(context, checks, file, response);
+    cacheStrategy.writeAnalysisToCache(
+      CacheAnalysis.fromResponse(response.ucfgPaths, response.cpdTokens),
+      file
+    );
+  }
 }
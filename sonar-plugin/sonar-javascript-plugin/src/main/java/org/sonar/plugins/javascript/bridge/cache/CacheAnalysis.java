@@ -21,35 +21,28 @@ package org.sonar.plugins.javascript.bridge.cache;
 
 import java.util.List;
 import javax.annotation.Nullable;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.CpdTokens;
 
 public class CacheAnalysis {
 
   private final List<String> ucfgPaths;
-  private final BridgeServer.CpdToken[] cpdTokens;
+  private final CpdTokens cpdTokens;
 
-  public CacheAnalysis(@Nullable List<String> ucfgPaths, BridgeServer.CpdToken[] cpdTokens) {
+  public CacheAnalysis(@Nullable List<String> ucfgPaths, CpdTokens cpdTokens) {
     this.ucfgPaths = ucfgPaths;
     this.cpdTokens = cpdTokens;
   }
 
-  public static CacheAnalysis fromResponse(
-    List<String> ucfgPaths,
-    BridgeServer.CpdToken[] cpdTokens
-  ) {
+  public static CacheAnalysis fromResponse(List<String> ucfgPaths, CpdTokens cpdTokens) {
     return new CacheAnalysis(ucfgPaths, cpdTokens);
   }
 
-  static CacheAnalysis fromCache(BridgeServer.CpdToken[] cpdTokens) {
-    return new CacheAnalysis(null, cpdTokens);
-  }
-
   @Nullable
   public List<String> getUcfgPaths() {
     return ucfgPaths;
   }
 
-  public BridgeServer.CpdToken[] getCpdTokens() {
+  public CpdTokens getCpdTokens() {
     return cpdTokens;
   }
 }
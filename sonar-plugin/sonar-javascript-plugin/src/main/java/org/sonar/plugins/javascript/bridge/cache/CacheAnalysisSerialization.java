@@ -19,13 +19,11 @@
  */
 package org.sonar.plugins.javascript.bridge.cache;
 
-import static java.util.Arrays.asList;
-
 import java.io.IOException;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
 
 public class CacheAnalysisSerialization extends CacheSerialization {
 
@@ -54,16 +52,25 @@ public class CacheAnalysisSerialization extends CacheSerialization {
     }
   }
 
-  CacheAnalysis readFromCache() throws IOException {
-    ucfgFileSerialization.readFromCache();
+  FilesManifest readUcfgManifest() throws IOException {
+    return ucfgFileSerialization.readManifest();
+  }
 
-    var cpdData = cpdSerialization.readFromCache();
-    return CacheAnalysis.fromCache(cpdData.getCpdTokens().toArray(new BridgeServer.CpdToken[0]));
+  /**
+   * Restores the UCFG files of the manifest in the working directory and streams the CPD tokens
+   * to the consumer, the CPD tokens being not read at all without consumer.
+   */
+  void readFromCache(FilesManifest ucfgManifest, @Nullable CpdTokenConsumer cpdTokens)
+    throws IOException {
+    ucfgFileSerialization.readFromCache(ucfgManifest);
+    if (cpdTokens != null) {
+      cpdSerialization.readFromCache(cpdTokens);
+    }
   }
 
   void writeToCache(CacheAnalysis analysis, InputFile file) throws IOException {
     ucfgFileSerialization.writeToCache(analysis.getUcfgPaths());
-    cpdSerialization.writeToCache(new CpdData(asList(analysis.getCpdTokens())));
+    cpdSerialization.writeToCache(new CpdData(analysis.getCpdTokens()));
     fileMetadataSerialization.writeToCache(FileMetadata.from(file));
   }
 
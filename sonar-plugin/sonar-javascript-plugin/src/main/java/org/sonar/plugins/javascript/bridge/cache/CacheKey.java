@@ -46,6 +46,10 @@ class CacheKey {
     return new CacheKey(emptyList(), pluginVersion, inputFile.key());
   }
 
+  static CacheKey forTsConfig(String relativePath, @Nullable String pluginVersion) {
+    return new CacheKey(emptyList(), pluginVersion, relativePath);
+  }
+
   CacheKey forCpd() {
     return withPrefix("js", "cpd");
   }
@@ -61,6 +65,14 @@ class CacheKey {
     );
   }
 
+  CacheKey forProgramState() {
+    return withPrefix("js", "tsbuildinfo");
+  }
+
+  CacheKey forDependencies() {
+    return withPrefix("js", "dependencies");
+  }
+
   CacheKey forFileMetadata() {
     return withPrefix("js", "filemetadata");
   }
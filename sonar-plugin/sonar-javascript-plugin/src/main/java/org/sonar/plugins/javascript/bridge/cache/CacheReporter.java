@@ -69,6 +69,18 @@ class CacheReporter {
     getCounter(missReason).incrementAndGet();
   }
 
+  /**
+   * Counts the file previously counted as a hit as a miss instead
+   */
+  void replaceHit(
+    CacheStrategy strategy,
+    InputFile inputFile,
+    CacheStrategies.MissReason missReason
+  ) {
+    getCounter(null).decrementAndGet();
+    logAndIncrement(strategy, inputFile, missReason);
+  }
+
   void reset() {
     counters.clear();
   }
@@ -24,6 +24,7 @@ import static org.sonar.plugins.javascript.bridge.cache.CacheStrategy.readAndWri
 import static org.sonar.plugins.javascript.bridge.cache.CacheStrategy.writeOnly;
 
 import java.io.IOException;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputFile;
@@ -42,7 +43,7 @@ public class CacheStrategies {
 
   private CacheStrategies() {}
 
-  private static boolean isRuntimeApiCompatible(SensorContext context) {
+  static boolean isRuntimeApiCompatible(SensorContext context) {
     var isVersionValid = context
       .runtime()
       .getApiVersion()
@@ -66,13 +67,34 @@ public class CacheStrategies {
 
   public static CacheStrategy getStrategyFor(SensorContext context, InputFile inputFile)
     throws IOException {
-    return getStrategyFor(context, inputFile, PluginInfo.getVersion());
+    return getStrategyFor(context, inputFile, false);
+  }
+
+  /**
+   * Same as {@link #getStrategyFor(SensorContext, InputFile)}, the analysis of an unchanged file
+   * being not restored from the cache when one of its dependencies changed.
+   */
+  public static CacheStrategy getStrategyFor(
+    SensorContext context,
+    InputFile inputFile,
+    boolean dependencyChanged
+  ) throws IOException {
+    return getStrategyFor(context, inputFile, PluginInfo.getVersion(), dependencyChanged);
   }
 
   static CacheStrategy getStrategyFor(
     SensorContext context,
     InputFile inputFile,
     @Nullable String pluginVersion
+  ) throws IOException {
+    return getStrategyFor(context, inputFile, pluginVersion, false);
+  }
+
+  static CacheStrategy getStrategyFor(
+    SensorContext context,
+    InputFile inputFile,
+    @Nullable String pluginVersion,
+    boolean dependencyChanged
   ) throws IOException {
     if (!isRuntimeApiCompatible(context)) {
       var strategy = noCache();
@@ -96,34 +118,50 @@ public class CacheStrategies {
       return strategy;
     }
 
+    if (dependencyChanged) {
+      var strategy = writeOnly(serialization);
+      REPORTER.logAndIncrement(strategy, inputFile, MissReason.DEPENDENCY_CHANGED);
+      return strategy;
+    }
+
     if (!serialization.isInCache()) {
       var strategy = writeOnly(serialization);
       REPORTER.logAndIncrement(strategy, inputFile, MissReason.FILE_NOT_IN_CACHE);
       return strategy;
     }
 
-    var cacheAnalysis = readFromCache(serialization);
-    if (cacheAnalysis == null) {
+    // the payloads of the entries are only read when the analysis is restored
+    var ucfgManifest = readUcfgManifest(serialization);
+    if (ucfgManifest == null) {
       var strategy = writeOnly(serialization);
       REPORTER.logAndIncrement(strategy, inputFile, MissReason.CACHE_CORRUPTED);
       return strategy;
     }
 
-    var strategy = readAndWrite(cacheAnalysis, serialization);
+    var strategy = readAndWrite(serialization, ucfgManifest);
     REPORTER.logAndIncrement(strategy, inputFile, null);
     return strategy;
   }
 
+  /**
+   * Returns the strategy to analyze the file with when its analysis can't be restored from the
+   * cache, the file being then reported as a miss because of a corrupted cache rather than a hit.
+   */
+  public static CacheStrategy fallbackToAnalysis(CacheStrategy cacheStrategy, InputFile inputFile) {
+    var strategy = cacheStrategy.toWriteOnly();
+    REPORTER.replaceHit(strategy, inputFile, MissReason.CACHE_CORRUPTED);
+    return strategy;
+  }
+
   private static boolean isSameFile(FileMetadata fileMetadata, InputFile inputFile)
     throws IOException {
     return fileMetadata.compareTo(inputFile);
   }
 
-  static CacheAnalysis readFromCache(CacheAnalysisSerialization serialization) {
+  @CheckForNull
+  static FilesManifest readUcfgManifest(CacheAnalysisSerialization serialization) {
     try {
-      var cacheAnalysis = serialization.readFromCache();
-      serialization.copyFromPrevious();
-      return cacheAnalysis;
+      return serialization.readUcfgManifest();
     } catch (IOException e) {
       LOG.error("Failure when reading cache entry", e);
       return null;
@@ -132,6 +170,7 @@ public class CacheStrategies {
 
   public static void reset() {
     REPORTER.reset();
+    FileFingerprint.clear();
   }
 
   public static void logReport() {
@@ -143,6 +182,7 @@ public class CacheStrategies {
     CACHE_DISABLED("cache is disabled"),
     ANALYSIS_MODE_INELIGIBLE("current analysis requires all files to be analyzed"),
     FILE_CHANGED("the current file is changed"),
+    DEPENDENCY_CHANGED("a dependency of the current file is changed"),
     FILE_NOT_IN_CACHE("the current file is not cached"),
     CACHE_CORRUPTED("the cache is corrupted");
 
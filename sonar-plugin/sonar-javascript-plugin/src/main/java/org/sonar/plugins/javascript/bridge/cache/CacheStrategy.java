@@ -23,24 +23,28 @@ import java.io.IOException;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
 
 public class CacheStrategy {
 
+  private static final Logger LOG = Loggers.get(CacheStrategy.class);
+
   static final String NO_CACHE = "NO_CACHE";
   static final String READ_AND_WRITE = "READ_AND_WRITE";
   static final String WRITE_ONLY = "WRITE_ONLY";
 
   private final String name;
-  private final CacheAnalysis cacheAnalysis;
+  private final FilesManifest ucfgManifest;
   private final CacheAnalysisSerialization serialization;
 
   private CacheStrategy(
     String name,
-    @Nullable CacheAnalysis cacheAnalysis,
+    @Nullable FilesManifest ucfgManifest,
     @Nullable CacheAnalysisSerialization serialization
   ) {
     this.name = name;
-    this.cacheAnalysis = cacheAnalysis;
+    this.ucfgManifest = ucfgManifest;
     this.serialization = serialization;
   }
 
@@ -53,10 +57,10 @@ public class CacheStrategy {
   }
 
   static CacheStrategy readAndWrite(
-    CacheAnalysis cacheAnalysis,
-    CacheAnalysisSerialization serialization
+    CacheAnalysisSerialization serialization,
+    FilesManifest ucfgManifest
   ) {
-    return new CacheStrategy(READ_AND_WRITE, cacheAnalysis, serialization);
+    return new CacheStrategy(READ_AND_WRITE, ucfgManifest, serialization);
   }
 
   String getName() {
@@ -64,7 +68,7 @@ public class CacheStrategy {
   }
 
   public boolean isAnalysisRequired() {
-    return cacheAnalysis == null;
+    return ucfgManifest == null;
   }
 
   public void writeAnalysisToCache(CacheAnalysis analysis, InputFile file) throws IOException {
@@ -73,7 +77,27 @@ public class CacheStrategy {
     }
   }
 
-  public CacheAnalysis readAnalysisFromCache() {
-    return Objects.requireNonNull(cacheAnalysis);
+  /**
+   * Restores the analysis from the cache: the UCFG files are written back to the working directory
+   * and the CPD tokens, if needed, are streamed to the consumer. The cache entries are carried over
+   * to the next analysis once read. They are not if they can't be read, in which case false is
+   * returned and the file is to be analyzed, see {@link CacheStrategies#fallbackToAnalysis}.
+   */
+  public boolean restoreFromCache(@Nullable CpdTokenConsumer cpdTokens) {
+    try {
+      Objects.requireNonNull(serialization).readFromCache(
+        Objects.requireNonNull(ucfgManifest),
+        cpdTokens
+      );
+      serialization.copyFromPrevious();
+      return true;
+    } catch (IOException e) {
+      LOG.error("Failure when reading cache entry", e);
+      return false;
+    }
+  }
+
+  CacheStrategy toWriteOnly() {
+    return writeOnly(Objects.requireNonNull(serialization));
   }
 }
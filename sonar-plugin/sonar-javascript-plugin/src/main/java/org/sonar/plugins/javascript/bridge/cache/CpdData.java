@@ -19,18 +19,17 @@
  */
 package org.sonar.plugins.javascript.bridge.cache;
 
-import java.util.List;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.CpdTokens;
 
 class CpdData {
 
-  private final List<BridgeServer.CpdToken> cpdTokens;
+  private final CpdTokens cpdTokens;
 
-  CpdData(List<BridgeServer.CpdToken> cpdTokens) {
-    this.cpdTokens = List.copyOf(cpdTokens);
+  CpdData(CpdTokens cpdTokens) {
+    this.cpdTokens = cpdTokens;
   }
 
-  List<BridgeServer.CpdToken> getCpdTokens() {
+  CpdTokens getCpdTokens() {
     return cpdTokens;
   }
 }
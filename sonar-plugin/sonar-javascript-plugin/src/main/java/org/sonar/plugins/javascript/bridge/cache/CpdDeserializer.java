@@ -19,10 +19,11 @@
  */
 package org.sonar.plugins.javascript.bridge.cache;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.List;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.CpdTokens;
 
 public class CpdDeserializer {
 
@@ -31,49 +32,43 @@ public class CpdDeserializer {
 
   private StringTable stringTable;
 
-  private CpdDeserializer(byte[] data, byte[] stringTable) {
+  private CpdDeserializer(InputStream data, byte[] stringTable) {
     in = new VarLengthInputStream(data);
     stringTableIn = new VarLengthInputStream(stringTable);
   }
 
   public static CpdData fromBinary(byte[] data, byte[] stringTable) throws IOException {
-    var deserializer = new CpdDeserializer(data, stringTable);
-    return deserializer.convert();
+    var cpdTokens = CpdTokens.builder();
+    readTokens(new ByteArrayInputStream(data), stringTable, cpdTokens::add);
+    return new CpdData(cpdTokens.build());
   }
 
-  private CpdData convert() throws IOException {
+  /**
+   * Reads the tokens one by one from the data, without holding them in memory
+   */
+  static void readTokens(InputStream data, byte[] stringTable, CpdTokenConsumer consumer)
+    throws IOException {
+    new CpdDeserializer(data, stringTable).convert(consumer);
+  }
+
+  private void convert(CpdTokenConsumer consumer) throws IOException {
     try (in; stringTableIn) {
       stringTable = readStringTable();
 
       var sizeOfCpdTokens = readInt();
-      var cpdTokens = new ArrayList<BridgeServer.CpdToken>(sizeOfCpdTokens);
 
       for (int i = 0; i < sizeOfCpdTokens; i++) {
-        readCpdToken(cpdTokens);
+        consumer.accept(readInt(), readInt(), readInt(), readInt(), readString());
       }
 
       if (!"END".equals(in.readUTF())) {
         throw new IOException("Can't read data from cache, format corrupted");
       }
-
-      return new CpdData(cpdTokens);
     } catch (IOException e) {
       throw new IOException("Can't deserialize data from the cache", e);
     }
   }
 
-  private void readCpdToken(List<BridgeServer.CpdToken> cpdTokens) throws IOException {
-    var cpdToken = new BridgeServer.CpdToken();
-    var location = new BridgeServer.Location();
-    location.setStartLine(readInt());
-    location.setStartCol(readInt());
-    location.setEndLine(readInt());
-    location.setEndCol(readInt());
-    cpdToken.setLocation(location);
-    cpdToken.setImage(readString());
-    cpdTokens.add(cpdToken);
-  }
-
   private int readInt() throws IOException {
     return in.readInt();
   }
@@ -19,6 +19,7 @@
  */
 package org.sonar.plugins.javascript.bridge.cache;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import org.sonar.api.batch.sensor.SensorContext;
 
@@ -48,10 +49,14 @@ class CpdSerialization extends CacheSerialization {
     cpdStringTableSerialization.copyFromPrevious();
   }
 
-  CpdData readFromCache() throws IOException {
-    var data = cpdDataSerialization.readBytesFromCache();
+  /**
+   * Streams the cached tokens to the consumer, only the string table is read at once
+   */
+  void readFromCache(CpdTokenConsumer consumer) throws IOException {
     var stringTable = cpdStringTableSerialization.readBytesFromCache();
-    return CpdDeserializer.fromBinary(data, stringTable);
+    try (var data = new BufferedInputStream(cpdDataSerialization.getInputStream())) {
+      CpdDeserializer.readTokens(data, stringTable, consumer);
+    }
   }
 
   void writeToCache(CpdData cpdData) throws IOException {
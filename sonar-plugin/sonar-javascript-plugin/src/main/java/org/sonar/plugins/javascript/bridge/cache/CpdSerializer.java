@@ -22,8 +22,6 @@ package org.sonar.plugins.javascript.bridge.cache;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
-import javax.annotation.Nullable;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
 
 class CpdSerializer {
 
@@ -45,9 +43,19 @@ class CpdSerializer {
   private SerializationResult convert(CpdData cpdData) throws IOException {
     try (out; stream) {
       var cpdTokens = cpdData.getCpdTokens();
+      // the images repeat, they are looked up in the string table once per distinct image
+      var textTable = cpdTokens.textTable();
+      var stringIndexes = new int[textTable.size()];
+      for (int i = 0; i < stringIndexes.length; i++) {
+        stringIndexes[i] = stringTable.getIndex(textTable.get(i));
+      }
       writeInt(cpdTokens.size());
-      for (var cpdToken : cpdTokens) {
-        write(cpdToken);
+      for (int i = 0; i < cpdTokens.size(); i++) {
+        writeInt(cpdTokens.startLine(i));
+        writeInt(cpdTokens.startCol(i));
+        writeInt(cpdTokens.endLine(i));
+        writeInt(cpdTokens.endCol(i));
+        writeInt(stringIndexes[cpdTokens.textIndex(i)]);
       }
 
       out.writeUTF("END");
@@ -58,19 +66,6 @@ class CpdSerializer {
     }
   }
 
-  private void write(BridgeServer.CpdToken cpdToken) throws IOException {
-    var location = cpdToken.getLocation();
-    writeInt(location.getStartLine());
-    writeInt(location.getStartCol());
-    writeInt(location.getEndLine());
-    writeInt(location.getEndCol());
-    writeText(cpdToken.getImage());
-  }
-
-  private void writeText(@Nullable String text) throws IOException {
-    out.writeInt(stringTable.getIndex(text));
-  }
-
   private void writeInt(int number) throws IOException {
     out.writeInt(number);
   }
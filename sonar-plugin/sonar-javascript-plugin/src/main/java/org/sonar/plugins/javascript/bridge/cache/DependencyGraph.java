@@ -0,0 +1,160 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.bridge.PluginInfo;
+
+/**
+ * Files each file depends on, as resolved by the bridge server from the imports of the file, saved
+ * in the analysis cache per file. The dependencies saved by the previous analysis tell which of
+ * the unchanged files are affected by the changed ones: the files which depend on them, directly
+ * or not. The issues of these files may change along with the types they use, so their analysis
+ * can't be restored from the cache.
+ */
+public class DependencyGraph {
+
+  private static final Logger LOG = Loggers.get(DependencyGraph.class);
+
+  private final SensorContext context;
+  private final Path baseDir;
+  private final Set<InputFile> affectedFiles;
+
+  private DependencyGraph(SensorContext context, Set<InputFile> affectedFiles) {
+    this.context = context;
+    this.baseDir = context.fileSystem().baseDir().toPath();
+    this.affectedFiles = affectedFiles;
+  }
+
+  /**
+   * Loads the dependencies of the input files saved by the previous analysis, and computes the
+   * unchanged files affected by the changed ones.
+   */
+  public static DependencyGraph load(SensorContext context, List<InputFile> inputFiles) {
+    if (!CacheStrategies.isRuntimeApiCompatible(context) || !context.canSkipUnchangedFiles()) {
+      return new DependencyGraph(context, Set.of());
+    }
+    var baseDir = context.fileSystem().baseDir().toPath();
+    Map<String, InputFile> unchangedFiles = new HashMap<>();
+    Set<String> changedFiles = new HashSet<>();
+    for (var inputFile : inputFiles) {
+      var path = relativePath(baseDir, Path.of(inputFile.uri()));
+      if (inputFile.status() == InputFile.Status.SAME) {
+        unchangedFiles.put(path, inputFile);
+      } else {
+        changedFiles.add(path);
+      }
+    }
+
+    Map<String, Set<InputFile>> dependents = new HashMap<>();
+    for (var entry : unchangedFiles.entrySet()) {
+      for (var dependency : readDependencies(context, entry.getValue())) {
+        if (!unchangedFiles.containsKey(dependency)) {
+          // the dependency changed, or was deleted
+          changedFiles.add(dependency);
+        }
+        dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(entry.getValue());
+      }
+    }
+
+    Set<InputFile> affectedFiles = new HashSet<>();
+    var workList = new ArrayDeque<>(changedFiles);
+    while (!workList.isEmpty()) {
+      for (var dependent : dependents.getOrDefault(workList.pop(), Set.of())) {
+        if (affectedFiles.add(dependent)) {
+          workList.add(relativePath(baseDir, Path.of(dependent.uri())));
+        }
+      }
+    }
+    LOG.debug(
+      "Found {} unchanged file(s) depending on {} changed file(s)",
+      affectedFiles.size(),
+      changedFiles.size()
+    );
+    return new DependencyGraph(context, affectedFiles);
+  }
+
+  private static List<String> readDependencies(SensorContext context, InputFile inputFile) {
+    var serialization = serialization(context, inputFile);
+    if (!serialization.isInCache()) {
+      return List.of();
+    }
+    try {
+      return List.of(serialization.readFromCache());
+    } catch (IOException e) {
+      LOG.debug("Failed to read the dependencies of " + inputFile, e);
+      return List.of();
+    }
+  }
+
+  private static JsonSerialization<String[]> serialization(
+    SensorContext context,
+    InputFile inputFile
+  ) {
+    var cacheKey = CacheKey.forFile(inputFile, PluginInfo.getVersion()).forDependencies();
+    return new JsonSerialization<>(String[].class, context, cacheKey);
+  }
+
+  private static String relativePath(Path baseDir, Path path) {
+    return baseDir.relativize(path.normalize()).toString().replace('\\', '/');
+  }
+
+  /**
+   * Whether the file is unchanged, but depends on changed files
+   */
+  public boolean isAffected(InputFile file) {
+    return affectedFiles.contains(file);
+  }
+
+  /**
+   * Saves the dependencies of the analyzed file, given by absolute path, for the next analysis
+   */
+  public void record(InputFile file, List<String> dependencies) {
+    if (!CacheStrategies.isRuntimeApiCompatible(context) || dependencies.isEmpty()) {
+      return;
+    }
+    var paths = dependencies
+      .stream()
+      .map(dependency -> relativePath(baseDir, Path.of(dependency)))
+      .toArray(String[]::new);
+    serialization(context, file).writeToCache(paths);
+  }
+
+  /**
+   * Keeps the dependencies of a file whose analysis was restored from the cache
+   */
+  public void keep(InputFile file) {
+    var serialization = serialization(context, file);
+    if (CacheStrategies.isRuntimeApiCompatible(context) && serialization.isInCache()) {
+      serialization.copyFromPrevious();
+    }
+  }
+}
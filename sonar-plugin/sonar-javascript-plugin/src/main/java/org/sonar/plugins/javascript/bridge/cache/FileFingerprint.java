@@ -0,0 +1,148 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Size and SHA-256 digest of the bytes of a file, computed in a single pass without decoding the
+ * file: files on disk are hashed as they are stored, small ones read at once and large ones
+ * memory-mapped. Files which are not on disk are hashed as streamed by {@link InputFile}.
+ * <p>
+ * Fingerprints are memoized per file for the duration of an analysis, so that checking whether a
+ * file changed and writing its metadata to the cache hash it only once.
+ */
+final class FileFingerprint {
+
+  // files above this size are memory-mapped rather than read in memory
+  static final long MAPPING_THRESHOLD = 1024L * 1024;
+  private static final long MAPPING_CHUNK = 64L * 1024 * 1024;
+  private static final int BUFFER_SIZE = 8192;
+
+  // input files are the same instances for the whole analysis
+  private static final Map<InputFile, FileFingerprint> FINGERPRINTS = Collections.synchronizedMap(
+    new IdentityHashMap<>()
+  );
+
+  private final long size;
+  private final byte[] hash;
+
+  private FileFingerprint(long size, byte[] hash) {
+    this.size = size;
+    this.hash = hash;
+  }
+
+  long size() {
+    return size;
+  }
+
+  byte[] hash() {
+    return hash;
+  }
+
+  static FileFingerprint of(InputFile file) throws IOException {
+    var fingerprint = FINGERPRINTS.get(file);
+    if (fingerprint == null) {
+      fingerprint = compute(file);
+      FINGERPRINTS.putIfAbsent(file, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * The size of the file, read from the file system without hashing the file when possible
+   */
+  static long sizeOf(InputFile file) throws IOException {
+    var fingerprint = FINGERPRINTS.get(file);
+    if (fingerprint != null) {
+      return fingerprint.size;
+    }
+    var path = pathOnDisk(file);
+    return path != null ? Files.size(path) : of(file).size;
+  }
+
+  static void clear() {
+    FINGERPRINTS.clear();
+  }
+
+  private static FileFingerprint compute(InputFile file) throws IOException {
+    var digest = newDigest();
+    var path = pathOnDisk(file);
+    if (path == null) {
+      try (var input = file.inputStream()) {
+        var size = digest(input, digest);
+        return new FileFingerprint(size, digest.digest());
+      }
+    }
+    var size = Files.size(path);
+    if (size <= MAPPING_THRESHOLD) {
+      var bytes = Files.readAllBytes(path);
+      return new FileFingerprint(bytes.length, digest.digest(bytes));
+    }
+    try (var channel = FileChannel.open(path)) {
+      size = channel.size();
+      for (long position = 0; position < size; position += MAPPING_CHUNK) {
+        var length = Math.min(MAPPING_CHUNK, size - position);
+        digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+      }
+    }
+    return new FileFingerprint(size, digest.digest());
+  }
+
+  private static long digest(InputStream input, MessageDigest digest) throws IOException {
+    var buffer = new byte[BUFFER_SIZE];
+    long size = 0;
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+      size += read;
+    }
+    return size;
+  }
+
+  @CheckForNull
+  private static Path pathOnDisk(InputFile file) {
+    var uri = file.uri();
+    if (uri == null || !"file".equals(uri.getScheme())) {
+      return null;
+    }
+    var path = Path.of(uri);
+    return Files.isRegularFile(path) ? path : null;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
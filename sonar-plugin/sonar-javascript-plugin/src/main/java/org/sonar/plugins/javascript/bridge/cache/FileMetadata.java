@@ -20,9 +20,8 @@
 package org.sonar.plugins.javascript.bridge.cache;
 
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 
 public class FileMetadata {
@@ -31,30 +30,31 @@ public class FileMetadata {
 
   private final byte[] hash;
 
-  FileMetadata(long size, byte[] hash) {
+  // hash computed by the scanner, missing from the metadata cached by older versions
+  private final String md5;
+
+  FileMetadata(long size, byte[] hash, @Nullable String md5) {
     this.size = size;
     this.hash = hash;
+    this.md5 = md5;
   }
 
   static FileMetadata from(InputFile file) throws IOException {
-    return new FileMetadata(fileSize(file), computeHash(file));
+    var fingerprint = FileFingerprint.of(file);
+    return new FileMetadata(fingerprint.size(), fingerprint.hash(), file.md5Hash());
   }
 
+  /**
+   * Checks the cheap properties first: the size of the file, then the hash already computed by the
+   * scanner, and only hashes the file when both match.
+   */
   boolean compareTo(InputFile file) throws IOException {
-    return size == fileSize(file) && Arrays.equals(hash, computeHash(file));
-  }
-
-  static int fileSize(InputFile file) throws IOException {
-    return file.contents().getBytes(file.charset()).length;
-  }
-
-  static byte[] computeHash(InputFile file) throws IOException {
-    try {
-      var digest = MessageDigest.getInstance("SHA-256");
-      var bytes = file.contents().getBytes(file.charset());
-      return digest.digest(bytes);
-    } catch (NoSuchAlgorithmException e) {
-      throw new IllegalStateException(e);
+    if (size != FileFingerprint.sizeOf(file)) {
+      return false;
+    }
+    if (md5 != null && !md5.equals(file.md5Hash())) {
+      return false;
     }
+    return Arrays.equals(hash, FileFingerprint.of(file).hash());
   }
 }
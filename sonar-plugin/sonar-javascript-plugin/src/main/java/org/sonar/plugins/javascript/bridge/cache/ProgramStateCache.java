@@ -0,0 +1,111 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.bridge.PluginInfo;
+
+/**
+ * Incremental state of the TypeScript programs, the equivalent of the tsbuildinfo files, saved in
+ * the analysis cache per tsconfig.json file. The state of the previous analysis is restored to a
+ * file of the working directory, which the bridge server seeds the program with, and overwrites
+ * with the state of the created program. The files are saved in the cache once all programs are
+ * created, as the cache is only written from the sensor thread.
+ */
+public class ProgramStateCache {
+
+  private static final Logger LOG = Loggers.get(ProgramStateCache.class);
+
+  private final SensorContext context;
+  private final Path baseDir;
+  private final Path directory;
+  // state files by relative path of their tsconfig.json file
+  private final Map<String, Path> stateFiles = new HashMap<>();
+
+  public ProgramStateCache(SensorContext context) {
+    this.context = context;
+    this.baseDir = context.fileSystem().baseDir().toPath();
+    this.directory = context.fileSystem().workDir().toPath().resolve("tsbuildinfo");
+  }
+
+  /**
+   * Returns the file holding the state of the program of the tsconfig.json file, restored from
+   * the previous analysis if any, or null if the state of the program can't be cached.
+   */
+  @Nullable
+  public synchronized Path stateFile(String tsConfig) throws IOException {
+    var path = Path.of(tsConfig);
+    // generated tsconfig.json files are temporary, and change from an analysis to the other
+    if (!CacheStrategies.isRuntimeApiCompatible(context) || !path.startsWith(baseDir)) {
+      return null;
+    }
+    var relativePath = baseDir.relativize(path).toString().replace('\\', '/');
+    var stateFile = stateFiles.get(relativePath);
+    if (stateFile == null) {
+      stateFile = restore(cacheKey(relativePath));
+      stateFiles.put(relativePath, stateFile);
+    }
+    return stateFile;
+  }
+
+  private static CacheKey cacheKey(String relativePath) {
+    return CacheKey.forTsConfig(relativePath, PluginInfo.getVersion()).forProgramState();
+  }
+
+  private Path restore(CacheKey cacheKey) throws IOException {
+    Files.createDirectories(directory);
+    var stateFile = Files.createTempFile(directory, "tsbuildinfo", ".json");
+    var serialization = new CacheSerialization(context, cacheKey);
+    if (serialization.isInCache()) {
+      Files.write(stateFile, serialization.readBytesFromCache());
+      LOG.debug("Cache entry extracted for key '{}'", cacheKey);
+    } else {
+      // the bridge server creates the file along with the program
+      Files.delete(stateFile);
+    }
+    return stateFile;
+  }
+
+  /**
+   * Saves the states written by the bridge server in the cache of the next analysis
+   */
+  public synchronized void save() {
+    stateFiles.forEach((relativePath, stateFile) -> {
+      var cacheKey = cacheKey(relativePath);
+      try {
+        if (Files.exists(stateFile)) {
+          new CacheSerialization(context, cacheKey).writeToCache(Files.readAllBytes(stateFile));
+          LOG.debug("Cache entry created for key '{}'", cacheKey);
+        }
+      } catch (IOException e) {
+        LOG.debug("Failed to save the state of the program in the cache: " + stateFile, e);
+      }
+    });
+    stateFiles.clear();
+  }
+}
@@ -51,13 +51,19 @@ class UCFGFilesSerialization extends CacheSerialization {
     }
   }
 
-  void readFromCache() throws IOException {
+  FilesManifest readManifest() throws IOException {
     var manifest = json.readFromCache();
-    if (manifest == null) {
+    if (manifest == null || manifest.getFileSizes() == null) {
       throw new IOException("The manifest is null for key " + getCacheKey());
     }
+    return manifest;
+  }
 
-    sequence.readFromCache(manifest);
+  void readFromCache(FilesManifest manifest) throws IOException {
+    // most files have no UCFG file, their sequence is not read at all
+    if (!manifest.getFileSizes().isEmpty()) {
+      sequence.readFromCache(manifest);
+    }
   }
 
   @Override
@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -34,7 +35,11 @@ public class VarLengthInputStream implements Closeable {
   private final DataInputStream in;
 
   public VarLengthInputStream(byte[] input) {
-    in = new DataInputStream(new ByteArrayInputStream(input));
+    this(new ByteArrayInputStream(input));
+  }
+
+  public VarLengthInputStream(InputStream input) {
+    in = new DataInputStream(input);
   }
 
   public String readUTF() throws IOException {
@@ -22,7 +22,6 @@ package org.sonar.plugins.javascript.external;
 import com.google.gson.Gson;
 import java.io.File;
 import java.util.List;
-import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.rule.Severity;
 import org.sonar.api.batch.sensor.Sensor;
@@ -30,6 +29,8 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonarsource.analyzer.commons.ExternalReportProvider;
 
 abstract class AbstractExternalIssuesSensor implements Sensor {
@@ -42,6 +43,12 @@ abstract class AbstractExternalIssuesSensor implements Sensor {
   static final String FILE_EXCEPTION_MESSAGE =
     "No issues information will be saved as the report file can't be read.";
 
+  private final InputFileIndexProvider inputFileIndexProvider;
+
+  AbstractExternalIssuesSensor(InputFileIndexProvider inputFileIndexProvider) {
+    this.inputFileIndexProvider = inputFileIndexProvider;
+  }
+
   @Override
   public void describe(SensorDescriptor sensorDescriptor) {
     sensorDescriptor
@@ -52,12 +59,12 @@ abstract class AbstractExternalIssuesSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, reportsPropertyName());
-    reportFiles.forEach(report -> importReport(report, context));
+    var inputFileIndex = inputFileIndexProvider.get(context);
+    reportFiles.forEach(report -> importReport(report, context, inputFileIndex));
   }
 
-  InputFile getInputFile(SensorContext context, String fileName) {
-    FilePredicates predicates = context.fileSystem().predicates();
-    InputFile inputFile = context.fileSystem().inputFile(predicates.hasPath(fileName));
+  InputFile getInputFile(InputFileIndex inputFileIndex, String fileName) {
+    InputFile inputFile = inputFileIndex.inputFile(fileName);
     if (inputFile == null) {
       LOG.warn(
         "No input file found for {}. No {} issues will be imported on this file.",
@@ -73,5 +80,5 @@ abstract class AbstractExternalIssuesSensor implements Sensor {
 
   abstract String reportsPropertyName();
 
-  abstract void importReport(File report, SensorContext context);
+  abstract void importReport(File report, SensorContext context, InputFileIndex inputFileIndex);
 }
@@ -37,6 +37,8 @@ import org.sonar.api.batch.sensor.issue.NewIssueLocation;
 import org.sonar.api.rules.RuleType;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.rules.EslintRulesDefinition;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 
@@ -44,6 +46,10 @@ public class EslintReportSensor extends AbstractExternalIssuesSensor {
 
   private static final Logger LOG = Loggers.get(EslintReportSensor.class);
 
+  public EslintReportSensor(InputFileIndexProvider inputFileIndexProvider) {
+    super(inputFileIndexProvider);
+  }
+
   @Override
   String linterName() {
     return EslintRulesDefinition.LINTER_NAME;
@@ -55,7 +61,7 @@ public class EslintReportSensor extends AbstractExternalIssuesSensor {
   }
 
   @Override
-  void importReport(File report, SensorContext context) {
+  void importReport(File report, SensorContext context, InputFileIndex inputFileIndex) {
     LOG.info("Importing {}", report.getAbsoluteFile());
 
     try (
@@ -70,7 +76,7 @@ public class EslintReportSensor extends AbstractExternalIssuesSensor {
       );
 
       for (FileWithMessages fileWithMessages : filesWithMessages) {
-        InputFile inputFile = getInputFile(context, fileWithMessages.filePath);
+        InputFile inputFile = getInputFile(inputFileIndex, fileWithMessages.filePath);
         if (inputFile != null) {
           for (EslintError eslintError : fileWithMessages.messages) {
             saveEslintError(context, eslintError, inputFile, fileWithMessages.filePath);
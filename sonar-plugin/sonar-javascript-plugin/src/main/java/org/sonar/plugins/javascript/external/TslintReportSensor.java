@@ -36,12 +36,18 @@ import org.sonar.api.batch.sensor.issue.NewIssueLocation;
 import org.sonar.api.rules.RuleType;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.rules.TslintRulesDefinition;
 
 public class TslintReportSensor extends AbstractExternalIssuesSensor {
 
   private static final Logger LOG = Loggers.get(TslintReportSensor.class);
 
+  public TslintReportSensor(InputFileIndexProvider inputFileIndexProvider) {
+    super(inputFileIndexProvider);
+  }
+
   @Override
   String linterName() {
     return TslintRulesDefinition.LINTER_NAME;
@@ -53,7 +59,7 @@ public class TslintReportSensor extends AbstractExternalIssuesSensor {
   }
 
   @Override
-  void importReport(File report, SensorContext context) {
+  void importReport(File report, SensorContext context, InputFileIndex inputFileIndex) {
     LOG.info("Importing {}", report.getAbsoluteFile());
     try (
       InputStreamReader inputStreamReader = new InputStreamReader(
@@ -63,17 +69,21 @@ public class TslintReportSensor extends AbstractExternalIssuesSensor {
     ) {
       TslintError[] tslintErrors = gson.fromJson(inputStreamReader, TslintError[].class);
       for (TslintError tslintError : tslintErrors) {
-        saveTslintError(context, tslintError);
+        saveTslintError(context, inputFileIndex, tslintError);
       }
     } catch (IOException e) {
       LOG.error(FILE_EXCEPTION_MESSAGE, e);
     }
   }
 
-  private void saveTslintError(SensorContext context, TslintError tslintError) {
+  private void saveTslintError(
+    SensorContext context,
+    InputFileIndex inputFileIndex,
+    TslintError tslintError
+  ) {
     String tslintKey = tslintError.ruleName;
 
-    InputFile inputFile = getInputFile(context, tslintError.name);
+    InputFile inputFile = getInputFile(inputFileIndex, tslintError.name);
     if (inputFile == null) {
       return;
     }
@@ -39,12 +39,19 @@ import org.sonar.api.utils.log.Loggers;
 import org.sonar.plugins.javascript.JavaScriptLanguage;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.TypeScriptLanguage;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonarsource.analyzer.commons.FileProvider;
 
 public class CoverageSensor implements Sensor {
 
   private static final Logger LOG = Loggers.get(CoverageSensor.class);
 
+  private final InputFileIndexProvider inputFileIndexProvider;
+
+  public CoverageSensor(InputFileIndexProvider inputFileIndexProvider) {
+    this.inputFileIndexProvider = inputFileIndexProvider;
+  }
+
   @Override
   public void describe(SensorDescriptor descriptor) {
     descriptor
@@ -108,7 +115,7 @@ public class CoverageSensor implements Sensor {
     return lcovFiles;
   }
 
-  private static void saveCoverageFromLcovFiles(SensorContext context, List<File> lcovFiles) {
+  private void saveCoverageFromLcovFiles(SensorContext context, List<File> lcovFiles) {
     LOG.info("Analysing {}", lcovFiles);
 
     FileSystem fileSystem = context.fileSystem();
@@ -120,7 +127,12 @@ public class CoverageSensor implements Sensor {
       );
     FileLocator fileLocator = new FileLocator(fileSystem.inputFiles(mainFilePredicate));
 
-    LCOVParser parser = LCOVParser.create(context, lcovFiles, fileLocator);
+    LCOVParser parser = LCOVParser.create(
+      context,
+      lcovFiles,
+      fileLocator,
+      inputFileIndexProvider.get(context)
+    );
     Map<InputFile, NewCoverage> coveredFiles = parser.coverageByFile();
 
     for (InputFile inputFile : fileSystem.inputFiles(mainFilePredicate)) {
@@ -36,6 +36,7 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.coverage.NewCoverage;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.plugins.javascript.filesystem.InputFileIndex;
 
 /**
  * http://ltp.sourceforge.net/coverage/lcov/geninfo.1.php
@@ -51,17 +52,29 @@ class LCOVParser {
   // deduplicated list of unresolved paths (keep order of insertion)
   private final Set<String> unresolvedPaths = new LinkedHashSet<>();
   private final FileLocator fileLocator;
+  private final InputFileIndex inputFileIndex;
   private int inconsistenciesCounter = 0;
 
   private static final Logger LOG = Loggers.get(LCOVParser.class);
 
-  private LCOVParser(List<String> lines, SensorContext context, FileLocator fileLocator) {
+  private LCOVParser(
+    List<String> lines,
+    SensorContext context,
+    FileLocator fileLocator,
+    InputFileIndex inputFileIndex
+  ) {
     this.context = context;
     this.fileLocator = fileLocator;
+    this.inputFileIndex = inputFileIndex;
     this.coverageByFile = parse(lines);
   }
 
-  static LCOVParser create(SensorContext context, List<File> files, FileLocator fileLocator) {
+  static LCOVParser create(
+    SensorContext context,
+    List<File> files,
+    FileLocator fileLocator,
+    InputFileIndex inputFileIndex
+  ) {
     final List<String> lines = new LinkedList<>();
     for (File file : files) {
       try (Stream<String> fileLines = Files.lines(file.toPath())) {
@@ -70,7 +83,7 @@ class LCOVParser {
         throw new IllegalArgumentException("Could not read content from file: " + file, e);
       }
     }
-    return new LCOVParser(lines, context, fileLocator);
+    return new LCOVParser(lines, context, fileLocator, inputFileIndex);
   }
 
   Map<InputFile, NewCoverage> coverageByFile() {
@@ -165,9 +178,7 @@ class LCOVParser {
     // SF:<absolute path to the source file>
     String filePath = line.substring(SF.length());
     // some tools (like Istanbul, Karma) provide relative paths, so let's consider them relative to project directory
-    InputFile inputFile = context
-      .fileSystem()
-      .inputFile(context.fileSystem().predicates().hasPath(filePath));
+    InputFile inputFile = inputFileIndex.inputFile(filePath);
     if (inputFile == null) {
       inputFile = fileLocator.getInputFile(filePath);
     }
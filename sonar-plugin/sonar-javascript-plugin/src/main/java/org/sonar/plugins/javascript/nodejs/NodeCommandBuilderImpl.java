@@ -34,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.utils.Version;
 import org.sonar.api.utils.log.Logger;
@@ -177,7 +178,10 @@ public class NodeCommandBuilderImpl implements NodeCommandBuilder {
     }
     LOG.debug("Checking Node.js version");
 
-    String versionString = NodeVersion.getVersion(processWrapper, nodeExecutable);
+    String versionString = embeddedNodeVersion(nodeExecutable);
+    if (versionString == null) {
+      versionString = NodeVersion.getVersion(processWrapper, nodeExecutable);
+    }
     actualNodeVersion = nodeVersion(versionString);
     if (!actualNodeVersion.isGreaterThanOrEqual(minNodeVersion)) {
       throw new NodeCommandException(
@@ -192,6 +196,18 @@ public class NodeCommandBuilderImpl implements NodeCommandBuilder {
     LOG.debug("Using Node.js {}.", versionString);
   }
 
+  /**
+   * The embedded runtime already reported its version when it was deployed, there is no need to
+   * spawn it once more.
+   */
+  @CheckForNull
+  private String embeddedNodeVersion(String nodeExecutable) {
+    if (embeddedNode != null && nodeExecutable.equals(embeddedNode.binary().toString())) {
+      return embeddedNode.version();
+    }
+    return null;
+  }
+
   // Visible for testing
   static Version nodeVersion(String versionString) throws NodeCommandException {
     Matcher versionMatcher = NODEJS_VERSION_PATTERN.matcher(versionString);
@@ -26,6 +26,9 @@ public class UnicodeEscape {
   }
 
   public static String unicodeEscape(String message) {
+    if (isPrintableAscii(message)) {
+      return message;
+    }
     var s = new StringBuilder();
     message
       .chars()
@@ -39,4 +42,14 @@ public class UnicodeEscape {
 
     return s.toString();
   }
+
+  private static boolean isPrintableAscii(String message) {
+    for (int i = 0; i < message.length(); i++) {
+      var value = message.charAt(i);
+      if (value < 32 || value > 127) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -40,7 +40,7 @@ import org.sonar.api.utils.log.LoggerLevel;
 
 class JavaScriptPluginTest {
 
-  private static final int BASE_EXTENSIONS = 35;
+  private static final int BASE_EXTENSIONS = 37;
   private static final int JS_ADDITIONAL_EXTENSIONS = 4;
   private static final int TS_ADDITIONAL_EXTENSIONS = 3;
   private static final int CSS_ADDITIONAL_EXTENSIONS = 3;
@@ -0,0 +1,112 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+
+class AnalysisResponseTypeAdaptersTest {
+
+  private final Gson gson = new Gson();
+
+  @Test
+  void should_read_highlights_symbols_and_cpd_tokens() {
+    var json =
+      "{" +
+      "\"highlights\":[{\"location\":{\"startLine\":1,\"startCol\":0,\"endLine\":1,\"endCol\":5},\"textType\":\"KEYWORD\"}]," +
+      "\"highlightedSymbols\":[{\"declaration\":{\"startLine\":1,\"startCol\":6,\"endLine\":1,\"endCol\":7}," +
+      "\"references\":[{\"startLine\":2,\"startCol\":0,\"endLine\":2,\"endCol\":1},{\"startLine\":3,\"startCol\":0,\"endLine\":3,\"endCol\":1}]}]," +
+      "\"cpdTokens\":[{\"location\":{\"startLine\":1,\"startCol\":0,\"endLine\":1,\"endCol\":5},\"image\":\"const\",\"unknown\":[1,2]}]," +
+      "\"metrics\":{\"ncloc\":[1,2,3],\"functions\":1}" +
+      "}";
+
+    var response = gson.fromJson(json, AnalysisResponse.class);
+
+    assertThat(response.highlights.size()).isEqualTo(1);
+    assertThat(response.highlights.textType(0)).isEqualTo("KEYWORD");
+    assertLocation(response.highlights, 0, 1, 0, 1, 5);
+    assertThat(response.highlightedSymbols.size()).isEqualTo(1);
+    assertThat(response.highlightedSymbols.declaration(0)).containsExactly(1, 6, 1, 7);
+    assertThat(response.highlightedSymbols.referenceCount(0)).isEqualTo(2);
+    assertThat(response.highlightedSymbols.reference(0, 1)).containsExactly(3, 0, 3, 1);
+    assertThat(response.cpdTokens.size()).isEqualTo(1);
+    assertThat(response.cpdTokens.image(0)).isEqualTo("const");
+    assertLocation(response.cpdTokens, 0, 1, 0, 1, 5);
+    assertThat(response.metrics.ncloc).containsExactly(1, 2, 3);
+    assertThat(response.metrics.functions).isEqualTo(1);
+    assertThat(response.issues).isEmpty();
+  }
+
+  @Test
+  void should_write_what_is_read() {
+    var json =
+      "{\"highlights\":[{\"location\":{\"startLine\":1,\"startCol\":0,\"endLine\":1,\"endCol\":5},\"textType\":\"KEYWORD\"},null]," +
+      "\"highlightedSymbols\":[{\"declaration\":{\"startLine\":1,\"startCol\":6,\"endLine\":1,\"endCol\":7},\"references\":[]}]," +
+      "\"cpdTokens\":[{\"location\":null,\"image\":\"x\"}]}";
+
+    var response = gson.fromJson(json, AnalysisResponse.class);
+    var written = gson.toJsonTree(response).getAsJsonObject();
+
+    assertThat(written.get("highlights").toString())
+      .isEqualTo(
+        "[{\"location\":{\"startLine\":1,\"startCol\":0,\"endLine\":1,\"endCol\":5},\"textType\":\"KEYWORD\"}]"
+      );
+    assertThat(written.get("highlightedSymbols").toString())
+      .isEqualTo(
+        "[{\"declaration\":{\"startLine\":1,\"startCol\":6,\"endLine\":1,\"endCol\":7},\"references\":[]}]"
+      );
+    // tokens without location are dropped as they can't be saved
+    assertThat(written.get("cpdTokens").toString()).isEqualTo("[]");
+    assertThat(gson.fromJson(written, AnalysisResponse.class).highlights.size()).isEqualTo(1);
+  }
+
+  @Test
+  void should_intern_texts() {
+    var json =
+      "[{\"location\":{\"startLine\":1,\"startCol\":0,\"endLine\":1,\"endCol\":2},\"image\":\"if\"}," +
+      "{\"location\":{\"startLine\":1,\"startCol\":3,\"endLine\":1,\"endCol\":4},\"image\":\"(\"}," +
+      "{\"location\":{\"startLine\":2,\"startCol\":0,\"endLine\":2,\"endCol\":2},\"image\":\"if\"}]";
+
+    var cpdTokens = gson.fromJson(json, CpdTokens.class);
+
+    assertThat(cpdTokens.size()).isEqualTo(3);
+    assertThat(cpdTokens.textTable()).containsExactly("if", "(");
+    assertThat(cpdTokens.textIndex(2)).isZero();
+    assertThat(cpdTokens.image(2)).isEqualTo("if");
+    assertLocation(cpdTokens, 2, 2, 0, 2, 2);
+  }
+
+  private static void assertLocation(
+    Tokens tokens,
+    int token,
+    int startLine,
+    int startCol,
+    int endLine,
+    int endCol
+  ) {
+    assertThat(tokens.startLine(token)).isEqualTo(startLine);
+    assertThat(tokens.startCol(token)).isEqualTo(startCol);
+    assertThat(tokens.endLine(token)).isEqualTo(endLine);
+    assertThat(tokens.endCol(token)).isEqualTo(endCol);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ParsingErrorCode;
+
+/**
+ * The fixtures are encoded by {@code packages/bridge/src/binary.ts}.
+ */
+class BinaryResponseDeserializerTest {
+
+  private static final Path FIXTURES = Path.of("src/test/resources/binary-response");
+
+  @Test
+  void should_read_analysis_response() throws Exception {
+    var response = BinaryResponseDeserializer.fromBinary(fixture("analysis.bin"));
+
+    assertThat(response.parsingError).isNull();
+    assertThat(response.issues).hasSize(1);
+    assertThat(response.issues.get(0).ruleId).isEqualTo("S3923");
+    assertThat(response.issues.get(0).endLine).isEqualTo(4);
+    assertThat(response.ucfgPaths).containsExactly("path/to/ucfg");
+
+    assertThat(response.highlights.textTable()).containsExactly("KEYWORD", "COMMENT", "STRING");
+    assertThat(response.highlights.size()).isEqualTo(3);
+    assertLocation(response.highlights, 0, 1, 0, 1, 2);
+    assertLocation(response.highlights, 1, 2, 0, 4, 3);
+    assertLocation(response.highlights, 2, 1, 10, 1, 200);
+
+    var symbols = response.highlightedSymbols;
+    assertThat(symbols.size()).isEqualTo(2);
+    assertThat(symbols.declaration(0)).containsExactly(1, 4, 1, 8);
+    assertThat(symbols.referenceCount(0)).isEqualTo(2);
+    assertThat(symbols.reference(0, 0)).containsExactly(3, 2, 3, 6);
+    assertThat(symbols.reference(0, 1)).containsExactly(3, 10, 3, 14);
+    assertThat(symbols.declaration(1)).containsExactly(5, 4, 5, 5);
+    assertThat(symbols.referenceCount(1)).isZero();
+
+    assertThat(response.metrics.ncloc).containsExactly(1, 2, 3, 5, 1000);
+    assertThat(response.metrics.commentLines).containsExactly(4);
+    assertThat(response.metrics.nosonarLines).isEmpty();
+    assertThat(response.metrics.executableLines).containsExactly(2, 3);
+    assertThat(response.metrics.functions).isEqualTo(1);
+    assertThat(response.metrics.statements).isEqualTo(3);
+    assertThat(response.metrics.classes).isZero();
+    assertThat(response.metrics.complexity).isEqualTo(2);
+    assertThat(response.metrics.cognitiveComplexity).isEqualTo(1);
+
+    var cpdTokens = response.cpdTokens;
+    assertThat(cpdTokens.size()).isEqualTo(6);
+    assertThat(cpdTokens.image(0)).isEqualTo("if");
+    assertThat(cpdTokens.image(2)).isEqualTo("cond");
+    assertThat(cpdTokens.image(4)).isEqualTo("if");
+    assertThat(cpdTokens.image(5)).isEqualTo("été");
+    assertThat(cpdTokens.textTable()).containsExactly("if", "(", "cond", ")", "été");
+    assertLocation(cpdTokens, 3, 1, 8, 1, 9);
+    assertLocation(cpdTokens, 5, 2, 3, 2, 6);
+  }
+
+  @Test
+  void should_read_parsing_error() throws Exception {
+    var response = BinaryResponseDeserializer.fromBinary(fixture("parsing-error.bin"));
+
+    assertThat(response.parsingError.message).isEqualTo("Unexpected token");
+    assertThat(response.parsingError.line).isEqualTo(3);
+    assertThat(response.parsingError.code).isEqualTo(ParsingErrorCode.PARSING);
+    assertThat(response.issues).isEmpty();
+    assertThat(response.highlights.isEmpty()).isTrue();
+    assertThat(response.highlightedSymbols.size()).isZero();
+    assertThat(response.cpdTokens.isEmpty()).isTrue();
+    assertThat(response.metrics.ncloc).isEmpty();
+  }
+
+  @Test
+  void should_read_consecutive_responses() throws Exception {
+    var analysis = Files.readAllBytes(FIXTURES.resolve("analysis.bin"));
+    var parsingError = Files.readAllBytes(FIXTURES.resolve("parsing-error.bin"));
+    var bytes = Arrays.copyOf(analysis, analysis.length + parsingError.length);
+    System.arraycopy(parsingError, 0, bytes, analysis.length, parsingError.length);
+    var input = new ByteArrayInputStream(bytes);
+
+    assertThat(BinaryResponseDeserializer.readResponse(input).issues).hasSize(1);
+    assertThat(BinaryResponseDeserializer.readResponse(input).parsingError).isNotNull();
+    assertThat(input.available()).isZero();
+  }
+
+  @Test
+  void should_fail_on_unsupported_version() {
+    var input = new ByteArrayInputStream(new byte[] { 2 });
+    assertThatThrownBy(() -> BinaryResponseDeserializer.fromBinary(input))
+      .isInstanceOf(IOException.class)
+      .hasMessage("Unsupported analysis response format version 2");
+  }
+
+  @Test
+  void should_fail_on_truncated_response() throws Exception {
+    var bytes = Files.readAllBytes(FIXTURES.resolve("analysis.bin"));
+    var input = new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 4));
+    assertThatThrownBy(() -> BinaryResponseDeserializer.fromBinary(input))
+      .isInstanceOf(IOException.class);
+  }
+
+  private static InputStream fixture(String name) throws IOException {
+    return Files.newInputStream(FIXTURES.resolve(name));
+  }
+
+  private static void assertLocation(
+    Tokens tokens,
+    int token,
+    int startLine,
+    int startCol,
+    int endLine,
+    int endCol
+  ) {
+    assertThat(tokens.startLine(token)).isEqualTo(startLine);
+    assertThat(tokens.startCol(token)).isEqualTo(startCol);
+    assertThat(tokens.endLine(token)).isEqualTo(endLine);
+    assertThat(tokens.endCol(token)).isEqualTo(endCol);
+  }
+}
@@ -36,6 +36,10 @@ import static org.sonar.plugins.javascript.bridge.AnalysisMode.DEFAULT_LINTER_ID
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -49,6 +53,8 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
@@ -57,12 +63,12 @@ import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.internal.MapSettings;
-import org.sonar.api.impl.utils.DefaultTempFolder;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
-import org.sonar.api.utils.TempFolder;
 import org.sonar.api.utils.Version;
 import org.sonar.plugins.javascript.JavaScriptLanguage;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.CssAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.TsProgram;
@@ -90,7 +96,7 @@ class BridgeServerImplTest {
   @TempDir
   File tempDir;
 
-  TempFolder tempFolder;
+  private Environment environment;
 
   private SensorContextTester context;
   private BridgeServerImpl bridgeServer;
@@ -106,7 +112,8 @@ class BridgeServerImplTest {
   public void setUp() throws Exception {
     context = SensorContextTester.create(moduleBase);
     context.fileSystem().setWorkDir(workDir);
-    tempFolder = new DefaultTempFolder(tempDir, true);
+    environment = mock(Environment.class);
+    when(environment.getSonarUserHome()).thenReturn(tempDir.toPath());
     unsupportedEmbeddedRuntime =
       new EmbeddedNode(mock(ProcessWrapper.class), createUnsupportedEnvironment());
   }
@@ -154,7 +161,7 @@ class BridgeServerImplTest {
         testBundle,
         emptyRulesBundles,
         deprecationWarning,
-        tempFolder,
+        environment,
         unsupportedEmbeddedRuntime
       );
     bridgeServer.deploy();
@@ -175,6 +182,7 @@ class BridgeServerImplTest {
     assertThat(logTester.logs(WARN)).contains("testing warn log");
     assertThat(logTester.logs(INFO)).contains("testing info log");
     assertThat(logTester.logs(INFO)).contains("BROWSERSLIST_IGNORE_OLD_DATA is set to true");
+    assertThat(logTester.logs()).doesNotContain("SONARJS_BRIDGE_READY");
   }
 
   @Test
@@ -191,6 +199,139 @@ class BridgeServerImplTest {
     assertThat(bridgeServer.analyzeJavaScript(request).issues).isEmpty();
   }
 
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void should_get_answer_from_server_over_unix_domain_socket() throws Exception {
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.unixSocket", "true")
+    );
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.deploy();
+    bridgeServer.startServer(context, emptyList());
+
+    assertThat(logTester.logs(DEBUG))
+      .anyMatch(log -> log.startsWith("Creating Node.js process to start the bridge server on socket")
+      );
+    assertThat(bridgeServer.isAlive()).isTrue();
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    JsAnalysisRequest request = createRequest(inputFile);
+    assertThat(bridgeServer.analyzeJavaScript(request).issues).isEmpty();
+    assertThat(bridgeServer.analyzeTypeScriptAsync(request).get().issues).isEmpty();
+
+    bridgeServer.clean();
+    try (var files = Files.list(workDir)) {
+      assertThat(files).noneMatch(file -> file.toString().endsWith(".sock"));
+    }
+  }
+
+  @Test
+  void should_decode_binary_responses() throws Exception {
+    bridgeServer = createBridgeServer("binaryResponse.js");
+    bridgeServer.deploy();
+    bridgeServer.startServer(context, emptyList());
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    JsAnalysisRequest request = createRequest(inputFile);
+    var response = bridgeServer.analyzeJavaScript(request);
+    assertThat(response.issues).hasSize(1);
+    assertThat(response.cpdTokens.size()).isEqualTo(6);
+    assertThat(bridgeServer.analyzeTypeScriptAsync(request).get().highlights.size()).isEqualTo(3);
+  }
+
+  @Test
+  void should_get_answers_from_server_for_async_requests() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.maxInFlightRequests", 2)
+    );
+    bridgeServer.startServerLazily(context);
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    JsAnalysisRequest request = createRequest(inputFile);
+    var jsResponse = bridgeServer.analyzeJavaScriptAsync(request);
+    var tsResponse = bridgeServer.analyzeTypeScriptAsync(request);
+    assertThat(jsResponse.get().issues).isEmpty();
+    assertThat(tsResponse.get().issues).isEmpty();
+  }
+
+  @Test
+  void should_get_answers_from_server_for_batch_requests() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(context);
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    JsAnalysisRequest request = createRequest(inputFile);
+    var responses = bridgeServer.analyzeBatch(
+      List.of(
+        new BatchedRequest(BatchedAnalysis.JS, request),
+        new BatchedRequest(BatchedAnalysis.TS, request),
+        new BatchedRequest(BatchedAnalysis.HTML, request)
+      )
+    );
+    assertThat(responses).hasSize(3);
+    for (var response : responses) {
+      assertThat(response.get().issues).isEmpty();
+    }
+    assertThat(bridgeServer.analyzeBatch(List.of())).isEmpty();
+  }
+
+  @Test
+  void should_decode_binary_batch_responses() throws Exception {
+    bridgeServer = createBridgeServer("binaryResponse.js");
+    bridgeServer.startServerLazily(context);
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    var batchedRequest = new BatchedRequest(BatchedAnalysis.JS, createRequest(inputFile));
+    var responses = bridgeServer.analyzeBatch(List.of(batchedRequest, batchedRequest));
+    assertThat(responses).hasSize(2);
+    assertThat(responses.get(0).get().cpdTokens.size()).isEqualTo(6);
+    assertThat(responses.get(1).get().issues).hasSize(1);
+  }
+
+  @Test
+  void should_fail_batch_requests_if_bad_json_response() throws Exception {
+    bridgeServer = createBridgeServer("badResponse.js");
+    bridgeServer.startServerLazily(context);
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    var batchedRequest = new BatchedRequest(BatchedAnalysis.JS, createRequest(inputFile));
+    var responses = bridgeServer.analyzeBatch(List.of(batchedRequest, batchedRequest));
+    for (var response : responses) {
+      assertThatThrownBy(response::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+  }
+
+  @Test
+  void should_fail_async_request_if_bad_json_response() throws Exception {
+    bridgeServer = createBridgeServer("badResponse.js");
+    bridgeServer.startServerLazily(context);
+
+    DefaultInputFile inputFile = TestInputFileBuilder
+      .create("foo", "foo.js")
+      .setContents("alert('Fly, you fools!')")
+      .build();
+    var response = bridgeServer.analyzeJavaScriptAsync(createRequest(inputFile));
+    assertThatThrownBy(response::join).hasCauseInstanceOf(IllegalStateException.class);
+  }
+
   @Test
   void test_init() throws Exception {
     bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
@@ -305,6 +446,20 @@ class BridgeServerImplTest {
     assertThat(bridgeServer.deleteProgram(programCreated)).isTrue();
   }
 
+  @Test
+  void should_get_memory_usage() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.deploy();
+    bridgeServer.startServer(context, emptyList());
+
+    var memoryUsage = bridgeServer.memoryUsage();
+    assertThat(memoryUsage.usedHeapSize).isEqualTo(100);
+    assertThat(memoryUsage.heapSizeLimit).isEqualTo(1000);
+    assertThat(memoryUsage.majorGcCount).isEqualTo(2);
+    assertThat(memoryUsage.isAbove(5)).isTrue();
+    assertThat(memoryUsage.isAbove(10)).isFalse();
+  }
+
   @Test
   void should_create_tsconfig_files() throws IOException {
     bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
@@ -347,6 +502,93 @@ class BridgeServerImplTest {
     assertThat(bridgeServer.analyzeCss(request).issues).isEmpty();
   }
 
+  @Test
+  void should_attach_to_bridge_server_daemon() throws Exception {
+    context.setSettings(
+      new MapSettings()
+        .setProperty("sonar.javascript.bridge.daemon", "true")
+        .setProperty("sonar.javascript.bridge.daemonIdleTimeout", "60")
+    );
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(context);
+    assertThat(logTester.logs(INFO)).contains("idle timeout: 60000");
+    var started = logTester
+      .logs(INFO)
+      .stream()
+      .filter(log -> log.startsWith("Started the bridge server daemon on port "))
+      .findFirst();
+    assertThat(started).isPresent();
+    var port = started.get().split(" ")[7].replace(",", "");
+    bridgeServer.clean();
+
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(context);
+    assertThat(logTester.logs(INFO)).contains("Using the bridge server daemon on port " + port);
+    assertThat(bridgeServer.isAlive()).isTrue();
+
+    HttpClient
+      .newHttpClient()
+      .send(
+        HttpRequest
+          .newBuilder(URI.create("http://127.0.0.1:" + port + "/close"))
+          .POST(HttpRequest.BodyPublishers.noBody())
+          .build(),
+        HttpResponse.BodyHandlers.discarding()
+      );
+  }
+
+  @Test
+  void should_restart_and_initialize_linters_when_recovering() throws Exception {
+    context.setSettings(new MapSettings().setProperty("sonar.javascript.bridge.recovery", "true"));
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(context);
+    bridgeServer.initLinter(
+      emptyList(),
+      emptyList(),
+      emptyList(),
+      AnalysisMode.DEFAULT,
+      "",
+      emptyList()
+    );
+    var starting = "Creating Node.js process to start the bridge server on port ";
+    var port = logTester
+      .logs(DEBUG)
+      .stream()
+      .filter(log -> log.startsWith(starting))
+      .map(log -> log.substring(starting.length()))
+      .findFirst()
+      .orElseThrow();
+    // the bridge server stops as if it crashed
+    HttpClient
+      .newHttpClient()
+      .send(
+        HttpRequest
+          .newBuilder(URI.create("http://127.0.0.1:" + port + "/close"))
+          .POST(HttpRequest.BodyPublishers.noBody())
+          .build(),
+        HttpResponse.BodyHandlers.discarding()
+      );
+    bridgeServer.waitFor();
+    assertThat(bridgeServer.isAlive()).isFalse();
+
+    assertThat(bridgeServer.recover()).isTrue();
+
+    assertThat(bridgeServer.isAlive()).isTrue();
+    assertThat(logTester.logs(WARN)).contains("Restarting the bridge server (1/5)");
+    var initLinter =
+      "{\"linterId\":\"default\",\"rules\":[],\"environments\":[],\"globals\":[]," +
+      "\"baseDir\":\"\",\"exclusions\":[]}";
+    assertThat(logTester.logs(INFO)).filteredOn(initLinter::equals).hasSize(2);
+  }
+
+  @Test
+  void should_not_recover_when_disabled() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(context);
+
+    assertThat(bridgeServer.recover()).isFalse();
+  }
+
   @Test
   void should_throw_if_failed_to_start() throws Exception {
     bridgeServer = createBridgeServer("throw.js");
@@ -656,6 +898,24 @@ class BridgeServerImplTest {
     assertThat(logTester.logs()).contains("debugMemory: true");
   }
 
+  @Test
+  void should_start_a_worker_thread_per_program_created_ahead() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.deploy();
+    bridgeServer.startServer(context, emptyList());
+    bridgeServer.stop();
+    assertThat(logTester.logs()).contains("worker count: 1");
+
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.deploy();
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.programLookAhead", "2")
+    );
+    bridgeServer.startServer(context, emptyList());
+    bridgeServer.stop();
+    assertThat(logTester.logs()).contains("worker count: 3");
+  }
+
   @Test
   void should_use_default_timeout() {
     bridgeServer =
@@ -664,7 +924,7 @@ class BridgeServerImplTest {
         mock(Bundle.class),
         mock(RulesBundles.class),
         deprecationWarning,
-        tempFolder,
+        environment,
         unsupportedEmbeddedRuntime
       );
     assertThat(bridgeServer.getTimeoutSeconds()).isEqualTo(300);
@@ -712,7 +972,7 @@ class BridgeServerImplTest {
         new TestBundle(START_SERVER_SCRIPT),
         emptyRulesBundles,
         deprecationWarning,
-        tempFolder,
+        environment,
         unsupportedEmbeddedRuntime
       );
     bridgeServer.deploy();
@@ -741,7 +1001,7 @@ class BridgeServerImplTest {
         new TestBundle(START_SERVER_SCRIPT),
         rulesBundles,
         deprecationWarning,
-        tempFolder,
+        environment,
         unsupportedEmbeddedRuntime
       );
     bridgeServer.startServerLazily(context);
@@ -757,7 +1017,7 @@ class BridgeServerImplTest {
       new TestBundle(startServerScript),
       emptyRulesBundles,
       deprecationWarning,
-      tempFolder,
+      environment,
       unsupportedEmbeddedRuntime
     );
   }
@@ -791,6 +1051,11 @@ class BridgeServerImplTest {
       return "src/test/resources/mock-bridge/" + startServerScript;
     }
 
+    @Override
+    public String hash() {
+      return "test";
+    }
+
     @Override
     public String resolve(String relativePath) {
       File file = new File("src/test/resources");
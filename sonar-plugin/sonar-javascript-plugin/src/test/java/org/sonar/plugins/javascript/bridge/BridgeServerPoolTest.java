@@ -0,0 +1,101 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
+
+class BridgeServerPoolTest {
+
+  @TempDir
+  Path baseDir;
+
+  private final BridgeServer bridgeServer = mock(BridgeServer.class);
+  private final List<BridgeServer> createdServers = new ArrayList<>();
+  private final BridgeServerPool pool = new BridgeServerPool(
+    bridgeServer,
+    () -> {
+      var server = mock(BridgeServer.class);
+      createdServers.add(server);
+      return server;
+    }
+  );
+
+  @Test
+  void should_use_shared_server_by_default() throws Exception {
+    var context = SensorContextTester.create(baseDir);
+    assertThat(BridgeServerPool.poolSize(context)).isEqualTo(1);
+
+    var servers = pool.servers(context, mock(JsTsChecks.class), AnalysisMode.DEFAULT);
+    assertThat(servers).containsExactly(bridgeServer);
+    assertThat(createdServers).isEmpty();
+    verifyNoInteractions(bridgeServer);
+  }
+
+  @Test
+  void should_ignore_invalid_pool_size() {
+    var context = SensorContextTester.create(baseDir);
+    context.setSettings(new MapSettings().setProperty(BridgeServerPool.POOL_SIZE_PROPERTY, -1));
+    assertThat(BridgeServerPool.poolSize(context)).isEqualTo(1);
+  }
+
+  @Test
+  void should_start_and_initialize_additional_servers() throws Exception {
+    var context = SensorContextTester.create(baseDir);
+    context.setSettings(new MapSettings().setProperty(BridgeServerPool.POOL_SIZE_PROPERTY, 3));
+
+    var servers = pool.servers(context, mock(JsTsChecks.class), AnalysisMode.DEFAULT);
+    assertThat(servers).hasSize(3).startsWith(bridgeServer);
+    assertThat(servers.subList(1, 3)).containsExactlyElementsOf(createdServers);
+    for (var server : createdServers) {
+      verify(server).startServerLazily(context);
+      verify(server)
+        .initLinter(
+          any(),
+          eq(List.of()),
+          eq(List.of()),
+          eq(AnalysisMode.DEFAULT),
+          eq(baseDir.toFile().getAbsolutePath()),
+          any()
+        );
+    }
+
+    // servers are reused by subsequent analyses
+    var checks = mock(JsTsChecks.class);
+    assertThat(pool.servers(context, checks, AnalysisMode.DEFAULT)).isEqualTo(servers);
+
+    pool.stop();
+    createdServers.forEach(server -> verify(server).clean());
+    verify(bridgeServer, never()).clean();
+  }
+}
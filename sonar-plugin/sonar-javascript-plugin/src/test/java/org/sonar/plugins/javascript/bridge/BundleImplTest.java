@@ -51,4 +51,20 @@ class BundleImplTest {
     bundle.deploy(deployLocation);
     // no exception expected
   }
+
+  @Test
+  void should_reuse_bundle_extracted_by_previous_analysis() throws Exception {
+    BundleImpl bundle = new BundleImpl("/test-bundle.tgz");
+    bundle.deploy(deployLocation);
+    Path script = Path.of(bundle.startServerScript());
+    Files.writeString(script, "modified");
+
+    BundleImpl otherBundle = new BundleImpl("/test-bundle.tgz");
+    otherBundle.deploy(deployLocation);
+    assertThat(otherBundle.startServerScript()).isEqualTo(script.toString());
+    assertThat(script).hasContent("modified");
+    try (var files = Files.list(deployLocation)) {
+      assertThat(files.filter(Files::isDirectory)).hasSize(1);
+    }
+  }
 }
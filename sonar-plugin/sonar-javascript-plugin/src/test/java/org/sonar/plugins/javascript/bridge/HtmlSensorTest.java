@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +34,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -55,6 +58,7 @@ import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.Issue;
 import org.sonar.api.batch.sensor.issue.IssueLocation;
 import org.sonar.api.batch.sensor.issue.internal.DefaultNoSonarFilter;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.api.rule.RuleKey;
@@ -63,6 +67,8 @@ import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.javascript.checks.CheckList;
 import org.sonar.plugins.javascript.TestUtils;
 import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedAnalysis;
+import org.sonar.plugins.javascript.bridge.BridgeServer.BatchedRequest;
 import org.sonar.plugins.javascript.bridge.cache.CacheTestUtils;
 
 class HtmlSensorTest {
@@ -195,6 +201,27 @@ class HtmlSensorTest {
       .doesNotContain("Analyzing file: " + templateFile.uri());
   }
 
+  @Test
+  void should_analyze_files_in_batches() throws Exception {
+    context.setSettings(new MapSettings().setProperty("sonar.javascript.bridge.batchSize", 2));
+    for (var path : List.of("dir/file1.html", "dir/file2.html", "dir/file3.html")) {
+      TestUtils.createInputFile(context, getInputFileContent(), path, "web");
+    }
+    when(bridgeServerMock.analyzeBatch(any()))
+      .thenAnswer(invocation -> {
+        List<BatchedRequest> requests = invocation.getArgument(0);
+        assertThat(requests).allMatch(request -> request.type == BatchedAnalysis.HTML);
+        return requests
+          .stream()
+          .map(request -> CompletableFuture.completedFuture(new AnalysisResponse()))
+          .toList();
+      });
+
+    createSensor().execute(context);
+    verify(bridgeServerMock, times(2)).analyzeBatch(any());
+    verify(bridgeServerMock, never()).analyzeHtml(any());
+  }
+
   @Test
   void should_raise_a_parsing_error() throws IOException {
     when(bridgeServerMock.analyzeHtml(any()))
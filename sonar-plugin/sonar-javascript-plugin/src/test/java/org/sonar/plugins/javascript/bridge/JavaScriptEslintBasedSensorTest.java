@@ -50,8 +50,8 @@ import org.mockito.MockitoAnnotations;
 import org.slf4j.event.Level;
 import org.sonar.api.SonarEdition;
 import org.sonar.api.SonarQubeSide;
-import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.InputFile.Type;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.DefaultTextPointer;
 import org.sonar.api.batch.fs.internal.DefaultTextRange;
@@ -81,6 +81,7 @@ import org.sonar.plugins.javascript.TestUtils;
 import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.cache.CacheTestUtils;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 import org.sonar.plugins.javascript.nodejs.NodeCommandException;
 import org.sonar.plugins.javascript.sonarlint.SonarLintTypeCheckingChecker;
 
@@ -156,9 +157,20 @@ class JavaScriptEslintBasedSensorTest {
     var analysisWarnings = new AnalysisWarningsWrapper();
 
     analysisWithProgram =
-      new AnalysisWithProgram(bridgeServerMock, analysisProcessor, analysisWarnings);
+      new AnalysisWithProgram(
+        bridgeServerMock,
+        new BridgeServerPool(bridgeServerMock, () -> mock(BridgeServer.class)),
+        analysisProcessor,
+        analysisWarnings,
+        new InputFileIndexProvider()
+      );
     analysisWithWatchProgram =
-      new AnalysisWithWatchProgram(bridgeServerMock, analysisProcessor, analysisWarnings);
+      new AnalysisWithWatchProgram(
+        bridgeServerMock,
+        analysisProcessor,
+        analysisWarnings,
+        new InputFileIndexProvider()
+      );
   }
 
   @Test
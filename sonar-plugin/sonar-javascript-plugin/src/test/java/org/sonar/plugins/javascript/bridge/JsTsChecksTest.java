@@ -73,6 +73,25 @@ class JsTsChecksTest {
       .isEqualTo(RuleKey.parse("js-repo:customcheck"));
     assertThat(checks.ruleKeyByEslintKey("key", TYPESCRIPT))
       .isEqualTo(RuleKey.parse("repo:customcheck"));
+    assertThat(checks.ruleKeysByEslintKey(JAVASCRIPT))
+      .containsOnlyKeys("key")
+      .containsValue(RuleKey.parse("js-repo:customcheck"));
+  }
+
+  @Test
+  void should_tell_rules_requiring_type_checking() {
+    var checks = new JsTsChecks(checkFactory(CheckList.TS_REPOSITORY_KEY, "S3923", "S1874"));
+    assertThat(checks.eslintRules())
+      .filteredOn(rule -> rule.requiresTypeChecking)
+      .extracting(EslintRule::getKey)
+      .containsExactly("deprecation");
+
+    // custom rules are assumed to require type checking
+    var customChecks = new JsTsChecks(
+      checkFactory("repo", "customcheck"),
+      new CustomRuleRepository[] { new TsRepository() }
+    );
+    assertThat(customChecks.eslintRules()).allMatch(rule -> rule.requiresTypeChecking);
   }
 
   @Test
@@ -26,7 +26,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,10 +41,15 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,6 +60,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
@@ -87,10 +96,12 @@ import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.TestUtils;
 import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.BridgeServer.MemoryUsage;
 import org.sonar.plugins.javascript.bridge.BridgeServer.ParsingErrorCode;
 import org.sonar.plugins.javascript.bridge.BridgeServer.TsProgram;
 import org.sonar.plugins.javascript.bridge.BridgeServer.TsProgramRequest;
 import org.sonar.plugins.javascript.bridge.cache.CacheTestUtils;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 
 class JsTsSensorTest {
 
@@ -105,6 +116,9 @@ class JsTsSensorTest {
   @Mock
   private BridgeServerImpl bridgeServerMock;
 
+  @Mock
+  private BridgeServer additionalBridgeServerMock;
+
   private final TestAnalysisWarnings analysisWarnings = new TestAnalysisWarnings();
 
   @Mock
@@ -348,6 +362,114 @@ class JsTsSensorTest {
     assertThat(deleteCaptor.getValue().programId).isEqualTo(tsProgram.programId);
   }
 
+  @Test
+  void should_pipeline_requests_when_several_are_allowed_in_flight() throws Exception {
+    var ctx = createSensorContext(baseDir);
+    ctx.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.maxInFlightRequests", 2)
+    );
+    var file1 = createInputFile(ctx, "dir/file1.ts");
+    var file2 = createInputFile(ctx, "dir/file2.ts");
+    var file3 = createInputFile(ctx, "dir/file3.ts");
+    var tsProgram = new TsProgram(
+      "1",
+      List.of(file1.absolutePath(), file2.absolutePath(), file3.absolutePath()),
+      List.of()
+    );
+    when(bridgeServerMock.createProgram(any())).thenReturn(tsProgram);
+    when(bridgeServerMock.analyzeTypeScriptAsync(any()))
+      .thenReturn(CompletableFuture.completedFuture(createResponse()));
+    createTsConfigFile();
+
+    createSensor().execute(ctx);
+
+    verify(bridgeServerMock, times(3)).analyzeTypeScriptAsync(any());
+    verify(bridgeServerMock, never()).analyzeTypeScript(any());
+    verify(bridgeServerMock).deleteProgram(any());
+    assertThat(ctx.allIssues()).hasSize(6);
+    assertThat(ctx.highlightingTypeAt(file3.key(), 1, 0)).containsExactly(TypeOfText.KEYWORD);
+  }
+
+  @Test
+  void should_fail_when_pipelined_request_fails() throws Exception {
+    var ctx = createSensorContext(baseDir);
+    ctx.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.maxInFlightRequests", 2)
+    );
+    var inputFile = createInputFile(ctx);
+    var tsProgram = new TsProgram("1", List.of(inputFile.absolutePath()), List.of());
+    when(bridgeServerMock.createProgram(any())).thenReturn(tsProgram);
+    when(bridgeServerMock.analyzeTypeScriptAsync(any()))
+      .thenReturn(
+        CompletableFuture.failedFuture(
+          new IllegalStateException("The bridge server is unresponsive")
+        )
+      );
+    createTsConfigFile();
+
+    var sensor = createSensor();
+    assertThatThrownBy(() -> sensor.execute(ctx))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Analysis of JS/TS files failed");
+    assertThat(logTester.logs(LoggerLevel.ERROR)).contains("Failure during analysis");
+  }
+
+  @Test
+  void should_resume_with_next_file_after_bridge_server_recovery() throws Exception {
+    var ctx = createSensorContext(baseDir);
+    var file1 = createInputFile(ctx, "dir/file1.ts");
+    var file2 = createInputFile(ctx, "dir/file2.ts");
+    var tsProgram = new TsProgram(
+      "1",
+      List.of(file1.absolutePath(), file2.absolutePath()),
+      List.of()
+    );
+    when(bridgeServerMock.createProgram(any())).thenReturn(tsProgram);
+    when(bridgeServerMock.analyzeTypeScript(any()))
+      .thenThrow(new IllegalStateException("The bridge server is unresponsive"))
+      .thenReturn(createResponse());
+    when(bridgeServerMock.recover()).thenReturn(true);
+    createTsConfigFile();
+
+    createSensor().execute(ctx);
+
+    verify(bridgeServerMock).recover();
+    verify(bridgeServerMock, times(2)).createProgram(any());
+    verify(bridgeServerMock, times(2)).analyzeTypeScript(any());
+    assertThat(logTester.logs(LoggerLevel.ERROR))
+      .contains(
+        "Failed to analyze file [dir/file1.ts]: " +
+        "The bridge server crashed or stopped responding while analyzing the file"
+      );
+    assertThat(ctx.allIssues()).hasSize(3);
+    assertThat(ctx.highlightingTypeAt(file2.key(), 1, 0)).containsExactly(TypeOfText.KEYWORD);
+  }
+
+  @Test
+  void should_release_bridge_server_memory_above_heap_watermark() throws Exception {
+    var ctx = createSensorContext(baseDir);
+    ctx.setSettings(new MapSettings().setProperty("sonar.javascript.bridge.heapWatermark", 80));
+    var files = new ArrayList<String>();
+    for (int i = 0; i < 20; i++) {
+      files.add(createInputFile(ctx, "dir/file" + i + ".ts").absolutePath());
+    }
+    when(bridgeServerMock.createProgram(any())).thenReturn(new TsProgram("1", files, List.of()));
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+    when(bridgeServerMock.memoryUsage())
+      .thenReturn(new MemoryUsage(900, 1000, 1), new MemoryUsage(900, 1000, 2));
+    when(bridgeServerMock.recycle()).thenReturn(true);
+    createTsConfigFile();
+
+    createSensor().execute(ctx);
+
+    verify(bridgeServerMock, times(2)).memoryUsage();
+    verify(bridgeServerMock).newTsConfig();
+    verify(bridgeServerMock).recycle();
+    verify(bridgeServerMock, times(3)).createProgram(any());
+    verify(bridgeServerMock, times(2)).deleteProgram(any());
+    verify(bridgeServerMock, times(20)).analyzeTypeScript(any());
+  }
+
   @Test
   void should_send_content_when_not_utf8() throws Exception {
     SensorContextTester ctx = createSensorContext(baseDir);
@@ -472,6 +594,129 @@ class JsTsSensorTest {
       );
   }
 
+  @Test
+  void should_create_programs_ahead() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.programLookAhead", 1)
+    );
+    var files = new ArrayList<DefaultInputFile>();
+    for (var dir : List.of("dir1", "dir2", "dir3")) {
+      files.add(inputFileFromResource(context, baseDir, dir + "/file.ts"));
+    }
+    when(bridgeServerMock.createProgram(any()))
+      .thenAnswer(invocation -> {
+        var tsConfig = Path.of(invocation.<TsProgramRequest>getArgument(0).tsConfig);
+        var programId = tsConfig.getParent().getFileName().toString();
+        var file = tsConfig.resolveSibling("file.ts").toString();
+        return new TsProgram(programId, List.of(file), List.of());
+      });
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    createSensor().execute(context);
+
+    var captor = ArgumentCaptor.forClass(JsAnalysisRequest.class);
+    verify(bridgeServerMock, times(3)).createProgram(any());
+    verify(bridgeServerMock, times(3)).analyzeTypeScript(captor.capture());
+    assertThat(captor.getAllValues())
+      .extracting(req -> req.filePath + "@" + req.programId)
+      .containsExactlyInAnyOrder(
+        files.get(0).absolutePath() + "@dir1",
+        files.get(1).absolutePath() + "@dir2",
+        files.get(2).absolutePath() + "@dir3"
+      );
+    verify(bridgeServerMock, times(3)).deleteProgram(any());
+  }
+
+  @Test
+  void should_delete_programs_created_ahead_when_analysis_fails() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.programLookAhead", 2)
+    );
+    for (var dir : List.of("dir1", "dir2", "dir3")) {
+      inputFileFromResource(context, baseDir, dir + "/file.ts");
+    }
+    List<String> createdPrograms = new CopyOnWriteArrayList<>();
+    when(bridgeServerMock.createProgram(any()))
+      .thenAnswer(invocation -> {
+        var tsConfig = Path.of(invocation.<TsProgramRequest>getArgument(0).tsConfig);
+        var programId = tsConfig.getParent().getFileName().toString();
+        createdPrograms.add(programId);
+        var file = tsConfig.resolveSibling("file.ts").toString();
+        return new TsProgram(programId, List.of(file), List.of());
+      });
+    when(bridgeServerMock.analyzeTypeScript(any())).thenThrow(new IOException("error"));
+
+    assertThatThrownBy(() -> createSensor().execute(context))
+      .isInstanceOf(IllegalStateException.class);
+
+    var captor = ArgumentCaptor.forClass(TsProgram.class);
+    verify(bridgeServerMock, atLeast(0)).deleteProgram(captor.capture());
+    assertThat(createdPrograms).contains("dir1");
+    assertThat(captor.getAllValues())
+      .extracting(program -> program.programId)
+      .containsExactlyInAnyOrderElementsOf(
+        createdPrograms.stream().filter(id -> !"dir1".equals(id)).collect(Collectors.toList())
+      );
+  }
+
+  @Test
+  void should_analyze_files_outside_tsconfig_with_generated_programs() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.generatedProgramSize", 10)
+    );
+    var noconfig = inputFileFromResource(context, baseDir, "noconfig.ts");
+    var generatedTsConfig = baseDir.resolve("generated-tsconfig.json").toString();
+    when(bridgeServerMock.createTsConfigFile(any()))
+      .thenReturn(new TsConfigFile(generatedTsConfig, emptyList(), emptyList()));
+    when(bridgeServerMock.createProgram(any()))
+      .thenAnswer(invocation -> {
+        var tsConfig = invocation.<TsProgramRequest>getArgument(0).tsConfig;
+        var files = tsConfig.equals(generatedTsConfig)
+          ? List.of(noconfig.absolutePath())
+          : List.<String>of();
+        return new TsProgram(tsConfig, files, List.of());
+      });
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    createSensor().execute(context);
+
+    var captor = ArgumentCaptor.forClass(JsAnalysisRequest.class);
+    verify(bridgeServerMock).analyzeTypeScript(captor.capture());
+    assertThat(captor.getValue().programId).isEqualTo(generatedTsConfig);
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains(
+        "Generated TypeScript configuration file " + generatedTsConfig + " for 1 file(s)"
+      );
+  }
+
+  @Test
+  void should_not_create_programs_when_no_rule_requires_type_checking() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.skipUnneededPrograms", true)
+    );
+    var file = inputFileFromResource(context, baseDir, "dir1/file.ts");
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    createSensor().execute(context);
+
+    var captor = ArgumentCaptor.forClass(JsAnalysisRequest.class);
+    verify(bridgeServerMock).analyzeTypeScript(captor.capture());
+    assertThat(captor.getValue().filePath).isEqualTo(file.absolutePath());
+    assertThat(captor.getValue().programId).isNull();
+    verify(bridgeServerMock, never()).createProgram(any());
+    verify(bridgeServerMock, never()).createTsConfigFile(any());
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains("No active rule requires type information: TypeScript programs will not be created");
+  }
+
   @Test
   void should_analyze_by_program() throws Exception {
     Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
@@ -543,6 +788,55 @@ class JsTsSensorTest {
       );
   }
 
+  @Test
+  void should_analyze_programs_with_pool_of_bridge_servers() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(new MapSettings().setProperty("sonar.javascript.bridge.poolSize", 2));
+
+    var file1 = inputFileFromResource(context, baseDir, "dir1/file.ts");
+    var file2 = inputFileFromResource(context, baseDir, "dir2/file.ts");
+    var file3 = inputFileFromResource(context, baseDir, "dir3/file.ts");
+    var noconfig = inputFileFromResource(context, baseDir, "noconfig.ts");
+
+    var programIds = new AtomicInteger();
+    Answer<TsProgram> createProgram = invocation -> {
+      TsProgramRequest request = invocation.getArgument(0);
+      var file = Path.of(request.tsConfig).getParent().resolve("file.ts").toString();
+      return new TsProgram(
+        String.valueOf(programIds.incrementAndGet()),
+        singletonList(file),
+        emptyList()
+      );
+    };
+    for (var server : List.of(bridgeServerMock, additionalBridgeServerMock)) {
+      when(server.createProgram(any())).thenAnswer(createProgram);
+      when(server.analyzeTypeScriptAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(new AnalysisResponse()));
+    }
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    createSensor().execute(context);
+
+    assertThat(programIds.get()).isEqualTo(3);
+    verify(bridgeServerMock, atLeastOnce()).createProgram(any());
+    verify(additionalBridgeServerMock, atLeastOnce()).createProgram(any());
+    verify(additionalBridgeServerMock).startServerLazily(context);
+    verify(additionalBridgeServerMock).initLinter(any(), any(), any(), any(), any(), any());
+
+    var captor = ArgumentCaptor.forClass(JsAnalysisRequest.class);
+    verify(bridgeServerMock, atLeast(0)).analyzeTypeScriptAsync(captor.capture());
+    verify(additionalBridgeServerMock, atLeast(0)).analyzeTypeScriptAsync(captor.capture());
+    assertThat(captor.getAllValues())
+      .extracting(req -> req.filePath)
+      .containsExactlyInAnyOrder(file1.absolutePath(), file2.absolutePath(), file3.absolutePath());
+    verify(bridgeServerMock).analyzeTypeScript(any());
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains("Analyzing TypeScript programs with 2 bridge servers");
+    assertThat(logTester.logs(LoggerLevel.DEBUG))
+      .contains("File not part of any tsconfig.json: " + noconfig);
+  }
+
   @Test
   void should_not_analyze_references_twice() throws Exception {
     Path baseDir = Paths.get("src/test/resources/referenced-tsconfigs").toAbsolutePath();
@@ -790,6 +1084,107 @@ class JsTsSensorTest {
       .contains("Processing cache analysis of file: " + file.uri());
   }
 
+  @Test
+  void should_analyze_files_whose_cached_analysis_cannot_be_read() throws IOException {
+    var path = "dir/file.ts";
+    var context = CacheTestUtils.createContextWithCache(baseDir, workDir, path);
+    when(context.previousCache().read("js:cpd:DATA:moduleKey:" + path))
+      .thenReturn(CacheTestUtils.inputStream("invalid-cpd-data"));
+    var file = TestUtils
+      .createInputFile(context, "if (cond)\ndoFoo(); \nelse \ndoFoo();", path)
+      .setStatus(InputFile.Status.SAME);
+    var sensor = createSensor();
+
+    createTsConfigFile();
+    var tsProgram = new TsProgram("1", List.of(file.absolutePath()), List.of());
+    when(bridgeServerMock.createProgram(any())).thenReturn(tsProgram);
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    sensor.execute(context);
+
+    verify(bridgeServerMock).analyzeTypeScript(any());
+    assertThat(logTester.logs(LoggerLevel.DEBUG))
+      .contains(
+        "Processing cache analysis of file: " + file.uri(),
+        "Analyzing file: " + file.uri()
+      );
+  }
+
+  @Test
+  void should_analyze_unchanged_files_affected_since_program_state() throws IOException {
+    var path = "dir/file.ts";
+    var context = CacheTestUtils.createContextWithCache(baseDir, workDir, path);
+    var file = TestUtils
+      .createInputFile(context, "if (cond)\ndoFoo(); \nelse \ndoFoo();", path)
+      .setStatus(InputFile.Status.SAME);
+    var sensor = createSensor();
+
+    createTsConfigFile();
+    var tsProgram = new Gson()
+      .fromJson(
+        new Gson()
+          .toJson(
+            Map.of(
+              "programId",
+              "1",
+              "files",
+              List.of(file.absolutePath()),
+              "projectReferences",
+              List.of(),
+              "affectedFiles",
+              List.of(file.absolutePath())
+            )
+          ),
+        TsProgram.class
+      );
+    when(bridgeServerMock.createProgram(any())).thenReturn(tsProgram);
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    sensor.execute(context);
+
+    verify(bridgeServerMock).analyzeTypeScript(any());
+    assertThat(logTester.logs(LoggerLevel.DEBUG))
+      .contains("Analyzing file: " + file.uri())
+      .doesNotContain("Processing cache analysis of file: " + file.uri());
+  }
+
+  @Test
+  void should_analyze_files_without_program_when_generated_program_crashes() throws Exception {
+    Path baseDir = Paths.get("src/test/resources/multi-tsconfig").toAbsolutePath();
+    SensorContextTester context = createSensorContext(baseDir);
+    context.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.generatedProgramSize", 10)
+    );
+    var noconfig = inputFileFromResource(context, baseDir, "noconfig.ts");
+    var generatedTsConfig = baseDir.resolve("generated-tsconfig.json").toString();
+    when(bridgeServerMock.createTsConfigFile(any()))
+      .thenReturn(new TsConfigFile(generatedTsConfig, emptyList(), emptyList()));
+    when(bridgeServerMock.createProgram(any()))
+      .thenAnswer(invocation -> {
+        var tsConfig = invocation.<TsProgramRequest>getArgument(0).tsConfig;
+        if (tsConfig.equals(generatedTsConfig)) {
+          throw new IllegalStateException("The bridge server is unresponsive");
+        }
+        return new TsProgram(tsConfig, List.of(), List.of());
+      });
+    when(bridgeServerMock.recover()).thenReturn(true);
+    when(bridgeServerMock.analyzeTypeScript(any())).thenReturn(new AnalysisResponse());
+
+    createSensor().execute(context);
+
+    var captor = ArgumentCaptor.forClass(JsAnalysisRequest.class);
+    verify(bridgeServerMock).recover();
+    verify(bridgeServerMock).analyzeTypeScript(captor.capture());
+    assertThat(captor.getValue().filePath).isEqualTo(noconfig.absolutePath());
+    assertThat(captor.getValue().programId).isNull();
+    assertThat(logTester.logs(LoggerLevel.ERROR))
+      .contains(
+        "Failed to create TypeScript program of " +
+        generatedTsConfig +
+        ", its files are analyzed without type info"
+      );
+  }
+
   private JsTsSensor createSensor() {
     return new JsTsSensor(
       checks(ESLINT_BASED_RULE, "S2260"),
@@ -802,11 +1197,22 @@ class JsTsSensorTest {
   }
 
   private AnalysisWithProgram analysisWithProgram() {
-    return new AnalysisWithProgram(bridgeServerMock, processAnalysis, analysisWarnings);
+    return new AnalysisWithProgram(
+      bridgeServerMock,
+      new BridgeServerPool(bridgeServerMock, () -> additionalBridgeServerMock),
+      processAnalysis,
+      analysisWarnings,
+      new InputFileIndexProvider()
+    );
   }
 
   private AnalysisWithWatchProgram analysisWithWatchProgram() {
-    return new AnalysisWithWatchProgram(bridgeServerMock, processAnalysis, analysisWarnings);
+    return new AnalysisWithWatchProgram(
+      bridgeServerMock,
+      processAnalysis,
+      analysisWarnings,
+      new InputFileIndexProvider()
+    );
   }
 
   private AnalysisResponse createResponse() {
@@ -0,0 +1,91 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PersistenceStageTest {
+
+  @Test
+  void should_save_on_calling_thread_without_threads() {
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    try (var stage = new PersistenceStage(0)) {
+      stage.submit(() -> {
+        threads.add(Thread.currentThread());
+        return () -> threads.add(Thread.currentThread());
+      });
+      assertThat(threads).containsExactly(Thread.currentThread(), Thread.currentThread());
+    }
+  }
+
+  @Test
+  void should_prepare_in_background_and_save_in_order_on_calling_thread() {
+    var release = new CountDownLatch(1);
+    List<Thread> preparingThreads = new CopyOnWriteArrayList<>();
+    List<Thread> savingThreads = new CopyOnWriteArrayList<>();
+    List<Integer> saved = new CopyOnWriteArrayList<>();
+    try (var stage = new PersistenceStage(2)) {
+      for (int i = 0; i < 10; i++) {
+        var file = i;
+        stage.submit(() -> {
+          await(release);
+          preparingThreads.add(Thread.currentThread());
+          return () -> {
+            savingThreads.add(Thread.currentThread());
+            saved.add(file);
+          };
+        });
+      }
+      assertThat(saved).isEmpty();
+      release.countDown();
+      stage.await();
+    }
+    assertThat(saved).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    assertThat(savingThreads).hasSize(10).containsOnly(Thread.currentThread());
+    assertThat(preparingThreads).hasSize(10).doesNotContain(Thread.currentThread());
+  }
+
+  @Test
+  void should_report_failed_preparations() {
+    try (var stage = new PersistenceStage(1)) {
+      stage.submit(() -> {
+        throw new IllegalStateException("Failed to analyze file");
+      });
+      assertThatThrownBy(stage::await)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Failed to analyze file");
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
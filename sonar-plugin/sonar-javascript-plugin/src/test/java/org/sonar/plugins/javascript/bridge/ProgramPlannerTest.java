@@ -0,0 +1,91 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.api.utils.log.LoggerLevel;
+
+class ProgramPlannerTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(LoggerLevel.DEBUG);
+
+  private final BridgeServer bridgeServer = mock(BridgeServer.class);
+
+  @Test
+  void should_plan_programs_covering_most_files_first() {
+    var inputFiles = List
+      .of("file1.ts", "file2.ts", "file3.ts", "file4.ts")
+      .stream()
+      .map(f -> TestInputFileBuilder.create("foo", f).build())
+      .collect(Collectors.<InputFile>toList());
+    tsConfig("solution.json", List.of(), List.of("small.json", "large.json"));
+    tsConfig("small.json", List.of("foo/file1.ts", "foo/file2.ts"), List.of());
+    tsConfig(
+      "large.json",
+      List.of("foo/file2.ts", "foo/file3.ts", "foo/file4.ts", "foo/not-in-project.ts"),
+      List.of("small.json")
+    );
+    tsConfig("covered.json", List.of("foo/file3.ts"), List.of());
+
+    var plan = new ProgramPlanner(bridgeServer)
+      .plan(List.of("solution.json", "covered.json"), inputFiles);
+
+    assertThat(plan).containsExactly("large.json", "small.json");
+    verify(bridgeServer, times(1)).loadTsConfig("small.json");
+    assertThat(logTester.logs(LoggerLevel.DEBUG))
+      .contains(
+        "Skipping tsconfig.json with no file left to analyze: 'solution.json'",
+        "Skipping tsconfig.json with no file left to analyze: 'covered.json'"
+      );
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .contains("Planned 2 TypeScript program(s) out of 4 tsconfig.json file(s)");
+  }
+
+  @Test
+  void should_prefer_smaller_program_on_tie() {
+    var inputFile = TestInputFileBuilder.create("foo", "file.ts").build();
+    tsConfig("large.json", List.of("foo/file.ts", "foo/other.ts"), emptyList());
+    tsConfig("small.json", List.of("foo/file.ts"), emptyList());
+
+    var plan = new ProgramPlanner(bridgeServer)
+      .plan(List.of("large.json", "small.json"), List.of(inputFile));
+
+    assertThat(plan).containsExactly("small.json");
+  }
+
+  private void tsConfig(String filename, List<String> files, List<String> projectReferences) {
+    when(bridgeServer.loadTsConfig(filename))
+      .thenReturn(new TsConfigFile(filename, files, projectReferences));
+  }
+}
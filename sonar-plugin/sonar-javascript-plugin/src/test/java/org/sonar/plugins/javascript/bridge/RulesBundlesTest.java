@@ -50,6 +50,16 @@ class RulesBundlesTest {
     assertThat(paths.get(0).resolve("bin/server")).hasContent("#!/usr/bin/env node\n\n");
   }
 
+  @Test
+  void should_reuse_bundle_extracted_by_previous_analysis() {
+    TestRulesBundle rulesBundle = new TestRulesBundle("/test-bundle.tgz");
+    RulesBundles rulesBundles = new RulesBundles(new TestRulesBundle[] { rulesBundle });
+    List<Path> paths = rulesBundles.deploy(tempDir);
+    assertThat(rulesBundles.deploy(tempDir)).isEqualTo(paths);
+    assertThat(logTester.logs(LoggerLevel.DEBUG))
+      .anyMatch(log -> log.startsWith("Reusing archive already extracted into"));
+  }
+
   @Test
   void test_not_exists() {
     RulesBundle[] missingBundle = { new TestRulesBundle("missing.tgz") };
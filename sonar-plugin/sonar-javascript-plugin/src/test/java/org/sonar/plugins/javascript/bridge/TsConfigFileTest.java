@@ -65,6 +65,34 @@ class TsConfigFileTest {
       );
   }
 
+  @Test
+  void should_match_first_tsconfig_including_file() {
+    List<InputFile> inputFiles = List.of(
+      TestInputFileBuilder.create("foo", "dir/file1.ts").build(),
+      TestInputFileBuilder.create("foo", "dir/file2.ts").build(),
+      TestInputFileBuilder.create("foo", "other/file3.ts").build()
+    );
+    List<TsConfigFile> tsConfigFiles = List.of(
+      new TsConfigFile("tsconfig.app.json", List.of("foo/dir/file2.ts"), emptyList()),
+      new TsConfigFile(
+        "tsconfig.json",
+        List.of("foo/dir/file1.ts", "foo/dir/file2.ts"),
+        emptyList()
+      )
+    );
+
+    Map<TsConfigFile, List<InputFile>> result = TsConfigFile.inputFilesByTsConfig(
+      tsConfigFiles,
+      inputFiles
+    );
+    assertThat(result)
+      .containsExactly(
+        entry(tsConfigFiles.get(1), singletonList(inputFiles.get(0))),
+        entry(tsConfigFiles.get(0), singletonList(inputFiles.get(1))),
+        entry(TsConfigFile.UNMATCHED_CONFIG, singletonList(inputFiles.get(2)))
+      );
+  }
+
   @Test
   void failsToLoad() {
     List<TsConfigFile> tsConfigFiles = singletonList(
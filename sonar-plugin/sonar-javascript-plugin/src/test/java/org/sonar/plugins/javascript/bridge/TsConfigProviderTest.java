@@ -20,6 +20,7 @@
 package org.sonar.plugins.javascript.bridge;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -35,6 +36,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
@@ -252,6 +254,48 @@ class TsConfigProviderTest {
       );
   }
 
+  @Test
+  void should_create_tsconfigs_by_directory_when_program_size_is_bounded() throws Exception {
+    SensorContextTester ctx = SensorContextTester.create(baseDir);
+    ctx.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.generatedProgramSize", 2)
+    );
+    createInputFile(ctx, "dir1/file1.ts");
+    createInputFile(ctx, "dir1/file2.ts");
+    createInputFile(ctx, "dir2/file3.ts");
+
+    List<String> tsconfigs = TsConfigProvider.getTsConfigs(
+      new ContextUtils(ctx),
+      null,
+      this::tsConfigFileCreator
+    );
+
+    assertThat(tsconfigs).hasSize(2);
+    assertThat(Files.readString(Path.of(tsconfigs.get(0))))
+      .isEqualTo(
+        "{\"files\":[\"moduleKey/dir1/file1.ts\",\"moduleKey/dir1/file2.ts\"],\"compilerOptions\":{\"allowJs\":true,\"noImplicitAny\":true}}"
+      );
+    assertThat(Files.readString(Path.of(tsconfigs.get(1))))
+      .isEqualTo(
+        "{\"files\":[\"moduleKey/dir2/file3.ts\"],\"compilerOptions\":{\"allowJs\":true,\"noImplicitAny\":true}}"
+      );
+  }
+
+  @Test
+  void should_fail_when_bounded_tsconfig_cannot_be_created() throws Exception {
+    SensorContextTester ctx = SensorContextTester.create(baseDir);
+    ctx.setSettings(
+      new MapSettings().setProperty("sonar.javascript.bridge.generatedProgramSize", 2)
+    );
+    createInputFile(ctx, "dir1/file1.ts");
+
+    var fileWriter = mock(TsConfigProvider.TsConfigFileCreator.class);
+    when(fileWriter.createTsConfigFile(anyString())).thenThrow(IOException.class);
+
+    assertThatThrownBy(() -> TsConfigProvider.getTsConfigs(new ContextUtils(ctx), null, fileWriter))
+      .isInstanceOf(IOException.class);
+  }
+
   @Test
   void should_create_wildcard_tsconfig() throws Exception {
     var ctx = SensorContextTester.create(baseDir);
@@ -332,6 +376,48 @@ class TsConfigProviderTest {
     assertThat(wildcardTsConfigProvider.tsconfigs(ctx)).isEmpty();
   }
 
+  @Test
+  void should_partition_files_by_directory() {
+    var files = List
+      .of("a/1.ts", "a/2.ts", "b/1.ts", "c/1.ts", "c/2.ts", "c/3.ts", "c/4.ts", "d/1.ts")
+      .stream()
+      .map(f -> (InputFile) new TestInputFileBuilder("moduleKey", f).build())
+      .toList();
+
+    var partitions = TsConfigProvider.GeneratedTsConfigFileProvider.partitionByDirectory(files, 3);
+
+    // directories are kept together, unless larger than a partition
+    assertThat(partitions)
+      .containsExactly(
+        List.of(files.get(0), files.get(1), files.get(2)),
+        List.of(files.get(3), files.get(4), files.get(5)),
+        List.of(files.get(6), files.get(7))
+      );
+  }
+
+  @Test
+  void should_generate_tsconfig_listing_files() throws Exception {
+    var file = new TestInputFileBuilder("moduleKey", "file.ts").build();
+
+    var tsconfig = TsConfigProvider.GeneratedTsConfigFileProvider.generateTsConfig(
+      List.of(file),
+      TsConfigProviderTest::createTsConfigFile
+    );
+
+    assertThat(Files.readString(Path.of(tsconfig)))
+      .isEqualTo(
+        "{\"files\":[\"" +
+        file.absolutePath() +
+        "\"],\"compilerOptions\":{\"allowJs\":true,\"noImplicitAny\":true}}"
+      );
+    var failingCreator = mock(TsConfigProvider.TsConfigFileCreator.class);
+    when(failingCreator.createTsConfigFile(anyString())).thenThrow(IOException.class);
+    assertThat(
+      TsConfigProvider.GeneratedTsConfigFileProvider.generateTsConfig(List.of(file), failingCreator)
+    )
+      .isNull();
+  }
+
   private static void createInputFile(SensorContextTester context, String relativePath) {
     DefaultInputFile inputFile = new TestInputFileBuilder("moduleKey", relativePath)
       .setLanguage("ts")
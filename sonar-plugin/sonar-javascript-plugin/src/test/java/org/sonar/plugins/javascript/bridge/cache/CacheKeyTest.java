@@ -48,6 +48,18 @@ class CacheKeyTest {
     assertThat(CacheKey.forFile(inputFile, null).forCpd()).hasToString("js:cpd:fileKey");
   }
 
+  @Test
+  void test_dependencies_key() {
+    assertThat(CacheKey.forFile(inputFile, null).forDependencies())
+      .hasToString("js:dependencies:fileKey");
+  }
+
+  @Test
+  void test_program_state_key() {
+    assertThat(CacheKey.forTsConfig("dir/tsconfig.json", "1.0").forProgramState())
+      .hasToString("js:tsbuildinfo:1.0:dir/tsconfig.json");
+  }
+
   @Test
   void test_ucfg_version_in_key() {
     PluginInfo.setUcfgPluginVersion("ucfg_version");
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 import static org.sonar.plugins.javascript.bridge.cache.CacheStrategy.noCache;
 import static org.sonar.plugins.javascript.bridge.cache.CacheStrategy.writeOnly;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,7 +34,6 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.log.LoggerLevel;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
 
 class CacheReporterTest {
 
@@ -104,11 +104,32 @@ class CacheReporterTest {
       );
   }
 
-  private CacheStrategy createReadAndWrite() {
-    return CacheStrategy.readAndWrite(
-      CacheAnalysis.fromCache(new BridgeServer.CpdToken[0]),
-      createSerialization()
+  @Test
+  void should_report_failed_restores_as_misses() {
+    logTester.setLevel(LoggerLevel.DEBUG);
+    when(inputFile.toString()).thenReturn("file.js");
+
+    cacheReporter.reset();
+    var strategy = createReadAndWrite();
+    cacheReporter.logAndIncrement(strategy, inputFile, null);
+    cacheReporter.replaceHit(
+      strategy.toWriteOnly(),
+      inputFile,
+      CacheStrategies.MissReason.CACHE_CORRUPTED
     );
+    cacheReporter.logReport();
+
+    assertThat(logTester.logs())
+      .containsExactly(
+        "Cache strategy set to 'READ_AND_WRITE' for file 'file.js'",
+        "Cache strategy set to 'WRITE_ONLY' for file 'file.js' as the cache is corrupted",
+        "Hit the cache for 0 out of 1",
+        "Miss the cache for 1 out of 1: CACHE_CORRUPTED [1/1]"
+      );
+  }
+
+  private CacheStrategy createReadAndWrite() {
+    return CacheStrategy.readAndWrite(createSerialization(), new FilesManifest(List.of()));
   }
 
   private CacheAnalysisSerialization createSerialization() {
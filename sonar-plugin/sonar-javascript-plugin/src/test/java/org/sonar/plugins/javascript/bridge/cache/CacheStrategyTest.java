@@ -19,7 +19,6 @@
  */
 package org.sonar.plugins.javascript.bridge.cache;
 
-import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -27,7 +26,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -68,13 +66,13 @@ import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.CpdTokens;
 import org.sonar.plugins.javascript.bridge.PluginInfo;
 
 @SuppressWarnings("resource")
 class CacheStrategyTest {
 
-  static final List<BridgeServer.CpdToken> CPD_TOKENS = CacheTestUtils.getCpdTokens();
+  static final CpdTokens CPD_TOKENS = CacheTestUtils.getCpdTokens();
   static final String PLUGIN_VERSION = "1.0.0";
 
   CacheAnalysisSerialization serialization;
@@ -115,7 +113,6 @@ class CacheStrategyTest {
     when(inputFile.uri()).thenReturn(testFile.toUri());
     when(inputFile.key())
       .thenReturn(baseDir.relativize(testFile).toString().replace(File.separator, "/"));
-    doReturn("Hello World!").when(inputFile).contents();
     when(inputFile.charset()).thenReturn(StandardCharsets.UTF_8);
 
     previousCache = mock(ReadCache.class);
@@ -234,7 +231,7 @@ class CacheStrategyTest {
     assertThat(strategy.isAnalysisRequired()).isTrue();
 
     strategy.writeAnalysisToCache(
-      new CacheAnalysis(ucfgFiles, CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)),
+      new CacheAnalysis(ucfgFiles, CPD_TOKENS),
       inputFile
     );
 
@@ -268,9 +265,7 @@ class CacheStrategyTest {
       cpdDataCaptor.getValue(),
       cpdStringTableCaptor.getValue()
     );
-    assertThat(cpdData.getCpdTokens())
-      .usingRecursiveFieldByFieldElementComparator()
-      .containsExactlyElementsOf(CPD_TOKENS);
+    assertThat(cpdData.getCpdTokens()).usingRecursiveComparison().isEqualTo(CPD_TOKENS);
   }
 
   @Test
@@ -287,7 +282,7 @@ class CacheStrategyTest {
     var generatedFiles = List.of("inexistent.ucfg");
     var cacheAnalysis = new CacheAnalysis(
       generatedFiles,
-      CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)
+      CPD_TOKENS
     );
     assertThatThrownBy(() -> strategy.writeAnalysisToCache(cacheAnalysis, inputFile))
       .isInstanceOf(UncheckedIOException.class);
@@ -328,7 +323,7 @@ class CacheStrategyTest {
     assertThat(strategy.isAnalysisRequired()).isTrue();
 
     strategy.writeAnalysisToCache(
-      CacheAnalysis.fromResponse(null, CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)),
+      CacheAnalysis.fromResponse(null, CPD_TOKENS),
       inputFile
     );
     verify(nextCache).write(eq(jsonCacheKey), any(byte[].class));
@@ -349,6 +344,14 @@ class CacheStrategyTest {
     assertThat(strategy.isAnalysisRequired()).isFalse();
 
     verify(previousCache).read(jsonCacheKey);
+    verify(previousCache, never()).read(seqCacheKey);
+    verify(previousCache, never()).read(cpdDataCacheKey);
+    verify(nextCache, never()).copyFromPrevious(anyString());
+
+    var cpdTokens = CpdTokens.builder();
+    assertThat(strategy.restoreFromCache(cpdTokens::add)).isTrue();
+    assertThat(cpdTokens.build()).usingRecursiveComparison().isEqualTo(CPD_TOKENS);
+
     verify(nextCache).copyFromPrevious(jsonCacheKey);
     verify(previousCache).read(seqCacheKey);
     verify(nextCache).copyFromPrevious(seqCacheKey);
@@ -370,7 +373,7 @@ class CacheStrategyTest {
       .map(Path::toString)
       .collect(toList());
     strategy.writeAnalysisToCache(
-      new CacheAnalysis(ucfgPaths, CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)),
+      new CacheAnalysis(ucfgPaths, CPD_TOKENS),
       inputFile
     );
     verify(nextCache).write(eq(jsonCacheKey), any(byte[].class));
@@ -379,6 +382,19 @@ class CacheStrategyTest {
     verify(nextCache).write(eq(cpdStringTableCacheKey), any(byte[].class));
   }
 
+  @Test
+  void should_not_read_from_cache_when_dependency_changed() throws IOException {
+    createUcfgFilesInCache();
+
+    when(inputFile.status()).thenReturn(InputFile.Status.SAME);
+    when(context.canSkipUnchangedFiles()).thenReturn(true);
+
+    var strategy = CacheStrategies.getStrategyFor(context, inputFile, PLUGIN_VERSION, true);
+    assertThat(strategy.getName()).isEqualTo(CacheStrategy.WRITE_ONLY);
+    assertThat(strategy.isAnalysisRequired()).isTrue();
+    verify(previousCache, never()).read(jsonCacheKey);
+  }
+
   @Test
   void should_handle_null_ucfg_manifest_json() throws IOException {
     createUcfgFilesInCache();
@@ -434,8 +450,8 @@ class CacheStrategyTest {
       .thenReturn(inputStream("invalid-cpd-stringTable"));
 
     var strategy = CacheStrategies.getStrategyFor(context, inputFile, PLUGIN_VERSION);
-    assertThat(strategy.getName()).isEqualTo(CacheStrategy.WRITE_ONLY);
-    assertThat(strategy.isAnalysisRequired()).isTrue();
+    assertThat(strategy.getName()).isEqualTo(CacheStrategy.READ_AND_WRITE);
+    assertThat(strategy.restoreFromCache(CpdTokens.builder()::add)).isFalse();
 
     verify(previousCache).read(jsonCacheKey);
     verify(previousCache).read(seqCacheKey);
@@ -445,6 +461,14 @@ class CacheStrategyTest {
     verify(nextCache, never()).copyFromPrevious(jsonCacheKey);
     verify(nextCache, never()).copyFromPrevious(cpdDataCacheKey);
     verify(nextCache, never()).copyFromPrevious(cpdStringTableCacheKey);
+
+    var fallback = CacheStrategies.fallbackToAnalysis(strategy, inputFile);
+    assertThat(fallback.getName()).isEqualTo(CacheStrategy.WRITE_ONLY);
+    assertThat(fallback.isAnalysisRequired()).isTrue();
+
+    fallback.writeAnalysisToCache(new CacheAnalysis(List.of(), CPD_TOKENS), inputFile);
+    verify(nextCache).write(eq(cpdDataCacheKey), any(byte[].class));
+    verify(nextCache).write(eq(cpdStringTableCacheKey), any(byte[].class));
   }
 
   @Test
@@ -456,7 +480,7 @@ class CacheStrategyTest {
     when(inputFile.status()).thenReturn(InputFile.Status.SAME);
     when(context.canSkipUnchangedFiles()).thenReturn(true);
 
-    var serializationResult = CpdSerializer.toBinary(new CpdData(emptyList()));
+    var serializationResult = CpdSerializer.toBinary(new CpdData(CpdTokens.EMPTY));
     when(previousCache.read(cpdDataCacheKey))
       .thenReturn(inputStream(serializationResult.getData()));
     when(previousCache.read(cpdStringTableCacheKey))
@@ -517,8 +541,9 @@ class CacheStrategyTest {
     when(context.canSkipUnchangedFiles()).thenReturn(true);
 
     var strategy = CacheStrategies.getStrategyFor(context, inputFile, PLUGIN_VERSION);
-    assertThat(strategy.getName()).isEqualTo(CacheStrategy.WRITE_ONLY);
-    assertThat(strategy.isAnalysisRequired()).isTrue();
+    assertThat(strategy.getName()).isEqualTo(CacheStrategy.READ_AND_WRITE);
+    assertThat(strategy.restoreFromCache(null)).isFalse();
+    verify(nextCache, never()).copyFromPrevious(anyString());
   }
 
   @Test
@@ -532,15 +557,18 @@ class CacheStrategyTest {
     when(context.canSkipUnchangedFiles()).thenReturn(true);
 
     var strategy = CacheStrategies.getStrategyFor(context, inputFile, PLUGIN_VERSION);
-    assertThat(strategy.getName()).isEqualTo(CacheStrategy.WRITE_ONLY);
-    assertThat(strategy.isAnalysisRequired()).isTrue();
+    assertThat(strategy.getName()).isEqualTo(CacheStrategy.READ_AND_WRITE);
+    assertThat(strategy.restoreFromCache(null)).isFalse();
+    verify(nextCache, never()).copyFromPrevious(anyString());
   }
 
   @Test
   void should_check_file_status() throws IOException {
     var ucfgFileRelativePaths = createUcfgFilesInCache();
 
-    when(inputFile.contents()).thenReturn("Changed");
+    Files.writeString(baseDir.resolve("src/test.js"), "Changed", StandardCharsets.UTF_8);
+    // the next analysis doesn't reuse the fingerprints of the previous one
+    CacheStrategies.reset();
 
     when(context.canSkipUnchangedFiles()).thenReturn(true);
 
@@ -567,7 +595,7 @@ class CacheStrategyTest {
       .map(Path::toString)
       .collect(toList());
     strategy.writeAnalysisToCache(
-      new CacheAnalysis(ucfgPaths, CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)),
+      new CacheAnalysis(ucfgPaths, CPD_TOKENS),
       inputFile
     );
     verify(nextCache).write(eq(jsonCacheKey), any(byte[].class));
@@ -607,7 +635,7 @@ class CacheStrategyTest {
       .map(Path::toString)
       .collect(toList());
     strategy.writeAnalysisToCache(
-      new CacheAnalysis(ucfgPaths, CPD_TOKENS.toArray(BridgeServer.CpdToken[]::new)),
+      new CacheAnalysis(ucfgPaths, CPD_TOKENS),
       inputFile
     );
     verify(nextCache).write(eq(jsonCacheKey), any(byte[].class));
@@ -621,7 +649,7 @@ class CacheStrategyTest {
     when(inputFile.toString()).thenReturn("test.js");
     assertThat(
       CacheStrategies.getLogMessage(
-        readAndWrite(CacheAnalysis.fromCache(new BridgeServer.CpdToken[0]), serialization),
+        readAndWrite(serialization, new FilesManifest(List.of())),
         inputFile,
         "this is a test"
       )
@@ -714,7 +742,7 @@ class CacheStrategyTest {
     when(fileSystem.workDir()).thenReturn(tempDir.toFile());
     when(context.nextCache()).thenReturn(tempCache);
     serialization.writeToCache(
-      CacheAnalysis.fromResponse(ucfgFiles, new BridgeServer.CpdToken[0]),
+      CacheAnalysis.fromResponse(ucfgFiles, CpdTokens.EMPTY),
       inputFile
     );
     when(fileSystem.workDir()).thenReturn(workDir.toFile());
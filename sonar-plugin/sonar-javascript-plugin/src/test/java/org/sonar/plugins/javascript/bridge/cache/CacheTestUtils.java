@@ -31,7 +31,6 @@ import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 import org.sonar.api.SonarEdition;
 import org.sonar.api.SonarQubeSide;
 import org.sonar.api.batch.sensor.cache.ReadCache;
@@ -39,7 +38,7 @@ import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.utils.Version;
-import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.CpdTokens;
 
 public class CacheTestUtils {
 
@@ -48,13 +47,12 @@ public class CacheTestUtils {
 
   private CacheTestUtils() {}
 
-  public static CpdSerializer.SerializationResult getSerializedCpdTokens(
-    List<BridgeServer.CpdToken> cpdTokens
-  ) throws IOException {
+  public static CpdSerializer.SerializationResult getSerializedCpdTokens(CpdTokens cpdTokens)
+    throws IOException {
     return CpdSerializer.toBinary(new CpdData(cpdTokens));
   }
 
-  public static List<BridgeServer.CpdToken> getCpdTokens() {
+  public static CpdTokens getCpdTokens() {
     return new Gson().fromJson(CPD_TOKENS, CpdData.class).getCpdTokens();
   }
 
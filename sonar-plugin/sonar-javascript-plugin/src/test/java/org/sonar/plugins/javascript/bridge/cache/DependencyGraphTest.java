@@ -0,0 +1,157 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.SonarEdition;
+import org.sonar.api.SonarQubeSide;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.internal.SonarRuntimeImpl;
+import org.sonar.api.utils.Version;
+import org.sonar.plugins.javascript.bridge.PluginInfo;
+
+class DependencyGraphTest {
+
+  @TempDir
+  Path baseDir;
+
+  private SensorContextTester context;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    baseDir = baseDir.toRealPath();
+    context = SensorContextTester.create(baseDir);
+    context.setRuntime(
+      SonarRuntimeImpl.forSonarQube(
+        Version.create(9, 6),
+        SonarQubeSide.SCANNER,
+        SonarEdition.ENTERPRISE
+      )
+    );
+    context.setCanSkipUnchangedFiles(true);
+    context.setPreviousCache(mock(ReadCache.class));
+    context.setNextCache(mock(WriteCache.class));
+  }
+
+  @Test
+  void should_find_files_depending_on_changed_files() {
+    var a = inputFile("a.ts", InputFile.Status.SAME);
+    var b = inputFile("b.ts", InputFile.Status.SAME);
+    var c = inputFile("c.ts", InputFile.Status.CHANGED);
+    var d = inputFile("d.ts", InputFile.Status.SAME);
+    var e = inputFile("e.ts", InputFile.Status.SAME);
+    dependencies(a, "[\"b.ts\"]");
+    dependencies(b, "[\"c.ts\"]");
+    dependencies(d, "[\"e.ts\"]");
+    dependencies(e, "[\"deleted.ts\"]");
+
+    var graph = DependencyGraph.load(context, List.of(a, b, c, d, e));
+
+    assertThat(graph.isAffected(a)).isTrue();
+    assertThat(graph.isAffected(b)).isTrue();
+    assertThat(graph.isAffected(c)).isFalse();
+    assertThat(graph.isAffected(d)).isTrue();
+    assertThat(graph.isAffected(e)).isTrue();
+  }
+
+  @Test
+  void should_not_find_affected_files_when_all_files_are_analyzed() {
+    context.setCanSkipUnchangedFiles(false);
+    var a = inputFile("a.ts", InputFile.Status.SAME);
+    var b = inputFile("b.ts", InputFile.Status.CHANGED);
+    dependencies(a, "[\"b.ts\"]");
+
+    var graph = DependencyGraph.load(context, List.of(a, b));
+
+    assertThat(graph.isAffected(a)).isFalse();
+  }
+
+  @Test
+  void should_ignore_corrupted_dependencies() {
+    var a = inputFile("a.ts", InputFile.Status.SAME);
+    dependencies(a, "{");
+
+    var graph = DependencyGraph.load(context, List.of(a));
+
+    assertThat(graph.isAffected(a)).isFalse();
+  }
+
+  @Test
+  void should_record_dependencies_relative_to_base_dir() {
+    var a = inputFile("a.ts", InputFile.Status.ADDED);
+    var graph = DependencyGraph.load(context, List.of(a));
+
+    graph.record(a, List.of(baseDir.resolve("dir").resolve("b.ts").toString()));
+
+    verify(context.nextCache())
+      .write(key(a), "[\"dir/b.ts\"]".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void should_keep_dependencies_of_files_restored_from_cache() {
+    var a = inputFile("a.ts", InputFile.Status.SAME);
+    var b = inputFile("b.ts", InputFile.Status.SAME);
+    dependencies(a, "[\"b.ts\"]");
+    var graph = DependencyGraph.load(context, List.of(a, b));
+
+    graph.keep(a);
+    graph.keep(b);
+
+    verify(context.nextCache()).copyFromPrevious(key(a));
+    verify(context.nextCache(), never()).copyFromPrevious(key(b));
+    verify(context.nextCache(), never()).write(anyString(), any(byte[].class));
+  }
+
+  private InputFile inputFile(String filename, InputFile.Status status) {
+    return TestInputFileBuilder
+      .create("moduleKey", baseDir.toFile(), baseDir.resolve(filename).toFile())
+      .setStatus(status)
+      .build();
+  }
+
+  private void dependencies(InputFile inputFile, String json) {
+    var key = key(inputFile);
+    when(context.previousCache().contains(key)).thenReturn(true);
+    when(context.previousCache().read(key))
+      .thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String key(InputFile inputFile) {
+    return CacheKey.forFile(inputFile, PluginInfo.getVersion()).forDependencies().toString();
+  }
+}
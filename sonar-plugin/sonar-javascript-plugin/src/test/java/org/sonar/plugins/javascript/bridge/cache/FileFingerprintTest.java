@@ -0,0 +1,104 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+
+class FileFingerprintTest {
+
+  @TempDir
+  Path baseDir;
+
+  @AfterEach
+  void tearDown() {
+    FileFingerprint.clear();
+  }
+
+  @Test
+  void should_fingerprint_files_on_disk() throws Exception {
+    var small = "const a = 1;\n".getBytes(StandardCharsets.UTF_8);
+    var large = new byte[(int) FileFingerprint.MAPPING_THRESHOLD + 1];
+    Arrays.fill(large, (byte) 'a');
+
+    for (var bytes : new byte[][] { small, large }) {
+      var file = inputFile(baseDir.resolve(bytes.length + ".js"), bytes);
+      assertThat(FileFingerprint.sizeOf(file)).isEqualTo(bytes.length);
+
+      var fingerprint = FileFingerprint.of(file);
+      assertThat(fingerprint.size()).isEqualTo(bytes.length);
+      assertThat(fingerprint.hash()).isEqualTo(sha256(bytes));
+      verify(file, never()).contents();
+      verify(file, never()).inputStream();
+    }
+  }
+
+  @Test
+  void should_fingerprint_files_not_on_disk() throws Exception {
+    var file = TestInputFileBuilder
+      .create("module", "file.ts")
+      .setContents("abc")
+      .setCharset(StandardCharsets.UTF_8)
+      .build();
+
+    assertThat(FileFingerprint.sizeOf(file)).isEqualTo(3);
+    assertThat(FileFingerprint.of(file).hash())
+      .isEqualTo(sha256("abc".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void should_memoize_fingerprints() throws Exception {
+    var path = baseDir.resolve("file.js");
+    var file = inputFile(path, "abc".getBytes(StandardCharsets.UTF_8));
+    var fingerprint = FileFingerprint.of(file);
+
+    Files.writeString(path, "abcd");
+    assertThat(FileFingerprint.of(file)).isSameAs(fingerprint);
+    assertThat(FileFingerprint.sizeOf(file)).isEqualTo(3);
+
+    FileFingerprint.clear();
+    assertThat(FileFingerprint.of(file).size()).isEqualTo(4);
+  }
+
+  private static InputFile inputFile(Path path, byte[] bytes) throws Exception {
+    Files.write(path, bytes);
+    var file = mock(InputFile.class);
+    when(file.uri()).thenReturn(path.toUri());
+    return file;
+  }
+
+  private static byte[] sha256(byte[] bytes) throws Exception {
+    return MessageDigest.getInstance("SHA-256").digest(bytes);
+  }
+}
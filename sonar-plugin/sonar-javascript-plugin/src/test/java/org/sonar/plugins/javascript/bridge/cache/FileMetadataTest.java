@@ -20,13 +20,30 @@
 package org.sonar.plugins.javascript.bridge.cache;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 
 class FileMetadataTest {
 
+  @TempDir
+  Path baseDir;
+
+  @AfterEach
+  void tearDown() {
+    FileFingerprint.clear();
+  }
+
   @Test
   void test() throws Exception {
     var file = TestInputFileBuilder
@@ -58,4 +75,29 @@ class FileMetadataTest {
       .build();
     assertThat(metadata.compareTo(diffContent)).isFalse();
   }
+
+  @Test
+  void should_not_hash_file_when_cheap_checks_fail() throws Exception {
+    var path = baseDir.resolve("file.js");
+    Files.writeString(path, "abc");
+    var file = mock(InputFile.class);
+    when(file.uri()).thenReturn(path.toUri());
+    when(file.md5Hash()).thenReturn("md5");
+    var metadata = FileMetadata.from(file);
+    FileFingerprint.clear();
+
+    // same content, the scanner hash alone tells the file changed
+    var otherHash = mock(InputFile.class);
+    when(otherHash.uri()).thenReturn(path.toUri());
+    when(otherHash.md5Hash()).thenReturn("other");
+    assertThat(metadata.compareTo(otherHash)).isFalse();
+
+    var otherSize = baseDir.resolve("other.js");
+    Files.writeString(otherSize, "abcd");
+    var otherSizeFile = mock(InputFile.class);
+    when(otherSizeFile.uri()).thenReturn(otherSize.toUri());
+    when(otherSizeFile.md5Hash()).thenReturn("md5");
+    assertThat(metadata.compareTo(otherSizeFile)).isFalse();
+    verify(otherSizeFile, never()).md5Hash();
+  }
 }
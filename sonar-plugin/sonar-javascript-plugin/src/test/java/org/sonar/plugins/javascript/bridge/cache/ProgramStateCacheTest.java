@@ -0,0 +1,112 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.javascript.bridge.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.SonarEdition;
+import org.sonar.api.SonarQubeSide;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.internal.SonarRuntimeImpl;
+import org.sonar.api.utils.Version;
+import org.sonar.plugins.javascript.bridge.PluginInfo;
+
+class ProgramStateCacheTest {
+
+  @TempDir
+  Path baseDir;
+
+  @TempDir
+  Path workDir;
+
+  private SensorContextTester context;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    context = SensorContextTester.create(baseDir.toRealPath());
+    context.fileSystem().setWorkDir(workDir);
+    context.setRuntime(
+      SonarRuntimeImpl.forSonarQube(
+        Version.create(9, 6),
+        SonarQubeSide.SCANNER,
+        SonarEdition.ENTERPRISE
+      )
+    );
+    context.setPreviousCache(mock(ReadCache.class));
+    context.setNextCache(mock(WriteCache.class));
+  }
+
+  @Test
+  void should_restore_and_save_program_state() throws Exception {
+    var key = key("dir/tsconfig.json");
+    when(context.previousCache().contains(key)).thenReturn(true);
+    when(context.previousCache().read(key))
+      .thenReturn(new ByteArrayInputStream("previous".getBytes(StandardCharsets.UTF_8)));
+    var programStateCache = new ProgramStateCache(context);
+    var tsConfig = baseDir.toRealPath().resolve("dir").resolve("tsconfig.json").toString();
+
+    var stateFile = programStateCache.stateFile(tsConfig);
+
+    assertThat(stateFile).hasContent("previous");
+    assertThat(programStateCache.stateFile(tsConfig)).isEqualTo(stateFile);
+
+    Files.writeString(stateFile, "next");
+    programStateCache.save();
+    verify(context.nextCache()).write(key, "next".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void should_only_save_program_state_written_by_bridge_server() throws Exception {
+    var programStateCache = new ProgramStateCache(context);
+    var tsConfig = baseDir.toRealPath().resolve("tsconfig.json").toString();
+
+    var stateFile = programStateCache.stateFile(tsConfig);
+
+    assertThat(stateFile).doesNotExist();
+    programStateCache.save();
+    verify(context.nextCache(), never()).write(anyString(), any(byte[].class));
+  }
+
+  @Test
+  void should_not_cache_program_state_of_tsconfig_outside_project() throws Exception {
+    var programStateCache = new ProgramStateCache(context);
+
+    assertThat(programStateCache.stateFile(workDir.resolve("tsconfig.json").toString())).isNull();
+  }
+
+  private static String key(String relativePath) {
+    return CacheKey.forTsConfig(relativePath, PluginInfo.getVersion()).forProgramState().toString();
+  }
+}
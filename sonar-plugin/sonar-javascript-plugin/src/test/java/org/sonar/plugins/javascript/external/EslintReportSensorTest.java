@@ -37,6 +37,7 @@ import org.sonar.api.rules.RuleType;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 
 class EslintReportSensorTest {
 
@@ -56,7 +57,9 @@ class EslintReportSensorTest {
 
   private SensorContextTester context = SensorContextTester.create(BASE_DIR);
 
-  private EslintReportSensor eslintReportSensor = new EslintReportSensor();
+  private EslintReportSensor eslintReportSensor = new EslintReportSensor(
+    new InputFileIndexProvider()
+  );
   private DefaultInputFile jsInputFile = createInputFile(context, CONTENT, "file.js");
   private DefaultInputFile tsInputFile = createInputFile(context, CONTENT, "file-ts.ts");
   private DefaultInputFile parseErrorInputFile = createInputFile(context, CONTENT, "parseError.js");
@@ -48,6 +48,7 @@ import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 
 class TslintReportSensorTest {
 
@@ -65,7 +66,9 @@ class TslintReportSensorTest {
 
   private SensorContextTester context = SensorContextTester.create(BASE_DIR);
 
-  private TslintReportSensor tslintReportSensor = new TslintReportSensor();
+  private TslintReportSensor tslintReportSensor = new TslintReportSensor(
+    new InputFileIndexProvider()
+  );
   private DefaultInputFile inputFile = createInputFile(context, CONTENT, "myFile.ts");
 
   private static final SonarRuntime RUNTIME = SonarRuntimeImpl.forSonarQube(
@@ -32,8 +32,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
-import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.InputFile.Type;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.FileMetadata;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
@@ -43,6 +43,7 @@ import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
+import org.sonar.plugins.javascript.filesystem.InputFileIndexProvider;
 
 class CoverageSensorTest {
 
@@ -56,7 +57,7 @@ class CoverageSensorTest {
   @TempDir
   Path tempDir;
 
-  private CoverageSensor coverageSensor = new CoverageSensor();
+  private CoverageSensor coverageSensor = new CoverageSensor(new InputFileIndexProvider());
   private File moduleBaseDir = new File("src/test/resources/coverage/").getAbsoluteFile();
 
   @RegisterExtension
@@ -31,4 +31,10 @@ class UnicodeEscapeTest {
     assertThat(unicodeEscape("test \u0000")).isEqualTo("test \\u0000");
     assertThat(unicodeEscape("Ödmjuk")).isEqualTo("\\u0214dmjuk");
   }
+
+  @Test
+  void should_not_copy_printable_ascii() {
+    var message = "Remove this useless assignment to variable \"x\".";
+    assertThat(unicodeEscape(message)).isSameAs(message);
+  }
 }
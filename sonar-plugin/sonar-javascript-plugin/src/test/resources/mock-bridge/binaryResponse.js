@@ -0,0 +1,46 @@
+#!/usr/bin/env node
+
+const fs = require('fs');
+const http = require('http');
+const path = require('path');
+const port = process.argv[2];
+const host = process.argv[3];
+
+const BINARY_CONTENT_TYPE = 'application/x-sonarjs-analysis';
+const analysis = fs.readFileSync(path.join(__dirname, '..', 'binary-response', 'analysis.bin'));
+
+const requestHandler = (request, response) => {
+  let data = '';
+  request.on('data', chunk => (data += chunk));
+  request.on('end', () => {
+    if (request.url === '/status') {
+      response.writeHead(200, { 'Content-Type': 'text/plain' });
+      response.end('OK!');
+    } else if (request.url === '/close') {
+      response.end();
+      server.close();
+    } else if (request.url === '/analyze-batch') {
+      const { requests } = JSON.parse(data);
+      response.writeHead(200, { 'Content-Type': BINARY_CONTENT_TYPE });
+      requests.forEach(() => response.write(analysis));
+      response.end();
+    } else if ((request.headers['accept'] || '').includes(BINARY_CONTENT_TYPE)) {
+      response.writeHead(200, { 'Content-Type': BINARY_CONTENT_TYPE });
+      response.end(analysis);
+    } else {
+      response.end('{ issues: [] }');
+    }
+  });
+};
+
+const server = http.createServer(requestHandler);
+server.keepAliveTimeout = 100; // this is used so server disconnects faster
+
+server.listen(port, host, err => {
+  if (err) {
+    return console.log('something bad happened', err);
+  }
+
+  console.log(`server is listening on ${host} ${port}`);
+  console.log('SONARJS_BRIDGE_READY');
+});
@@ -26,4 +26,5 @@ server.keepAliveTimeout = 100  // this is used so server disconnects faster
 
 server.listen(port, host, () => {
   console.log(`server is listening on ${host} ${port}`);
+  console.log('SONARJS_BRIDGE_READY');
 })
@@ -21,4 +21,6 @@ server.listen(port, host, (err) => {
   }
 
   console.log(`server is listening on ${host} ${port}`);
+  console.log("SONARJS_BRIDGE_READY");
+  server.close();
 });
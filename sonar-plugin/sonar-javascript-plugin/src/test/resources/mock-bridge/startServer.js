@@ -8,6 +8,10 @@ console.log(`allowTsParserJsFiles: ${process.argv[5]}`);
 console.log(`sonarlint: ${process.argv[6]}`);
 console.log(`debugMemory: ${process.argv[7]}`);
 console.log(`additional rules: [${process.argv[8]}]`);
+if (process.argv[9] !== "0") {
+  console.log(`idle timeout: ${process.argv[9]}`);
+}
+console.log(`worker count: ${process.argv[10]}`);
 
 const requestHandler = (request, response) => {
   let data = "";
@@ -35,8 +39,13 @@ const requestHandler = (request, response) => {
       response.end(
         "{programId: '42', projectReferences: [], files: ['abs/path/file1', 'abs/path/file2', 'abs/path/file3']}"
       );
+    } else if (request.url === "/memory") {
+      response.end("{usedHeapSize: 100, heapSizeLimit: 1000, majorGcCount: 2}");
     } else if (request.url === "/delete-program") {
       response.end("OK!");
+    } else if (request.url === "/analyze-batch") {
+      const { requests } = JSON.parse(data);
+      response.end(requests.map(() => "{ issues: [] }\n").join(""));
     } else if (request.url === "/create-tsconfig-file") {
       response.end('{"filename":"/path/to/tsconfig.json"}');
     } else {
@@ -58,6 +67,7 @@ server.listen(port, host, (err) => {
   }
 
   console.log(`server is listening on ${host} ${port}`);
+  console.log('SONARJS_BRIDGE_READY');
 });
 
 process.on("exit", () => {
@@ -27,6 +27,7 @@ server.listen(port, host, err => {
   }
 
   console.log(`server is listening on ${host} ${port}`);
+  console.log('SONARJS_BRIDGE_READY');
 });
 
 function sleep(ms) {